@@ -6,6 +6,8 @@ import imagine.stage.StageElement;
 import imagine.stage.Stage;
 import imagine.camera.type.*;
 import imagine.object.GameObject;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
 
 /**
  * Class that represents the view of a {@code Stage}.
@@ -238,4 +240,28 @@ public class Camera extends StageElement {
         type.draw(g2);
     }
 
+    /**
+     * Adds the grid of this {@code Camera} to
+     * the passed {@code snapshot} if it has
+     * one and is configured to draw it.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     * to be filled
+     */
+    public void capture(RenderSnapshot snapshot) {
+        type.capture(snapshot);
+    }
+
+    /**
+     * Adds the grid of this {@code Camera} to
+     * the passed {@code queue} if it has one
+     * and is configured to draw it.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be filled
+     */
+    public void enqueue(RenderQueue queue) {
+        type.enqueue(queue);
+    }
+
 }
\ No newline at end of file
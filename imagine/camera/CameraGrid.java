@@ -4,6 +4,8 @@ import java.awt.Graphics2D;
 import java.awt.Color;
 
 import imagine.game.GameElement;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
 
 /**
  * Class to represent camera grids used to
@@ -101,4 +103,44 @@ public class CameraGrid extends GameElement {
         );
     }
 
+    /**
+     * Adds the lines of this {@code CameraGrid}
+     * to the passed {@code snapshot} with the
+     * passed {@code color}.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     * to be filled
+     * @param color the color with which to draw
+     */
+    public void capture(RenderSnapshot snapshot, Color color) {
+        if(color == null) {
+            color = Color.WHITE;
+        }
+
+        snapshot.addLine(color, 0, getTop(), camera.getWidth(), getTop());
+        snapshot.addLine(color, 0, getBottom(), camera.getWidth(), getBottom());
+        snapshot.addLine(color, getLeft(), 0, getLeft(), camera.getHeight());
+        snapshot.addLine(color, getRight(), 0, getRight(), camera.getHeight());
+    }
+
+    /**
+     * Adds the commands that draw the lines of
+     * this {@code CameraGrid} to the passed
+     * {@code queue} with the passed {@code color}.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be filled
+     * @param color the color with which to draw
+     */
+    public void enqueue(RenderQueue queue, Color color) {
+        if(color == null) {
+            color = Color.WHITE;
+        }
+
+        queue.addLine(color, 0, getTop(), camera.getWidth(), getTop());
+        queue.addLine(color, 0, getBottom(), camera.getWidth(), getBottom());
+        queue.addLine(color, getLeft(), 0, getLeft(), camera.getHeight());
+        queue.addLine(color, getRight(), 0, getRight(), camera.getHeight());
+    }
+
 }
\ No newline at end of file
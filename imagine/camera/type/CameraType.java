@@ -3,6 +3,8 @@ package imagine.camera.type;
 import java.awt.Graphics2D;
 
 import imagine.camera.CameraGrid;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
 
 /**
  * Interface extended by all
@@ -40,4 +42,38 @@ public interface CameraType {
      */
     void draw(Graphics2D g2);
 
+    /**
+     * Method for defining how
+     * a {@code Camera} that has
+     * this {@code CameraType}
+     * should add its grid to a
+     * {@code RenderSnapshot}.
+     * <p>
+     * By default, nothing is added.
+     * 
+     * @param snapshot the
+     * {@code RenderSnapshot}
+     * to be filled
+     */
+    default void capture(RenderSnapshot snapshot) {
+        
+    }
+
+    /**
+     * Method for defining how
+     * a {@code Camera} that has
+     * this {@code CameraType}
+     * should add its grid to a
+     * {@code RenderQueue}.
+     * <p>
+     * By default, nothing is added.
+     * 
+     * @param queue the
+     * {@code RenderQueue}
+     * to be filled
+     */
+    default void enqueue(RenderQueue queue) {
+        
+    }
+
 }
\ No newline at end of file
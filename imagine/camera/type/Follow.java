@@ -6,6 +6,8 @@ import java.awt.Color;
 import imagine.camera.Camera;
 import imagine.camera.CameraGrid;
 import imagine.object.GameObject;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
 
 /**
  * Class that represents a follow
@@ -155,6 +157,21 @@ public class Follow implements CameraType {
         return 0;
     }
 
+    /**
+     * Returns the color with which the {@code grid}
+     * is drawn: red if the {@code target} is outside
+     * the {@code grid} and green if it is inside.
+     * 
+     * @return the color of the {@code grid}
+     */
+    private Color getGridColor() {
+        if(getTargetXOffset() != 0 || getTargetYOffset() != 0) {
+            return Color.RED;
+        } else {
+            return Color.GREEN;
+        }
+    }
+
     /**
      * Draws the {@code grid} outline using the {@code g2}
      * argument. The drawing will have a red color if the
@@ -164,14 +181,7 @@ public class Follow implements CameraType {
      * @param g2 {@code Graphics2D} with which to draw
      */
     private void drawGrid(Graphics2D g2) {
-        Color color;
-        if(getTargetXOffset() != 0 || getTargetYOffset() != 0) {
-            color = Color.RED;
-        } else {
-            color = Color.GREEN;
-        }
-
-        grid.draw(g2, color);
+        grid.draw(g2, getGridColor());
     }
 
     /**
@@ -232,5 +242,39 @@ public class Follow implements CameraType {
             drawGrid(g2);
         }
     }
+
+    /**
+     * Adds the {@code CameraGrid} of
+     * the {@code camera} to the passed
+     * {@code snapshot} if it is configured
+     * to be drawn by its {@code drawGrid}
+     * field.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     * to be filled
+     */
+    @Override
+    public void capture(RenderSnapshot snapshot) {
+        if(camera.getDrawGrid()) {
+            grid.capture(snapshot, getGridColor());
+        }
+    }
+
+    /**
+     * Adds the {@code CameraGrid} of
+     * the {@code camera} to the passed
+     * {@code queue} if it is configured
+     * to be drawn by its {@code drawGrid}
+     * field.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be filled
+     */
+    @Override
+    public void enqueue(RenderQueue queue) {
+        if(camera.getDrawGrid()) {
+            grid.enqueue(queue, getGridColor());
+        }
+    }
     
 }
\ No newline at end of file
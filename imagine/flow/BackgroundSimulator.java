@@ -0,0 +1,324 @@
+package imagine.flow;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import imagine.game.Game;
+import imagine.stage.Stage;
+
+/**
+ * Class that keeps updating the stages of a
+ * {@code Game} that are marked as background
+ * simulated while they aren't selected, on a
+ * worker thread of its own and without
+ * drawing them.
+ * <p>
+ * It is advanced once per tick of the game.
+ * On every tick, the background stages whose
+ * background tick interval is due are updated
+ * together, in one batch, while the game goes
+ * on with its own update. If the previous batch
+ * didn't finish yet, the stages of the tick are
+ * skipped, so the worker never falls behind
+ * the game.
+ * <p>
+ * Before a stage is selected, the batch being
+ * run is waited for, so that a stage is never
+ * updated by both threads at once. The game also
+ * waits for it at the beginning of each update,
+ * before polling the input, so a batch never
+ * outlives the tick on which it was handed over.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see Stage#setBackgroundSimulated(boolean)
+ */
+public class BackgroundSimulator {
+
+    /**
+     * The {@code Game} whose
+     * stages are simulated.
+     */
+    private Game game;
+
+    /**
+     * The worker that updates
+     * the background stages.
+     */
+    private ExecutorService worker;
+
+    /**
+     * The thread of the worker, once it exists.
+     */
+    private volatile Thread workerThread;
+
+    /**
+     * The batch being run by the worker.
+     */
+    private Future<?> batch;
+
+    /**
+     * How many ticks this
+     * simulator was advanced.
+     */
+    private long ticks = 0;
+
+    /**
+     * How many background stage
+     * updates were run.
+     */
+    private volatile long simulatedUpdates = 0;
+
+    /**
+     * How many batches were skipped because
+     * the previous one didn't finish.
+     */
+    private long skippedBatches = 0;
+
+    /**
+     * Creates a new {@code BackgroundSimulator}
+     * that simulates the stages of the passed
+     * {@code game}.
+     * 
+     * @param game the {@code Game} whose
+     * stages are simulated
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null}
+     */
+    public BackgroundSimulator(Game game) {
+        if(game == null) {
+            throw new IllegalArgumentException (
+                "cannot simulate null game"
+            );
+        }
+
+        this.game = game;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BackgroundSimulator");
+            thread.setDaemon(true);
+            workerThread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Advances this simulator by one tick,
+     * handing the background stages that are
+     * due on it to the worker. The current
+     * stage and the stages that were never
+     * started are left out.
+     * 
+     * @throws IllegalStateException if the
+     * worker failed on the previous batch
+     */
+    public synchronized void tick() {
+        ticks++;
+        if(batch != null && !batch.isDone()) {
+            if(hasDueStages()) {
+                skippedBatches++;
+            }
+            return;
+        }
+        checkFailure();
+
+        ArrayList<Stage> dueStages = new ArrayList<Stage>();
+        for(Stage stage : game.getStages()) {
+            if(isDue(stage)) {
+                dueStages.add(stage);
+            }
+        }
+        if(dueStages.isEmpty()) {
+            return;
+        }
+
+        batch = worker.submit(() -> {
+            for(Stage stage : dueStages) {
+                stage.update();
+                simulatedUpdates++;
+            }
+        });
+    }
+
+    /**
+     * Returns {@code true} if the passed
+     * {@code stage} should be updated by the
+     * worker on the current tick.
+     * 
+     * @param stage the stage to verify
+     * 
+     * @return boolean telling if the
+     * stage is due
+     */
+    private boolean isDue(Stage stage) {
+        return stage.isBackgroundSimulated() &&
+               stage.isStarted() &&
+               stage != game.getCurrentStage() &&
+               ticks % stage.getBackgroundTickInterval() == 0;
+    }
+
+    /**
+     * Returns {@code true} if any background
+     * stage is due on the current tick.
+     * 
+     * @return boolean telling if there
+     * are due stages
+     */
+    private boolean hasDueStages() {
+        for(Stage stage : game.getStages()) {
+            if(isDue(stage)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Waits until the batch being run by the
+     * worker, if any, finishes. Must be called
+     * before a stage that may be simulated in
+     * the background is updated or drawn by
+     * another thread. Does nothing if called by
+     * the worker itself, which would otherwise
+     * wait for its own batch forever.
+     * 
+     * @throws IllegalStateException if the
+     * worker failed on the batch
+     */
+    public void awaitBatch() {
+        if(isWorkerThread()) {
+            return;
+        }
+
+        synchronized(this) {
+            waitBatch();
+        }
+    }
+
+    /**
+     * Waits until the batch being run by the
+     * worker, if any, finishes.
+     * 
+     * @throws IllegalStateException if the
+     * worker failed on the batch
+     */
+    private void waitBatch() {
+        if(batch == null) {
+            return;
+        }
+
+        boolean interrupted = false;
+        while(!batch.isDone()) {
+            try {
+                batch.get();
+            } catch(InterruptedException e) {
+                interrupted = true;
+            } catch(ExecutionException e) {
+                break;
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Returns {@code true} if the calling thread
+     * is the worker of this simulator, that is,
+     * if it is called while a background
+     * stage is updated.
+     * 
+     * @return boolean telling if the
+     * caller is the worker
+     */
+    public boolean isWorkerThread() {
+        return Thread.currentThread() == workerThread;
+    }
+
+    /**
+     * Throws the exception with which the
+     * last batch failed, if it did, and
+     * forgets about the batch.
+     * 
+     * @throws IllegalStateException if the
+     * last batch failed
+     */
+    private void checkFailure() {
+        Future<?> batch = this.batch;
+        this.batch = null;
+        if(batch == null || batch.isCancelled()) {
+            return;
+        }
+
+        try {
+            batch.get();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException (
+                "background stage failed to update", e.getCause()
+            );
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns how many ticks this
+     * {@code BackgroundSimulator}
+     * was advanced.
+     * 
+     * @return the amount of ticks
+     */
+    public synchronized long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Returns how many background stage
+     * updates were run by the worker.
+     * 
+     * @return the amount of simulated updates
+     */
+    public long getSimulatedUpdates() {
+        return this.simulatedUpdates;
+    }
+
+    /**
+     * Returns how many batches were skipped
+     * because the previous one didn't
+     * finish in time.
+     * 
+     * @return the amount of skipped batches
+     */
+    public synchronized long getSkippedBatches() {
+        return this.skippedBatches;
+    }
+
+    /**
+     * Waits for the batch being run and
+     * stops the worker of this simulator.
+     */
+    public void shutdown() {
+        try {
+            awaitBatch();
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this simulator
+     * was shut down and {@code false} otherwise.
+     * 
+     * @return boolean telling if this
+     * simulator was shut down
+     */
+    public boolean isShutdown() {
+        return worker.isShutdown();
+    }
+
+}
\ No newline at end of file
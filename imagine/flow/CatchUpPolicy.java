@@ -0,0 +1,158 @@
+package imagine.flow;
+
+/**
+ * Class that decides how a {@code GameFlow}
+ * catches up when it falls behind, like
+ * after a long garbage collection pause or
+ * a slow stage switch.
+ * <p>
+ * When more than one update is due, the
+ * flow runs the first one and up to
+ * {@code maxCatchUpUpdates} more without
+ * drawing in between (skipped ticks). The
+ * rest of the due updates are thrown away
+ * (dropped ticks), so that the flow never
+ * falls into a spiral of updates that take
+ * longer than the time they simulate.
+ * 
+ * @author Daniel O Sousa
+ */
+public class CatchUpPolicy {
+
+    /**
+     * The default amount of catch up
+     * updates, which is {@code 5}.
+     */
+    public static final int DEFAULT_MAX_CATCH_UP_UPDATES = 5;
+
+    /**
+     * How many updates can be run without
+     * drawing, besides the first one, when
+     * the flow is behind.
+     */
+    private int maxCatchUpUpdates;
+
+    /**
+     * How many updates were run
+     * without drawing in between.
+     */
+    private long skippedTicks = 0;
+
+    /**
+     * How many due updates were
+     * thrown away.
+     */
+    private long droppedTicks = 0;
+
+    /**
+     * Constructs a new {@code CatchUpPolicy}
+     * with the default amount of catch up
+     * updates.
+     * 
+     * @see #DEFAULT_MAX_CATCH_UP_UPDATES
+     */
+    public CatchUpPolicy() {
+        setMaxCatchUpUpdates(DEFAULT_MAX_CATCH_UP_UPDATES);
+    }
+
+    /**
+     * Constructs a new {@code CatchUpPolicy}
+     * that runs up to {@code maxCatchUpUpdates}
+     * catch up updates.
+     * 
+     * @param maxCatchUpUpdates the amount of
+     * catch up updates
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code maxCatchUpUpdates} argument is negative
+     */
+    public CatchUpPolicy(int maxCatchUpUpdates) {
+        setMaxCatchUpUpdates(maxCatchUpUpdates);
+    }
+
+    /**
+     * Sets how many updates can be run
+     * without drawing, besides the first
+     * one, when the flow is behind. If set
+     * to {@code 0}, every update beyond the
+     * first is dropped.
+     * 
+     * @param maxCatchUpUpdates the amount of
+     * catch up updates
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code maxCatchUpUpdates} argument is negative
+     */
+    public synchronized void setMaxCatchUpUpdates(int maxCatchUpUpdates) {
+        if(maxCatchUpUpdates < 0) {
+            throw new IllegalArgumentException (
+                "max catch up updates cannot be negative"
+            );
+        }
+
+        this.maxCatchUpUpdates = maxCatchUpUpdates;
+    }
+
+    /**
+     * Returns how many updates can be run
+     * without drawing, besides the first
+     * one, when the flow is behind.
+     * 
+     * @return the amount of catch up updates
+     */
+    public synchronized int getMaxCatchUpUpdates() {
+        return this.maxCatchUpUpdates;
+    }
+
+    /**
+     * Decides how many of the {@code dueUpdates}
+     * should be run, counting the ones that will
+     * be run without drawing as skipped and the
+     * ones that won't be run as dropped.
+     * 
+     * @param dueUpdates how many updates are due
+     * 
+     * @return how many updates should be run
+     */
+    public synchronized int admit(int dueUpdates) {
+        if(dueUpdates <= 0) {
+            return 0;
+        }
+
+        int updates = Math.min(dueUpdates, maxCatchUpUpdates + 1);
+        skippedTicks += updates - 1;
+        droppedTicks += dueUpdates - updates;
+
+        return updates;
+    }
+
+    /**
+     * Returns how many updates were
+     * run without drawing in between.
+     * 
+     * @return the amount of skipped ticks
+     */
+    public synchronized long getSkippedTicks() {
+        return this.skippedTicks;
+    }
+
+    /**
+     * Returns how many due updates
+     * were thrown away.
+     * 
+     * @return the amount of dropped ticks
+     */
+    public synchronized long getDroppedTicks() {
+        return this.droppedTicks;
+    }
+
+    /**
+     * Clears the skipped and
+     * dropped ticks counters.
+     */
+    public synchronized void resetCounters() {
+        skippedTicks = 0;
+        droppedTicks = 0;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package imagine.flow;
+
+/**
+ * Class used for measuring how well a
+ * {@code GameFlow} hits the deadlines
+ * of its frames.
+ * <p>
+ * Every time the flow wakes up for a
+ * new frame, the difference between the
+ * wake up time and the deadline (the
+ * lateness) is recorded.
+ * 
+ * @author Daniel O Sousa
+ */
+public class DeadlineMonitor {
+
+    /**
+     * The default miss tolerance in
+     * nanoseconds, which is of
+     * {@code 1} millisecond.
+     */
+    public static final long DEFAULT_MISS_TOLERANCE = 1000000;
+
+    /**
+     * How late, in nanoseconds, a wake up
+     * can be before it is counted as a
+     * missed deadline.
+     */
+    private long missTolerance = DEFAULT_MISS_TOLERANCE;
+
+    /**
+     * How many deadlines were recorded.
+     */
+    private long deadlines = 0;
+
+    /**
+     * How many of the recorded deadlines
+     * were missed.
+     */
+    private long missedDeadlines = 0;
+
+    /**
+     * The sum of the recorded lateness
+     * in nanoseconds.
+     */
+    private long totalLateness = 0;
+
+    /**
+     * The biggest recorded lateness
+     * in nanoseconds.
+     */
+    private long maxLateness = 0;
+
+    /**
+     * Sets how late, in nanoseconds, a
+     * wake up can be before it is counted
+     * as a missed deadline.
+     * 
+     * @param missTolerance the tolerance to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code missTolerance} argument is negative
+     */
+    public synchronized void setMissTolerance(long missTolerance) {
+        if(missTolerance < 0) {
+            throw new IllegalArgumentException (
+                "miss tolerance cannot be negative"
+            );
+        }
+
+        this.missTolerance = missTolerance;
+    }
+
+    /**
+     * Returns the tolerance in nanoseconds
+     * after which a deadline is counted
+     * as missed.
+     * 
+     * @return the miss tolerance
+     */
+    public synchronized long getMissTolerance() {
+        return this.missTolerance;
+    }
+
+    /**
+     * Records a wake up that happened at the
+     * {@code wakeTime} for a frame whose
+     * deadline was the {@code deadline}.
+     * 
+     * @param deadline the deadline in nanoseconds
+     * @param wakeTime the wake up time in nanoseconds
+     */
+    public synchronized void record(long deadline, long wakeTime) {
+        long lateness = Math.max(0, wakeTime - deadline);
+
+        deadlines++;
+        totalLateness += lateness;
+        if(lateness > maxLateness) {
+            maxLateness = lateness;
+        }
+        if(lateness > missTolerance) {
+            missedDeadlines++;
+        }
+    }
+
+    /**
+     * Returns how many deadlines
+     * were recorded.
+     * 
+     * @return the amount of deadlines
+     */
+    public synchronized long getDeadlines() {
+        return this.deadlines;
+    }
+
+    /**
+     * Returns how many of the recorded
+     * deadlines were missed.
+     * 
+     * @return the amount of missed deadlines
+     */
+    public synchronized long getMissedDeadlines() {
+        return this.missedDeadlines;
+    }
+
+    /**
+     * Returns the fraction, between {@code 0}
+     * and {@code 1}, of the recorded deadlines
+     * that were missed. {@code 0} is returned
+     * if no deadline was recorded.
+     * 
+     * @return the miss rate
+     */
+    public synchronized double getMissRate() {
+        if(deadlines == 0) {
+            return 0;
+        }
+
+        return (double) missedDeadlines / deadlines;
+    }
+
+    /**
+     * Returns the average lateness of the
+     * recorded deadlines in nanoseconds.
+     * {@code 0} is returned if no deadline
+     * was recorded.
+     * 
+     * @return the average lateness
+     */
+    public synchronized double getAverageLateness() {
+        if(deadlines == 0) {
+            return 0;
+        }
+
+        return (double) totalLateness / deadlines;
+    }
+
+    /**
+     * Returns the biggest recorded
+     * lateness in nanoseconds.
+     * 
+     * @return the max lateness
+     */
+    public synchronized long getMaxLateness() {
+        return this.maxLateness;
+    }
+
+    /**
+     * Clears every recorded deadline.
+     */
+    public synchronized void reset() {
+        deadlines = 0;
+        missedDeadlines = 0;
+        totalLateness = 0;
+        maxLateness = 0;
+    }
+
+}
\ No newline at end of file
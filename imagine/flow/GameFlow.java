@@ -1,6 +1,10 @@
 package imagine.flow;
 
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+
 import imagine.game.Game;
+import imagine.flow.pacing.*;
 
 /**
  * {@code GameFlow} is a class used for creating a new thread
@@ -20,7 +24,7 @@ public class GameFlow implements Runnable {
      * <p>
      * When set to {@code null}, stops the game.
      */
-    private Thread flow;
+    private volatile Thread flow;
 
     /**
      * The FPS on which the game should run.
@@ -63,6 +67,75 @@ public class GameFlow implements Runnable {
      */
     private int timesUpdated = 0;
 
+    /**
+     * Counts how many times the game is drawn each
+     * second when running with a fixed timestep.
+     */
+    private int timesRendered = 0;
+
+    /**
+     * Tells if the game should be updated with a
+     * fixed timestep, independently from how often
+     * it is drawn.
+     * <p>
+     * Is initially set to {@code false}, which means
+     * that every update is followed by a draw.
+     */
+    private boolean fixedTimestep = false;
+
+    /**
+     * The FPS on which the game should be drawn when
+     * running with a fixed timestep. When set to
+     * {@code 0}, the refresh rate of the display
+     * is used.
+     */
+    private int renderFps = 0;
+
+    /**
+     * Stores the interval in nano seconds on which
+     * the game should be drawn when running with
+     * a fixed timestep.
+     */
+    private double renderInterval;
+
+    /**
+     * Variable for controlling the interval
+     * between each game draw when running with
+     * a fixed timestep.
+     */
+    private double renderDelta = 0;
+
+    /**
+     * How far, between {@code 0} and {@code 1}, the
+     * flow is from the last update to the next one
+     * at the moment of the last draw. Used to blend
+     * the positions of the drawn elements.
+     */
+    private volatile double interpolation = 1;
+
+    /**
+     * Tells if the game is paused. While paused,
+     * the thread of this flow blocks until it
+     * is resumed, stepped or killed.
+     * <p>
+     * Is initially set to {@code false}.
+     */
+    private volatile boolean paused = false;
+
+    /**
+     * How many updates are left to be run
+     * while the game is paused.
+     */
+    private int pendingSteps = 0;
+
+    /**
+     * How fast the time of the game passes
+     * compared to the real time.
+     * <p>
+     * Is initially set to {@code 1}.
+     */
+    private volatile double timeScale = 1;
+
     /**
      * Tells if the FPS should be displayed on the console
      * or not.
@@ -71,6 +144,35 @@ public class GameFlow implements Runnable {
      */
     private boolean displayFps = false;
 
+    /**
+     * The type of pacing used to wait
+     * between each frame.
+     * <p>
+     * Is initially set to {@code SleepSpin}.
+     */
+    private volatile PacingType pacingType = new SleepSpin();
+
+    /**
+     * Measures how well the deadlines
+     * of the frames are hit.
+     */
+    private DeadlineMonitor deadlineMonitor = new DeadlineMonitor();
+
+    /**
+     * Decides how many updates are run
+     * when the flow falls behind.
+     */
+    private CatchUpPolicy catchUpPolicy = new CatchUpPolicy();
+
+    /**
+     * The flow that draws the game on its own
+     * thread from the published snapshots.
+     * <p>
+     * When {@code null}, the game is drawn
+     * by the {@code GamePanel} itself.
+     */
+    private volatile RenderFlow renderFlow;
+
     /**
      * Creates a new {@code GameFlow} for running the specified
      * game {@code game} with the specified FPS {@code fps}.
@@ -83,6 +185,7 @@ public class GameFlow implements Runnable {
         createFlow();
         storeFps(fps);
         calculateFpsInterval();
+        calculateRenderInterval();
         startFlow();
     }
 
@@ -195,6 +298,220 @@ public class GameFlow implements Runnable {
         return this.fpsInterval;
     }
 
+    /**
+     * Configures if this {@code GameFlow} should
+     * update its {@code Game} with a fixed timestep.
+     * <p>
+     * With a fixed timestep the game is updated
+     * at the fps of this {@code GameFlow}, running
+     * as many updates as needed to keep up, while
+     * it is drawn at the render fps. Each draw
+     * receives an interpolation value telling how
+     * far it is between two updates.
+     * 
+     * @param fixedTimestep boolean describing
+     * if the timestep should be fixed
+     * 
+     * @see #setRenderFps(int)
+     * @see #getInterpolation()
+     */
+    public void setFixedTimestep(boolean fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+        this.renderDelta = 0;
+        this.interpolation = 1;
+    }
+
+    /**
+     * Returns {@code true} if this
+     * {@code GameFlow} updates its
+     * {@code Game} with a fixed timestep
+     * and {@code false} otherwise.
+     * 
+     * @return boolean describing if
+     * the timestep is fixed
+     */
+    public boolean getFixedTimestep() {
+        return this.fixedTimestep;
+    }
+
+    /**
+     * Sets the fps with which this {@code GameFlow}
+     * draws its {@code Game} when running with a
+     * fixed timestep. If set to {@code 0}, the
+     * refresh rate of the display is used.
+     * 
+     * @param renderFps the render fps to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code renderFps} argument is negative
+     */
+    public void setRenderFps(int renderFps) {
+        if(renderFps < 0) {
+            throw new IllegalArgumentException (
+                "render fps cannot be negative"
+            );
+        }
+
+        this.renderFps = renderFps;
+        calculateRenderInterval();
+    }
+
+    /**
+     * Returns the fps with which this
+     * {@code GameFlow} draws its {@code Game}
+     * when running with a fixed timestep.
+     * {@code 0} means that the refresh rate
+     * of the display is used.
+     * 
+     * @return the render fps
+     */
+    public int getRenderFps() {
+        return this.renderFps;
+    }
+
+    /**
+     * Calculates the interval in nanoseconds
+     * with which the game is drawn when running
+     * with a fixed timestep and stores it into
+     * the {@code renderInterval} field.
+     */
+    private void calculateRenderInterval() {
+        int fps = renderFps;
+        if(fps == 0) {
+            fps = getDisplayRefreshRate();
+        }
+
+        this.renderInterval = 1000000000 / fps;
+    }
+
+    /**
+     * Returns the refresh rate of the default
+     * screen. If it can't be known, {@code 60}
+     * is returned.
+     * 
+     * @return the refresh rate of the display
+     */
+    static int getDisplayRefreshRate() {
+        if(GraphicsEnvironment.isHeadless()) {
+            return 60;
+        }
+
+        int refreshRate = GraphicsEnvironment
+            .getLocalGraphicsEnvironment()
+            .getDefaultScreenDevice()
+            .getDisplayMode()
+            .getRefreshRate();
+        if(refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            return 60;
+        }
+
+        return refreshRate;
+    }
+
+    /**
+     * Returns how far, between {@code 0} and
+     * {@code 1}, this {@code GameFlow} was from
+     * the last update to the next one when the
+     * game was last drawn. It is always {@code 1}
+     * when not running with a fixed timestep.
+     * 
+     * @return the interpolation of the last draw
+     */
+    public double getInterpolation() {
+        return this.interpolation;
+    }
+
+    /**
+     * Pauses this {@code GameFlow}. While paused,
+     * its thread blocks without using the CPU
+     * until the {@code resume}, {@code step} or
+     * {@code killFlow} method is called.
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Resumes this {@code GameFlow} if it is
+     * paused. The time spent paused is not
+     * counted, so no updates are run to
+     * catch up with it.
+     */
+    public synchronized void resume() {
+        paused = false;
+        pendingSteps = 0;
+        notifyAll();
+    }
+
+    /**
+     * Returns {@code true} if this
+     * {@code GameFlow} is paused and
+     * {@code false} otherwise.
+     * 
+     * @return boolean describing if
+     * the flow is paused
+     */
+    public boolean isPaused() {
+        return this.paused;
+    }
+
+    /**
+     * Runs the specified amount of updates
+     * and draws the game once after them,
+     * leaving this {@code GameFlow} paused.
+     * If it isn't paused, it is paused first.
+     * 
+     * @param ticks how many updates should be run
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code ticks} argument is negative
+     */
+    public synchronized void step(int ticks) {
+        if(ticks < 0) {
+            throw new IllegalArgumentException (
+                "cannot step negative amount of ticks"
+            );
+        }
+
+        paused = true;
+        pendingSteps += ticks;
+        notifyAll();
+    }
+
+    /**
+     * Sets how fast the time of the game passes
+     * compared to the real time. With a time scale
+     * of {@code 2}, for example, the game is updated
+     * twice as often, while with {@code 0.5} it is
+     * updated half as often. The rate at which it is
+     * drawn with a fixed timestep doesn't change.
+     * 
+     * @param timeScale the time scale to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code timeScale} argument isn't a
+     * positive number
+     */
+    public void setTimeScale(double timeScale) {
+        if(!(timeScale > 0) || Double.isInfinite(timeScale)) {
+            throw new IllegalArgumentException (
+                "time scale must be a positive number"
+            );
+        }
+
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Returns how fast the time of the game
+     * passes compared to the real time.
+     * 
+     * @return the time scale
+     */
+    public double getTimeScale() {
+        return this.timeScale;
+    }
+
     /**
      * Configures if this {@code GameFlow} should
      * or not display its fps on the console
@@ -221,6 +538,165 @@ public class GameFlow implements Runnable {
         return this.displayFps;
     }
 
+    /**
+     * Sets the type of pacing used by this
+     * {@code GameFlow} to wait between frames
+     * to the passed {@code pacingType}.
+     * 
+     * @param pacingType the {@code PacingType} to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pacingType} argument is {@code null}
+     */
+    public void setPacingType(PacingType pacingType) {
+        if(pacingType == null) {
+            throw new IllegalArgumentException (
+                "cannot set null pacing type"
+            );
+        }
+
+        this.pacingType = pacingType;
+    }
+
+    /**
+     * Sets the type of pacing of this
+     * {@code GameFlow} to the {@code BusySpin}
+     * {@code PacingType}.
+     */
+    public void setPacingTypeBusySpin() {
+        setPacingType(new BusySpin());
+    }
+
+    /**
+     * Sets the type of pacing of this
+     * {@code GameFlow} to the {@code SleepSpin}
+     * {@code PacingType} with the default
+     * spin threshold.
+     */
+    public void setPacingTypeSleepSpin() {
+        setPacingType(new SleepSpin());
+    }
+
+    /**
+     * Sets the type of pacing of this
+     * {@code GameFlow} to the {@code SleepSpin}
+     * {@code PacingType} with the specified
+     * {@code spinThreshold}.
+     * 
+     * @param spinThreshold how long before each
+     * deadline, in nanoseconds, to start spinning
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code spinThreshold} argument is negative
+     */
+    public void setPacingTypeSleepSpin(long spinThreshold) {
+        setPacingType(new SleepSpin(spinThreshold));
+    }
+
+    /**
+     * Returns the type of pacing
+     * of this {@code GameFlow}.
+     * 
+     * @return the {@code PacingType}
+     */
+    public PacingType getPacingType() {
+        return this.pacingType;
+    }
+
+    /**
+     * Returns the {@code DeadlineMonitor}
+     * that measures how well this
+     * {@code GameFlow} hits the deadlines
+     * of its frames.
+     * 
+     * @return the {@code DeadlineMonitor}
+     */
+    public DeadlineMonitor getDeadlineMonitor() {
+        return this.deadlineMonitor;
+    }
+
+    /**
+     * Sets the {@code CatchUpPolicy} that decides
+     * how many updates this {@code GameFlow} runs
+     * when it falls behind.
+     * 
+     * @param catchUpPolicy the policy to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code catchUpPolicy} argument is {@code null}
+     */
+    public void setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+        if(catchUpPolicy == null) {
+            throw new IllegalArgumentException (
+                "cannot set null catch up policy"
+            );
+        }
+
+        this.catchUpPolicy = catchUpPolicy;
+    }
+
+    /**
+     * Returns the {@code CatchUpPolicy}
+     * of this {@code GameFlow}.
+     * 
+     * @return the {@code CatchUpPolicy}
+     */
+    public CatchUpPolicy getCatchUpPolicy() {
+        return this.catchUpPolicy;
+    }
+
+    /**
+     * Configures if this {@code GameFlow} should
+     * draw its {@code Game} on a separate thread.
+     * <p>
+     * When enabled, a {@code RenderSnapshot} of the
+     * current stage is published after the updates
+     * and a {@code RenderFlow} draws the latest one
+     * at the render fps, while this {@code GameFlow}
+     * keeps updating. The live stage is never read
+     * while drawing, so the {@code onDraw} methods
+     * of the game, stage and its elements are not
+     * executed in this mode.
+     * 
+     * @param snapshotRendering boolean describing if
+     * the game should be drawn on a separate thread
+     * 
+     * @see #setRenderFps(int)
+     */
+    public void setSnapshotRendering(boolean snapshotRendering) {
+        if(renderFlow != null) {
+            renderFlow.killFlow();
+            renderFlow = null;
+        }
+        if(snapshotRendering) {
+            renderFlow = new RenderFlow(game, renderFps);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this {@code GameFlow}
+     * draws its {@code Game} on a separate thread
+     * and {@code false} otherwise.
+     * 
+     * @return boolean describing if snapshot
+     * rendering is enabled
+     */
+    public boolean getSnapshotRendering() {
+        return renderFlow != null;
+    }
+
+    /**
+     * Returns the {@code RenderFlow} that draws
+     * the {@code Game} of this {@code GameFlow},
+     * or {@code null} if snapshot rendering
+     * is not enabled.
+     * 
+     * @return the {@code RenderFlow}
+     */
+    public RenderFlow getRenderFlow() {
+        return this.renderFlow;
+    }
+
     /**
      * Starts the flow of this
      * {@code GameFlow}, executing
@@ -239,6 +715,12 @@ public class GameFlow implements Runnable {
      */
     public void killFlow() {
         flow = null;
+        if(renderFlow != null) {
+            renderFlow.killFlow();
+        }
+        synchronized(this) {
+            notifyAll();
+        }
     }
 
     /**
@@ -250,29 +732,187 @@ public class GameFlow implements Runnable {
     @Override
     public void run() {
         while(flow != null) {
+            if(paused) {
+                runPaused();
+                continue;
+            }
+
             currentTime = System.nanoTime();
-            delta += (currentTime - lastTime) / fpsInterval;
+            delta += (currentTime - lastTime) * timeScale / fpsInterval;
+            if(fixedTimestep) {
+                renderDelta += (currentTime - lastTime) / renderInterval;
+            }
             timer += currentTime - lastTime;
             lastTime = currentTime;
 
-            if(delta >= 1) {
-                game.update();
-                game.repaintGamePanel();
-                delta--;
-
-                timesUpdated++;
+            if(fixedTimestep) {
+                runFixedTimestep();
+            } else if(delta >= 1) {
+                runDueUpdates();
+                present();
             }
 
             if(timer >= 1000000000) {
-                if(displayFps) {
-                    System.out.println (
-                        "FPS: " + timesUpdated
-                    );
-                }
+                displayFps();
                 timer = 0;
                 timesUpdated = 0;
+                timesRendered = 0;
+            }
+
+            waitNextFrame();
+        }
+    }
+
+    /**
+     * Blocks until this {@code GameFlow} is resumed,
+     * stepped or killed, running the requested steps.
+     * Then restarts the time base so that the time
+     * spent paused isn't caught up with.
+     */
+    private void runPaused() {
+        int steps = awaitSteps();
+        for(int i = 0; i < steps; i++) {
+            game.update();
+
+            timesUpdated++;
+        }
+        if(steps > 0) {
+            interpolation = 1;
+            present();
+        }
+
+        lastTime = System.nanoTime();
+        delta = 0;
+        renderDelta = 0;
+    }
+
+    /**
+     * Waits, without using the CPU, while this
+     * {@code GameFlow} is paused and has no
+     * steps to run. If the waiting thread is
+     * interrupted, the flow is killed.
+     * 
+     * @return how many steps should be run
+     */
+    private synchronized int awaitSteps() {
+        while(paused && pendingSteps == 0 && flow != null) {
+            try {
+                wait();
+            } catch(InterruptedException e) {
+                killFlow();
+                return 0;
+            }
+        }
+
+        int steps = pendingSteps;
+        pendingSteps = 0;
+        return steps;
+    }
+
+    /**
+     * Runs the updates that are due, as many as
+     * allowed by the {@code catchUpPolicy}, and
+     * drops the rest of them.
+     */
+    private void runDueUpdates() {
+        int dueUpdates = (int) delta;
+        int updates = catchUpPolicy.admit(dueUpdates);
+
+        for(int i = 0; i < updates; i++) {
+            game.update();
+
+            timesUpdated++;
+        }
+        delta -= dueUpdates;
+    }
+
+    /**
+     * Runs the updates that are due and, if it
+     * is time to, draws the game passing how far
+     * the flow is between the last update and
+     * the next one.
+     */
+    private void runFixedTimestep() {
+        if(delta >= 1) {
+            runDueUpdates();
+            if(renderFlow != null) {
+                present();
+            }
+        }
+
+        if(renderFlow == null && renderDelta >= 1) {
+            interpolation = delta;
+            game.repaintGamePanel();
+            renderDelta -= Math.floor(renderDelta);
+
+            timesRendered++;
+        }
+    }
+
+    /**
+     * Makes the state of the game reach the
+     * screen: publishes a snapshot to the
+     * {@code renderFlow}, if there is one, or
+     * asks the {@code GamePanel} to repaint.
+     */
+    private void present() {
+        RenderFlow renderFlow = this.renderFlow;
+        if(renderFlow != null) {
+            renderFlow.publishSnapshot(fixedTimestep ? fpsInterval : 0);
+        } else {
+            game.repaintGamePanel();
+        }
+    }
+
+    /**
+     * Displays the fps on the console if this
+     * {@code GameFlow} is configured to do so.
+     * When running with a fixed timestep, the
+     * amount of updates per second is
+     * displayed as well.
+     */
+    private void displayFps() {
+        if(!displayFps) {
+            return;
+        }
+
+        if(fixedTimestep) {
+            System.out.println (
+                "FPS: " + timesRendered +
+                " (UPS: " + timesUpdated + ")"
+            );
+        } else {
+            System.out.println (
+                "FPS: " + timesUpdated
+            );
+        }
+    }
+
+    /**
+     * Waits, according to the {@code pacingType},
+     * until the deadline of the next frame and
+     * records how late the wake up was.
+     * If the next frame is already due, returns
+     * without waiting.
+     */
+    private void waitNextFrame() {
+        if(delta >= 1) {
+            return;
+        }
+
+        long deadline = lastTime + (long) ((1 - delta) * fpsInterval / timeScale);
+        if(fixedTimestep && renderFlow == null) {
+            if(renderDelta >= 1) {
+                return;
             }
+
+            deadline = Math.min (
+                deadline,
+                lastTime + (long) ((1 - renderDelta) * renderInterval)
+            );
         }
+        long wakeTime = pacingType.waitUntil(deadline);
+        deadlineMonitor.record(deadline, wakeTime);
     }
 
 }
\ No newline at end of file
@@ -34,4 +34,27 @@ public interface GameFluid {
      */
     void draw(Graphics2D g2);
 
+    /**
+     * Method used to draw the
+     * class that implements
+     * this interface, blending
+     * its state between the last
+     * two updates.
+     * <p>
+     * By default, this method
+     * ignores the {@code alpha}
+     * argument and calls
+     * {@code draw(Graphics2D)}.
+     * 
+     * @param g2 a {@code Graphics2D}
+     * instance to draw with
+     * @param alpha how far, between
+     * {@code 0} and {@code 1}, the
+     * drawing is from the last update
+     * to the next one
+     */
+    default void draw(Graphics2D g2, double alpha) {
+        draw(g2);
+    }
+
 }
\ No newline at end of file
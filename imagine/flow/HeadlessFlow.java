@@ -0,0 +1,431 @@
+package imagine.flow;
+
+import java.awt.image.BufferedImage;
+
+import imagine.game.Game;
+import imagine.render.RenderTarget;
+
+/**
+ * {@code HeadlessFlow} is a class used for running
+ * a game without pacing it to any fps, usually
+ * a headless game that has no {@code GameFrame}.
+ * <p>
+ * Each tick updates the game once and, every
+ * {@code drawInterval} ticks, draws it into an
+ * off-screen frame. The game may be run for a
+ * fixed amount of ticks on the calling thread
+ * or as fast as possible on a thread of its own
+ * until the flow is killed. The time spent
+ * updating and drawing is measured, giving the
+ * throughput of the simulation.
+ * 
+ * @author Daniel O Sousa
+ */
+public class HeadlessFlow implements Runnable {
+
+    /**
+     * The game which is running
+     * through this {@code HeadlessFlow}.
+     */
+    private Game game;
+
+    /**
+     * The thread that runs the game as
+     * fast as possible.
+     * <p>
+     * When set to {@code null}, stops the game.
+     */
+    private volatile Thread flow;
+
+    /**
+     * The thread of the last killed flow,
+     * which may still be finishing its tick.
+     */
+    private volatile Thread killedFlow;
+
+    /**
+     * Tells if the {@code start} method
+     * of the game was already executed.
+     */
+    private boolean started = false;
+
+    /**
+     * Every how many ticks the game is drawn
+     * into the off-screen frame.
+     * <p>
+     * Is initially set to {@code 0}, which
+     * means that the game is never drawn.
+     */
+    private volatile int drawInterval = 0;
+
+    /**
+     * The off-screen target where
+     * the game is drawn.
+     */
+    private RenderTarget renderTarget = new RenderTarget();
+
+    /**
+     * How many ticks were run.
+     */
+    private volatile long ticks = 0;
+
+    /**
+     * How many times the game was drawn.
+     */
+    private volatile long framesDrawn = 0;
+
+    /**
+     * The time in nanoseconds
+     * spent updating the game.
+     */
+    private volatile long updateTime = 0;
+
+    /**
+     * The time in nanoseconds
+     * spent drawing the game.
+     */
+    private volatile long drawTime = 0;
+
+    /**
+     * Creates a new {@code HeadlessFlow} for
+     * running the specified game {@code game}.
+     * The game is only started once the first
+     * tick is run.
+     * 
+     * @param game the {@code Game} which will run
+     * through this {@code HeadlessFlow}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null}
+     */
+    public HeadlessFlow(Game game) {
+        storeGame(game);
+    }
+
+    /**
+     * Stores the received {@code game}, if
+     * not {@code null}, into the {@code game}
+     * field.
+     * 
+     * @param game the {@code Game} to be stored
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null}
+     */
+    private void storeGame(Game game) {
+        if(game == null) {
+            throw new IllegalArgumentException (
+                "cannot store null game"
+            );
+        }
+
+        this.game = game;
+    }
+
+    /**
+     * Returns the {@code Game} that uses
+     * this {@code HeadlessFlow} to run.
+     * 
+     * @return the {@code Game} using
+     * this {@code HeadlessFlow}
+     */
+    public Game getGame() {
+        return this.game;
+    }
+
+    /**
+     * Sets every how many ticks the game is
+     * drawn into the off-screen frame. If set
+     * to {@code 0}, the game is never drawn.
+     * 
+     * @param drawInterval the draw interval
+     * to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code drawInterval} argument is negative
+     */
+    public void setDrawInterval(int drawInterval) {
+        if(drawInterval < 0) {
+            throw new IllegalArgumentException (
+                "draw interval cannot be negative"
+            );
+        }
+
+        this.drawInterval = drawInterval;
+    }
+
+    /**
+     * Returns every how many ticks the game
+     * is drawn into the off-screen frame.
+     * 
+     * @return the draw interval
+     */
+    public int getDrawInterval() {
+        return this.drawInterval;
+    }
+
+    /**
+     * Returns the off-screen frame where the
+     * game was last drawn. {@code null} is
+     * returned if it was never drawn.
+     * 
+     * @return the off-screen frame
+     */
+    public BufferedImage getFrame() {
+        return renderTarget.getImage();
+    }
+
+    /**
+     * Returns the {@code RenderTarget} where
+     * the game is drawn, which gives the
+     * checksum of the last frame.
+     * 
+     * @return the {@code RenderTarget} of
+     * this {@code HeadlessFlow}
+     */
+    public RenderTarget getRenderTarget() {
+        return this.renderTarget;
+    }
+
+    /**
+     * Runs the specified amount of {@code ticks}
+     * on the calling thread, as fast as possible.
+     * 
+     * @param ticks how many ticks should be run
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code ticks} argument is negative
+     * @throws IllegalStateException if the flow
+     * is already running on its own thread
+     * 
+     * @see #awaitKilledFlow()
+     */
+    public void runTicks(long ticks) {
+        if(ticks < 0) {
+            throw new IllegalArgumentException (
+                "cannot run negative amount of ticks"
+            );
+        }
+        if(flow != null) {
+            throw new IllegalStateException (
+                "flow is already running"
+            );
+        }
+
+        awaitKilledFlow();
+        for(long i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Starts running the game as fast as
+     * possible on a thread of its own until
+     * the {@code killFlow} method is called.
+     * Does nothing if it is already running.
+     * 
+     * @see #awaitKilledFlow()
+     */
+    public synchronized void startFlow() {
+        if(flow != null) {
+            return;
+        }
+
+        awaitKilledFlow();
+        flow = new Thread(this, "HeadlessFlow");
+        flow.start();
+    }
+
+    /**
+     * Stops the flow of this {@code HeadlessFlow}
+     * and waits for its thread to finish the tick
+     * it is running, so that the game is never
+     * updated on two threads at once. When called
+     * by that thread itself, from inside the game,
+     * the flow stops after the current tick.
+     */
+    public synchronized void killFlow() {
+        if(flow != null) {
+            killedFlow = flow;
+        }
+        flow = null;
+        awaitKilledFlow();
+    }
+
+    /**
+     * Waits for the thread of the last killed
+     * flow to exit, unless it is the calling
+     * thread. The interruption status of the
+     * calling thread is kept but does not stop
+     * the waiting, since the game could then be
+     * updated on two threads at once.
+     */
+    private void awaitKilledFlow() {
+        Thread thread = killedFlow;
+        if(thread == null || thread == Thread.currentThread()) {
+            return;
+        }
+
+        boolean interrupted = false;
+        while(thread.isAlive()) {
+            try {
+                thread.join();
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        killedFlow = null;
+    }
+
+    /**
+     * Returns the {@code Thread} that runs
+     * the game as fast as possible. {@code null}
+     * is returned if it is not running.
+     * 
+     * @return the {@code Thread} of this
+     * {@code HeadlessFlow}
+     */
+    public Thread getFlow() {
+        return this.flow;
+    }
+
+    /**
+     * Method executed by the thread of this
+     * {@code HeadlessFlow}. Runs ticks one
+     * after another until the flow is killed.
+     */
+    @Override
+    public void run() {
+        Thread thread = Thread.currentThread();
+        while(flow == thread) {
+            tick();
+        }
+    }
+
+    /**
+     * Updates the game once, starting it
+     * first if needed, and draws it if it
+     * is time to.
+     */
+    private void tick() {
+        if(!started) {
+            started = true;
+            game.start();
+        }
+
+        long updateStart = System.nanoTime();
+        game.update();
+        long updateEnd = System.nanoTime();
+        updateTime += updateEnd - updateStart;
+        ticks++;
+
+        int drawInterval = this.drawInterval;
+        if(drawInterval > 0 && ticks % drawInterval == 0) {
+            renderTarget.render(game);
+            drawTime += System.nanoTime() - updateEnd;
+            framesDrawn++;
+        }
+    }
+
+    /**
+     * Returns how many ticks were run
+     * by this {@code HeadlessFlow}.
+     * 
+     * @return the amount of ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Returns how many times the game
+     * was drawn into the off-screen frame.
+     * 
+     * @return the amount of frames drawn
+     */
+    public long getFramesDrawn() {
+        return this.framesDrawn;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * spent updating the game.
+     * 
+     * @return the update time
+     */
+    public long getUpdateTime() {
+        return this.updateTime;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * spent drawing the game.
+     * 
+     * @return the draw time
+     */
+    public long getDrawTime() {
+        return this.drawTime;
+    }
+
+    /**
+     * Returns how many ticks were run per
+     * second of time spent updating and
+     * drawing the game. {@code 0} is returned
+     * if no tick was run.
+     * 
+     * @return the ticks per second
+     */
+    public double getTicksPerSecond() {
+        long time = updateTime + drawTime;
+        if(time == 0) {
+            return 0;
+        }
+
+        return ticks * 1000000000.0 / time;
+    }
+
+    /**
+     * Returns the average time in nanoseconds
+     * spent on each update of the game.
+     * {@code 0} is returned if no tick was run.
+     * 
+     * @return the average update time
+     */
+    public double getAverageUpdateTime() {
+        if(ticks == 0) {
+            return 0;
+        }
+
+        return (double) updateTime / ticks;
+    }
+
+    /**
+     * Returns the average time in nanoseconds
+     * spent on each draw of the game.
+     * {@code 0} is returned if it was never drawn.
+     * 
+     * @return the average draw time
+     */
+    public double getAverageDrawTime() {
+        if(framesDrawn == 0) {
+            return 0;
+        }
+
+        return (double) drawTime / framesDrawn;
+    }
+
+    /**
+     * Clears the amount of ticks, frames
+     * drawn and the measured times.
+     */
+    public void resetStatistics() {
+        ticks = 0;
+        framesDrawn = 0;
+        updateTime = 0;
+        drawTime = 0;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,419 @@
+package imagine.flow;
+
+import imagine.game.Game;
+
+/**
+ * Class used for keeping a {@code Game} at its
+ * target fps by lowering the quality of its
+ * drawing when the frames take longer than
+ * their budget, and raising it back once
+ * there is time to spare.
+ * <p>
+ * The times of the updates and the drawings
+ * are averaged over a rolling window of frames.
+ * When their sum stays over the upper threshold
+ * of the frame budget for a whole window, the
+ * quality level is lowered by one step. When it
+ * stays under the lower threshold for the
+ * amount of windows given by the recovery
+ * factor, the quality level is raised by one
+ * step. After every change, a whole window has
+ * to pass before the next decision, so that the
+ * averages reflect the new level.
+ * <p>
+ * Level {@code 0} is the full quality. What each
+ * level changes is decided by the {@code Game}.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see Game#setQualityLevel(int)
+ */
+public class QualityGovernor {
+
+    /**
+     * The default amount of frames
+     * averaged, which is {@code 30}.
+     */
+    public static final int DEFAULT_WINDOW = 30;
+
+    /**
+     * The default fraction of the frame budget
+     * above which the quality is lowered,
+     * which is {@code 0.9}.
+     */
+    public static final double DEFAULT_UPPER_THRESHOLD = 0.9;
+
+    /**
+     * The default fraction of the frame budget
+     * below which the quality is raised,
+     * which is {@code 0.5}.
+     */
+    public static final double DEFAULT_LOWER_THRESHOLD = 0.5;
+
+    /**
+     * The default amount of windows the frames
+     * have to stay under the lower threshold
+     * before the quality is raised, which
+     * is {@code 4}.
+     */
+    public static final int DEFAULT_RECOVERY_FACTOR = 4;
+
+    /**
+     * The {@code Game} whose quality
+     * is governed.
+     */
+    private Game game;
+
+    /**
+     * The time in nanoseconds
+     * a frame can take.
+     */
+    private double frameBudget;
+
+    /**
+     * How many frames are averaged.
+     */
+    private int window = DEFAULT_WINDOW;
+
+    /**
+     * The fraction of the frame budget above
+     * which the quality is lowered.
+     */
+    private double upperThreshold = DEFAULT_UPPER_THRESHOLD;
+
+    /**
+     * The fraction of the frame budget below
+     * which the quality is raised.
+     */
+    private double lowerThreshold = DEFAULT_LOWER_THRESHOLD;
+
+    /**
+     * How many windows the frames have to stay
+     * under the lower threshold before the
+     * quality is raised.
+     */
+    private int recoveryFactor = DEFAULT_RECOVERY_FACTOR;
+
+    /**
+     * The rolling average of the
+     * update times in nanoseconds.
+     */
+    private double averageUpdateTime = 0;
+
+    /**
+     * The rolling average of the
+     * draw times in nanoseconds.
+     */
+    private double averageDrawTime = 0;
+
+    /**
+     * How many frames in a row were
+     * over the upper threshold.
+     */
+    private int framesOverBudget = 0;
+
+    /**
+     * How many frames in a row were
+     * under the lower threshold.
+     */
+    private int framesUnderBudget = 0;
+
+    /**
+     * How many frames have to pass before
+     * the next decision can be taken.
+     */
+    private int cooldown = 0;
+
+    /**
+     * How many times the quality
+     * level was changed.
+     */
+    private long levelChanges = 0;
+
+    /**
+     * Creates a new {@code QualityGovernor} that
+     * governs the quality of the passed {@code game},
+     * whose frames can take up to {@code frameBudget}
+     * nanoseconds.
+     * 
+     * @param game the {@code Game} to be governed
+     * @param frameBudget the time in nanoseconds
+     * a frame can take
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null} or the
+     * {@code frameBudget} isn't positive
+     */
+    public QualityGovernor(Game game, double frameBudget) {
+        if(game == null) {
+            throw new IllegalArgumentException (
+                "cannot govern null game"
+            );
+        }
+
+        this.game = game;
+        setFrameBudget(frameBudget);
+    }
+
+    /**
+     * Sets the time in nanoseconds
+     * a frame can take.
+     * 
+     * @param frameBudget the budget to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code frameBudget} argument isn't positive
+     */
+    public synchronized void setFrameBudget(double frameBudget) {
+        if(frameBudget <= 0) {
+            throw new IllegalArgumentException (
+                "frame budget must be positive"
+            );
+        }
+
+        this.frameBudget = frameBudget;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * a frame can take.
+     * 
+     * @return the frame budget
+     */
+    public synchronized double getFrameBudget() {
+        return this.frameBudget;
+    }
+
+    /**
+     * Sets how many frames are averaged and have
+     * to pass between two changes of quality.
+     * 
+     * @param window the amount of frames
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code window} argument isn't positive
+     */
+    public synchronized void setWindow(int window) {
+        if(window <= 0) {
+            throw new IllegalArgumentException (
+                "window must be positive"
+            );
+        }
+
+        this.window = window;
+    }
+
+    /**
+     * Returns how many frames are averaged.
+     * 
+     * @return the window
+     */
+    public synchronized int getWindow() {
+        return this.window;
+    }
+
+    /**
+     * Sets the fractions of the frame budget
+     * above which the quality is lowered and
+     * below which it is raised.
+     * 
+     * @param lowerThreshold the fraction below
+     * which the quality is raised
+     * @param upperThreshold the fraction above
+     * which the quality is lowered
+     * 
+     * @throws IllegalArgumentException if a
+     * threshold isn't positive or the lower
+     * threshold isn't smaller than the upper one
+     */
+    public synchronized void setThresholds(double lowerThreshold, double upperThreshold) {
+        if(lowerThreshold <= 0 || upperThreshold <= 0) {
+            throw new IllegalArgumentException (
+                "thresholds must be positive"
+            );
+        }
+        if(lowerThreshold >= upperThreshold) {
+            throw new IllegalArgumentException (
+                "lower threshold must be smaller than upper threshold"
+            );
+        }
+
+        this.lowerThreshold = lowerThreshold;
+        this.upperThreshold = upperThreshold;
+    }
+
+    /**
+     * Returns the fraction of the frame budget
+     * below which the quality is raised.
+     * 
+     * @return the lower threshold
+     */
+    public synchronized double getLowerThreshold() {
+        return this.lowerThreshold;
+    }
+
+    /**
+     * Returns the fraction of the frame budget
+     * above which the quality is lowered.
+     * 
+     * @return the upper threshold
+     */
+    public synchronized double getUpperThreshold() {
+        return this.upperThreshold;
+    }
+
+    /**
+     * Sets how many windows the frames have to
+     * stay under the lower threshold before the
+     * quality is raised.
+     * 
+     * @param recoveryFactor the amount of windows
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code recoveryFactor} argument isn't positive
+     */
+    public synchronized void setRecoveryFactor(int recoveryFactor) {
+        if(recoveryFactor <= 0) {
+            throw new IllegalArgumentException (
+                "recovery factor must be positive"
+            );
+        }
+
+        this.recoveryFactor = recoveryFactor;
+    }
+
+    /**
+     * Returns how many windows the frames have
+     * to stay under the lower threshold before
+     * the quality is raised.
+     * 
+     * @return the recovery factor
+     */
+    public synchronized int getRecoveryFactor() {
+        return this.recoveryFactor;
+    }
+
+    /**
+     * Adds the time an update took to
+     * the rolling average and decides if
+     * the quality level should change.
+     * 
+     * @param time the time in nanoseconds
+     */
+    public void recordUpdateTime(long time) {
+        int level;
+        synchronized(this) {
+            averageUpdateTime += (time - averageUpdateTime) / window;
+            level = evaluate();
+        }
+
+        if(level != game.getQualityLevel()) {
+            game.setQualityLevel(level);
+        }
+    }
+
+    /**
+     * Adds the time a drawing took
+     * to the rolling average.
+     * 
+     * @param time the time in nanoseconds
+     */
+    public synchronized void recordDrawTime(long time) {
+        averageDrawTime += (time - averageDrawTime) / window;
+    }
+
+    /**
+     * Compares the average frame time with the
+     * thresholds and returns the quality level
+     * the game should have.
+     * 
+     * @return the quality level
+     */
+    private int evaluate() {
+        int level = game.getQualityLevel();
+        if(cooldown > 0) {
+            cooldown--;
+            return level;
+        }
+
+        double frameTime = getAverageFrameTime();
+        if(frameTime > frameBudget * upperThreshold) {
+            framesOverBudget++;
+            framesUnderBudget = 0;
+        } else if(frameTime < frameBudget * lowerThreshold) {
+            framesUnderBudget++;
+            framesOverBudget = 0;
+        } else {
+            framesOverBudget = 0;
+            framesUnderBudget = 0;
+        }
+
+        if(framesOverBudget >= window && level < Game.MAX_QUALITY_LEVEL) {
+            return changeLevel(level + 1);
+        }
+        if(framesUnderBudget >= window * recoveryFactor && level > 0) {
+            return changeLevel(level - 1);
+        }
+        return level;
+    }
+
+    /**
+     * Restarts the counters for a
+     * change to the passed {@code level}.
+     * 
+     * @param level the new quality level
+     * 
+     * @return the new quality level
+     */
+    private int changeLevel(int level) {
+        framesOverBudget = 0;
+        framesUnderBudget = 0;
+        cooldown = window;
+        levelChanges++;
+        return level;
+    }
+
+    /**
+     * Returns the rolling average of
+     * the update times in nanoseconds.
+     * 
+     * @return the average update time
+     */
+    public synchronized double getAverageUpdateTime() {
+        return this.averageUpdateTime;
+    }
+
+    /**
+     * Returns the rolling average of
+     * the draw times in nanoseconds.
+     * 
+     * @return the average draw time
+     */
+    public synchronized double getAverageDrawTime() {
+        return this.averageDrawTime;
+    }
+
+    /**
+     * Returns the rolling average of the
+     * time in nanoseconds a frame takes,
+     * which is the sum of the average
+     * update and draw times.
+     * 
+     * @return the average frame time
+     */
+    public synchronized double getAverageFrameTime() {
+        return averageUpdateTime + averageDrawTime;
+    }
+
+    /**
+     * Returns how many times the
+     * quality level was changed
+     * by this {@code QualityGovernor}.
+     * 
+     * @return the amount of level changes
+     */
+    public synchronized long getLevelChanges() {
+        return this.levelChanges;
+    }
+
+}
\ No newline at end of file
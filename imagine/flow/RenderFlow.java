@@ -0,0 +1,366 @@
+package imagine.flow;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import imagine.game.Game;
+import imagine.flow.pacing.*;
+import imagine.render.Blit;
+import imagine.render.FrameRecorder;
+import imagine.render.RenderSnapshot;
+import imagine.render.TripleBuffer;
+
+/**
+ * {@code RenderFlow} is a class used for creating
+ * a thread that draws a game apart from the
+ * thread that updates it.
+ * <p>
+ * After updating, the {@code GameFlow} publishes
+ * a {@code RenderSnapshot} of the current stage.
+ * This flow takes the latest published snapshot,
+ * draws it into an off-screen frame and publishes
+ * the frame for the {@code GamePanel} to show.
+ * Snapshots and frames are handed over through
+ * lock-free triple buffers, so updating and
+ * drawing run at the same time on two cores
+ * without ever waiting for each other.
+ * 
+ * @author Daniel O Sousa
+ */
+public class RenderFlow implements Runnable {
+
+    /**
+     * The game which is drawn
+     * through this {@code RenderFlow}.
+     */
+    private Game game;
+
+    /**
+     * The thread that draws the game.
+     * <p>
+     * When set to {@code null}, stops the drawing.
+     */
+    private volatile Thread flow;
+
+    /**
+     * The FPS on which the game should be drawn.
+     */
+    private int fps;
+
+    /**
+     * Stores the interval in nano seconds
+     * on which the game should be drawn.
+     */
+    private double fpsInterval;
+
+    /**
+     * The type of pacing used to wait
+     * between each frame.
+     */
+    private volatile PacingType pacingType = new SleepSpin();
+
+    /**
+     * Hands the snapshots over from the
+     * updating thread to this flow.
+     */
+    private TripleBuffer<RenderSnapshot> snapshots =
+        new TripleBuffer<RenderSnapshot>(RenderSnapshot::new);
+
+    /**
+     * Hands the drawn frames over from
+     * this flow to the {@code GamePanel}.
+     */
+    private TripleBuffer<BufferedImage> frames =
+        new TripleBuffer<BufferedImage>(() -> null);
+
+    /**
+     * Tells if a snapshot was already published.
+     */
+    private volatile boolean published = false;
+
+    /**
+     * Creates a new {@code RenderFlow} for drawing
+     * the specified game {@code game} with the
+     * specified FPS {@code fps}. If the {@code fps}
+     * is {@code 0}, the refresh rate of the display
+     * is used.
+     * 
+     * @param game the {@code Game} which will be
+     * drawn through this {@code RenderFlow}
+     * @param fps the FPS with which the game
+     * should be drawn
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null} or
+     * the {@code fps} argument is negative
+     */
+    public RenderFlow(Game game, int fps) {
+        storeGame(game);
+        storeFps(fps);
+        calculateFpsInterval();
+        createFlow();
+        flow.start();
+    }
+
+    /**
+     * Stores the received {@code game}, if
+     * not {@code null}, into the {@code game}
+     * field.
+     * 
+     * @param game the {@code Game} to be stored
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null}
+     */
+    private void storeGame(Game game) {
+        if(game == null) {
+            throw new IllegalArgumentException (
+                "cannot store null game"
+            );
+        }
+
+        this.game = game;
+    }
+
+    /**
+     * Stores the {@code fps} argument into the
+     * {@code fps} field, using the refresh rate
+     * of the display if it is {@code 0}.
+     * 
+     * @param fps the fps to be stored
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code fps} argument is negative
+     */
+    private void storeFps(int fps) {
+        if(fps < 0) {
+            throw new IllegalArgumentException (
+                "fps cannot be negative"
+            );
+        }
+
+        this.fps = fps == 0 ? GameFlow.getDisplayRefreshRate() : fps;
+    }
+
+    /**
+     * Returns the fps with which this
+     * {@code RenderFlow} draws its {@code Game}.
+     * 
+     * @return the fps of this {@code RenderFlow}
+     */
+    public int getFps() {
+        return this.fps;
+    }
+
+    /**
+     * Calculates the interval in nanoseconds
+     * between each frame of this
+     * {@code RenderFlow}.
+     */
+    private void calculateFpsInterval() {
+        this.fpsInterval = 1000000000 / fps;
+    }
+
+    /**
+     * Creates the {@code Thread} that
+     * draws the {@code game}.
+     */
+    private void createFlow() {
+        this.flow = new Thread(this, "RenderFlow");
+        this.flow.setDaemon(true);
+    }
+
+    /**
+     * Sets the type of pacing used by this
+     * {@code RenderFlow} to wait between frames.
+     * 
+     * @param pacingType the {@code PacingType} to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pacingType} argument is {@code null}
+     */
+    public void setPacingType(PacingType pacingType) {
+        if(pacingType == null) {
+            throw new IllegalArgumentException (
+                "cannot set null pacing type"
+            );
+        }
+
+        this.pacingType = pacingType;
+    }
+
+    /**
+     * Stops the flow of this
+     * {@code RenderFlow}.
+     */
+    public void killFlow() {
+        flow = null;
+    }
+
+    /**
+     * Takes a snapshot of the {@code game} and
+     * publishes it to be drawn. Must only be
+     * called by the thread that updates the game.
+     * 
+     * @param tickInterval the interval in nanoseconds
+     * between updates, or {@code 0} if the snapshot
+     * shouldn't be interpolated
+     */
+    public void publishSnapshot(double tickInterval) {
+        RenderSnapshot snapshot = snapshots.getBack();
+        snapshot.clear (
+            game.getGamePanelWidth(),
+            game.getGamePanelHeight(),
+            System.nanoTime(),
+            tickInterval
+        );
+        game.capture(snapshot);
+        snapshots.publish();
+
+        published = true;
+    }
+
+    /**
+     * Draws the latest frame drawn by this
+     * {@code RenderFlow}, if there is one,
+     * using the {@code g2} argument. Must only
+     * be called by the thread that paints the
+     * {@code GamePanel}.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * to draw with
+     * 
+     * @return {@code true} if a frame was drawn
+     * and {@code false} otherwise
+     */
+    public boolean drawLatestFrame(Graphics2D g2) {
+        frames.update();
+        BufferedImage frame = frames.getFront();
+        if(frame == null) {
+            return false;
+        }
+
+        g2.drawImage(frame, 0, 0, null);
+        return true;
+    }
+
+    /**
+     * Draws the latest frame drawn by this
+     * {@code RenderFlow}, if there is one, scaled
+     * to {@code width} by {@code height} in a single
+     * nearest neighbour pass. Frames are drawn at
+     * the native resolution of the game, scaled by
+     * its render scale, so they are scaled up when
+     * the game has a pixel scale or a render scale
+     * lower than {@code 1}. Must only be called by
+     * the thread that paints the {@code GamePanel}.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * to draw with
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     * 
+     * @return {@code true} if a frame was drawn
+     * and {@code false} otherwise
+     */
+    public boolean drawLatestFrame(Graphics2D g2, int width, int height) {
+        frames.update();
+        BufferedImage frame = frames.getFront();
+        if(frame == null) {
+            return false;
+        }
+
+        Blit.upscale(g2, frame, width, height);
+        return true;
+    }
+
+    /**
+     * Method executed every frame of this {@code RenderFlow}.
+     * Draws the latest published snapshot, if there is a
+     * new one or if it is still being interpolated, and
+     * asks the {@code GamePanel} to show it.
+     */
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        boolean settled = false;
+
+        while(flow != null) {
+            if(snapshots.update()) {
+                settled = false;
+            }
+
+            if(published && !settled) {
+                settled = drawFrame(snapshots.getFront());
+                game.repaintGamePanel();
+            }
+
+            nextFrame += (long) fpsInterval;
+            long now = System.nanoTime();
+            if(nextFrame < now) {
+                nextFrame = now;
+            } else {
+                pacingType.waitUntil(nextFrame);
+            }
+        }
+    }
+
+    /**
+     * Draws the {@code snapshot} into the back
+     * frame, at the render scale of the game,
+     * and publishes it. If the quality of
+     * the game is adapted, the time the drawing
+     * took is recorded by its {@code QualityGovernor}.
+     * 
+     * @param snapshot the snapshot to be drawn
+     * 
+     * @return {@code true} if the snapshot was
+     * drawn at its final positions, so it doesn't
+     * need to be drawn again, and {@code false}
+     * otherwise
+     */
+    private boolean drawFrame(RenderSnapshot snapshot) {
+        if(snapshot.getWidth() <= 0 || snapshot.getHeight() <= 0) {
+            return false;
+        }
+
+        double renderScale = game.getRenderScale();
+        int width = Math.max(1, (int) Math.ceil(snapshot.getWidth() * renderScale));
+        int height = Math.max(1, (int) Math.ceil(snapshot.getHeight() * renderScale));
+        BufferedImage frame = frames.getBack();
+        if (
+            frame == null ||
+            frame.getWidth() != width ||
+            frame.getHeight() != height
+        ) {
+            frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            frames.setBack(frame);
+        }
+
+        long start = System.nanoTime();
+        double alpha = snapshot.getInterpolation(start);
+        Graphics2D g2 = frame.createGraphics();
+        g2.setColor(Color.BLACK);
+        g2.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+        if(renderScale < 1) {
+            g2.scale(renderScale, renderScale);
+        }
+        snapshot.draw(g2, alpha);
+        g2.dispose();
+
+        QualityGovernor qualityGovernor = game.getQualityGovernor();
+        if(qualityGovernor != null) {
+            qualityGovernor.recordDrawTime(System.nanoTime() - start);
+        }
+
+        FrameRecorder frameRecorder = game.getFrameRecorder();
+        if(frameRecorder != null) {
+            frameRecorder.capture(frame);
+        }
+
+        frames.publish();
+        return alpha >= 1;
+    }
+
+}
\ No newline at end of file
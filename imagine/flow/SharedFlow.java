@@ -0,0 +1,288 @@
+package imagine.flow;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import imagine.game.Game;
+
+/**
+ * {@code SharedFlow} is a class used for running
+ * a game on the carriers of a {@code TickExecutor}
+ * instead of on a thread of its own.
+ * <p>
+ * Each flow keeps the deadline of its next tick.
+ * When a carrier takes it late, the lateness is
+ * recorded and the updates that are due are run
+ * according to its {@code CatchUpPolicy}.
+ * 
+ * @author Daniel O Sousa
+ */
+public class SharedFlow implements Delayed {
+
+    /**
+     * The executor whose carriers
+     * run this flow.
+     */
+    private TickExecutor executor;
+
+    /**
+     * The game which is running
+     * through this {@code SharedFlow}.
+     */
+    private Game game;
+
+    /**
+     * The FPS on which the game should run.
+     */
+    private int fps;
+
+    /**
+     * Stores the interval in nano seconds
+     * on which the game should be updated.
+     */
+    private long fpsInterval;
+
+    /**
+     * The time in nanoseconds at which
+     * the next tick should happen.
+     */
+    private volatile long deadline;
+
+    /**
+     * Tells if the {@code start} method
+     * of the game was already executed.
+     */
+    private boolean started = false;
+
+    /**
+     * Tells if this flow was cancelled.
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * How many times the game was updated.
+     */
+    private volatile long ticks = 0;
+
+    /**
+     * The exception thrown by the game
+     * that made this flow be cancelled.
+     */
+    private volatile RuntimeException failure;
+
+    /**
+     * Measures how late the
+     * ticks of this flow are.
+     */
+    private DeadlineMonitor deadlineMonitor = new DeadlineMonitor();
+
+    /**
+     * Decides how many updates are run
+     * when the flow falls behind.
+     */
+    private CatchUpPolicy catchUpPolicy = new CatchUpPolicy();
+
+    /**
+     * Creates a new {@code SharedFlow} for running
+     * the specified {@code game} with the specified
+     * {@code fps} on the carriers of the
+     * {@code executor}. Its first tick is due
+     * right away.
+     * 
+     * @param executor the {@code TickExecutor}
+     * that runs this flow
+     * @param game the {@code Game} which will
+     * run through this {@code SharedFlow}
+     * @param fps the fps with which the
+     * game should run
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null} or
+     * the {@code fps} argument is not positive
+     */
+    SharedFlow(TickExecutor executor, Game game, int fps) {
+        if(game == null) {
+            throw new IllegalArgumentException (
+                "cannot store null game"
+            );
+        }
+        if(fps <= 0) {
+            throw new IllegalArgumentException (
+                "fps must be positive"
+            );
+        }
+
+        this.executor = executor;
+        this.game = game;
+        this.fps = fps;
+        this.fpsInterval = 1000000000 / fps;
+        this.deadline = System.nanoTime();
+    }
+
+    /**
+     * Returns the {@code Game} that uses
+     * this {@code SharedFlow} to run.
+     * 
+     * @return the {@code Game} using
+     * this {@code SharedFlow}
+     */
+    public Game getGame() {
+        return this.game;
+    }
+
+    /**
+     * Returns the fps with which this
+     * {@code SharedFlow} runs its {@code Game}.
+     * 
+     * @return the fps of this {@code SharedFlow}
+     */
+    public int getFps() {
+        return this.fps;
+    }
+
+    /**
+     * Returns how many times the game
+     * was updated by this {@code SharedFlow}.
+     * 
+     * @return the amount of ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Returns the {@code DeadlineMonitor}
+     * that measures how late the ticks
+     * of this {@code SharedFlow} are.
+     * 
+     * @return the {@code DeadlineMonitor}
+     */
+    public DeadlineMonitor getDeadlineMonitor() {
+        return this.deadlineMonitor;
+    }
+
+    /**
+     * Returns the {@code CatchUpPolicy} that
+     * decides how many updates are run when
+     * this {@code SharedFlow} falls behind.
+     * 
+     * @return the {@code CatchUpPolicy}
+     */
+    public CatchUpPolicy getCatchUpPolicy() {
+        return this.catchUpPolicy;
+    }
+
+    /**
+     * Stops running the game and removes
+     * this flow from its {@code TickExecutor}.
+     */
+    public void cancel() {
+        cancelled = true;
+        executor.remove(this);
+    }
+
+    /**
+     * Returns {@code true} if this
+     * {@code SharedFlow} was cancelled
+     * and {@code false} otherwise.
+     * 
+     * @return boolean describing if
+     * the flow was cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns the exception thrown by the
+     * game that made this flow be cancelled.
+     * {@code null} is returned if the game
+     * never threw one.
+     * 
+     * @return the failure of the game
+     */
+    public RuntimeException getFailure() {
+        return this.failure;
+    }
+
+    /**
+     * Records the lateness of this tick, starts
+     * the game if needed and runs the due updates,
+     * as many as allowed by the {@code catchUpPolicy}.
+     * If the game throws an exception, this flow is
+     * cancelled so that the carrier keeps running
+     * the other games.
+     * 
+     * @return {@code true} if this flow should
+     * be put back in the queue and {@code false}
+     * if it was cancelled
+     */
+    boolean tick() {
+        if(cancelled) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        deadlineMonitor.record(deadline, now);
+
+        try {
+            if(!started) {
+                started = true;
+                game.start();
+            }
+
+            long dueUpdates = 1 + Math.max(0, now - deadline) / fpsInterval;
+            int updates = catchUpPolicy.admit((int) Math.min(dueUpdates, Integer.MAX_VALUE));
+            for(int i = 0; i < updates; i++) {
+                game.update();
+
+                ticks++;
+            }
+            game.repaintGamePanel();
+
+            deadline += dueUpdates * fpsInterval;
+        } catch(RuntimeException e) {
+            failure = e;
+            cancel();
+        }
+
+        return !cancelled;
+    }
+
+    /**
+     * Returns how long until the next
+     * tick of this flow is due.
+     * 
+     * @param unit the unit of the returned delay
+     * 
+     * @return the delay until the next tick
+     */
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Compares the deadline of the next tick
+     * of this flow with the one of another.
+     * 
+     * @param other the other delayed object
+     * 
+     * @return a negative number, zero or a
+     * positive number if this flow is due
+     * before, at the same time or after the
+     * other one
+     */
+    @Override
+    public int compareTo(Delayed other) {
+        if(other instanceof SharedFlow) {
+            return Long.compare(deadline, ((SharedFlow) other).deadline);
+        }
+
+        return Long.compare (
+            getDelay(TimeUnit.NANOSECONDS),
+            other.getDelay(TimeUnit.NANOSECONDS)
+        );
+    }
+
+}
\ No newline at end of file
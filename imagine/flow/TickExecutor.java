@@ -0,0 +1,240 @@
+package imagine.flow;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+
+import imagine.game.Game;
+
+/**
+ * {@code TickExecutor} is a class used for running
+ * many games over a small pool of shared threads
+ * (the carriers), instead of one thread per game.
+ * <p>
+ * Each game is submitted with its own fps and
+ * is run through a {@code SharedFlow}. The flows
+ * wait in a queue ordered by the deadline of
+ * their next tick, and the first carrier that is
+ * free takes the most urgent due flow, ticks it
+ * and puts it back with its next deadline. A
+ * flow is never ticked by two carriers at once.
+ * 
+ * @author Daniel O Sousa
+ */
+public class TickExecutor {
+
+    /**
+     * The flows waiting for their
+     * next tick, ordered by deadline.
+     */
+    private DelayQueue<SharedFlow> queue = new DelayQueue<SharedFlow>();
+
+    /**
+     * Every flow submitted and
+     * not cancelled yet.
+     */
+    private Set<SharedFlow> flows = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The threads that tick the flows.
+     */
+    private Thread[] carriers;
+
+    /**
+     * Tells if this {@code TickExecutor}
+     * was shut down.
+     */
+    private volatile boolean shutdown = false;
+
+    /**
+     * Constructs a new {@code TickExecutor}
+     * with one carrier for each available
+     * processor.
+     */
+    public TickExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new {@code TickExecutor}
+     * with the specified amount of carriers.
+     * 
+     * @param carrierCount how many threads
+     * should tick the flows
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code carrierCount} argument is not positive
+     */
+    public TickExecutor(int carrierCount) {
+        if(carrierCount <= 0) {
+            throw new IllegalArgumentException (
+                "carrier count must be positive"
+            );
+        }
+
+        createCarriers(carrierCount);
+    }
+
+    /**
+     * Creates and starts the
+     * carriers of this executor.
+     * 
+     * @param carrierCount how many
+     * carriers should be created
+     */
+    private void createCarriers(int carrierCount) {
+        this.carriers = new Thread[carrierCount];
+        for(int i = 0; i < carrierCount; i++) {
+            carriers[i] = new Thread(this::runCarrier, "TickExecutor-" + i);
+            carriers[i].setDaemon(true);
+            carriers[i].start();
+        }
+    }
+
+    /**
+     * Returns how many threads
+     * tick the flows of this
+     * {@code TickExecutor}.
+     * 
+     * @return the amount of carriers
+     */
+    public int getCarrierCount() {
+        return carriers.length;
+    }
+
+    /**
+     * Submits the {@code game} to be run by
+     * this {@code TickExecutor} with the
+     * specified {@code fps}. The game is
+     * started by a carrier right before
+     * its first tick.
+     * 
+     * @param game the {@code Game} to be run
+     * @param fps the fps with which the
+     * game should run
+     * 
+     * @return the {@code SharedFlow} that
+     * runs the game
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null} or
+     * the {@code fps} argument is not positive
+     * @throws IllegalStateException if this
+     * {@code TickExecutor} was shut down
+     */
+    public SharedFlow submit(Game game, int fps) {
+        if(shutdown) {
+            throw new IllegalStateException (
+                "cannot submit game to shut down executor"
+            );
+        }
+
+        SharedFlow flow = new SharedFlow(this, game, fps);
+        flows.add(flow);
+        queue.add(flow);
+        return flow;
+    }
+
+    /**
+     * Removes the {@code flow} from this
+     * {@code TickExecutor}. Called by the
+     * flow itself once it is cancelled.
+     * 
+     * @param flow the {@code SharedFlow}
+     * to be removed
+     */
+    void remove(SharedFlow flow) {
+        flows.remove(flow);
+        queue.remove(flow);
+    }
+
+    /**
+     * Returns how many games are
+     * run by this {@code TickExecutor}.
+     * 
+     * @return the amount of games
+     */
+    public int getGameCount() {
+        return flows.size();
+    }
+
+    /**
+     * Returns a list with the flows of
+     * the games run by this
+     * {@code TickExecutor}.
+     * 
+     * @return the {@code SharedFlow}s
+     */
+    public ArrayList<SharedFlow> getFlows() {
+        return new ArrayList<SharedFlow>(flows);
+    }
+
+    /**
+     * Returns the biggest lateness in
+     * nanoseconds recorded by any of the
+     * flows of this {@code TickExecutor}.
+     * 
+     * @return the max lateness
+     */
+    public long getMaxLateness() {
+        long maxLateness = 0;
+        for(SharedFlow flow : flows) {
+            maxLateness = Math.max (
+                maxLateness,
+                flow.getDeadlineMonitor().getMaxLateness()
+            );
+        }
+
+        return maxLateness;
+    }
+
+    /**
+     * Cancels every flow of this
+     * {@code TickExecutor} and stops
+     * its carriers.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for(SharedFlow flow : getFlows()) {
+            flow.cancel();
+        }
+        for(Thread carrier : carriers) {
+            carrier.interrupt();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this
+     * {@code TickExecutor} was shut
+     * down and {@code false} otherwise.
+     * 
+     * @return boolean describing if
+     * the executor was shut down
+     */
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    /**
+     * Method executed by each carrier. Takes
+     * the most urgent due flow, ticks it and
+     * puts it back in the queue, until this
+     * {@code TickExecutor} is shut down.
+     */
+    private void runCarrier() {
+        while(!shutdown) {
+            SharedFlow flow;
+            try {
+                flow = queue.take();
+            } catch(InterruptedException e) {
+                continue;
+            }
+
+            if(flow.tick()) {
+                queue.add(flow);
+            }
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package imagine.flow.pacing;
+
+/**
+ * Class that represents a busy spin
+ * {@code PacingType}. This pacing type
+ * keeps polling the clock until the
+ * deadline is reached, which gives the
+ * most precise timing but keeps a whole
+ * processor core busy.
+ * 
+ * @author Daniel O Sousa
+ */
+public class BusySpin implements PacingType {
+
+    /**
+     * Field that stores the name of
+     * this {@code PacingType}.
+     */
+    private String name = "BusySpin";
+
+    /**
+     * Returns the name of this
+     * {@code PacingType}.
+     * 
+     * @return the name of this
+     * {@code PacingType}
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Spins until the {@code deadline}
+     * is reached.
+     * 
+     * @param deadline the time in nanoseconds
+     * until which to wait
+     * 
+     * @return the time in nanoseconds at
+     * which the waiting finished
+     */
+    @Override
+    public long waitUntil(long deadline) {
+        long now = System.nanoTime();
+        while(now < deadline) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+        }
+
+        return now;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package imagine.flow.pacing;
+
+/**
+ * Interface implemented by every {@code PacingType}.
+ * A {@code PacingType} defines how a {@code GameFlow}
+ * waits between one frame and the next.
+ * 
+ * @author Daniel O Sousa
+ */
+public interface PacingType {
+
+    /**
+     * Method to get the name
+     * of the {@code PacingType}.
+     * 
+     * @return the name of the
+     * {@code PacingType}
+     */
+    String getName();
+
+    /**
+     * Method that blocks the calling thread
+     * until the time specified by the
+     * {@code deadline} argument, in the
+     * time base of {@code System.nanoTime()},
+     * is reached.
+     * 
+     * @param deadline the time in nanoseconds
+     * until which to wait
+     * 
+     * @return the time in nanoseconds at
+     * which the waiting finished
+     */
+    long waitUntil(long deadline);
+
+}
\ No newline at end of file
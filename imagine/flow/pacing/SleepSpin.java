@@ -0,0 +1,139 @@
+package imagine.flow.pacing;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class that represents a sleep and spin
+ * {@code PacingType}. This pacing type
+ * parks the thread until the deadline is
+ * close and only spins for the last
+ * stretch, specified by the spin
+ * threshold. This way the waiting barely
+ * uses the processor while still keeping
+ * a good precision.
+ * 
+ * @author Daniel O Sousa
+ */
+public class SleepSpin implements PacingType {
+
+    /**
+     * The default spin threshold in
+     * nanoseconds, which is of
+     * {@code 1} millisecond.
+     */
+    public static final long DEFAULT_SPIN_THRESHOLD = 1000000;
+
+    /**
+     * Field that stores the name of
+     * this {@code PacingType}.
+     */
+    private String name = "SleepSpin";
+
+    /**
+     * How long before the deadline, in
+     * nanoseconds, the thread stops parking
+     * and starts spinning.
+     */
+    private long spinThreshold;
+
+    /**
+     * Constructs a new {@code SleepSpin}
+     * {@code PacingType} with the default
+     * spin threshold.
+     * 
+     * @see #DEFAULT_SPIN_THRESHOLD
+     */
+    public SleepSpin() {
+        setSpinThreshold(DEFAULT_SPIN_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new {@code SleepSpin}
+     * {@code PacingType} with the specified
+     * {@code spinThreshold}.
+     * 
+     * @param spinThreshold how long before the
+     * deadline, in nanoseconds, to start spinning
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code spinThreshold} argument is negative
+     */
+    public SleepSpin(long spinThreshold) {
+        setSpinThreshold(spinThreshold);
+    }
+
+    /**
+     * Returns the name of this
+     * {@code PacingType}.
+     * 
+     * @return the name of this
+     * {@code PacingType}
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Sets how long before the deadline,
+     * in nanoseconds, this {@code SleepSpin}
+     * stops parking and starts spinning.
+     * <p>
+     * Bigger thresholds are more precise on
+     * systems with a coarse sleep granularity,
+     * smaller ones use less processor time.
+     * 
+     * @param spinThreshold the threshold to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code spinThreshold} argument is negative
+     */
+    public void setSpinThreshold(long spinThreshold) {
+        if(spinThreshold < 0) {
+            throw new IllegalArgumentException (
+                "spin threshold cannot be negative"
+            );
+        }
+
+        this.spinThreshold = spinThreshold;
+    }
+
+    /**
+     * Returns the spin threshold
+     * of this {@code SleepSpin}
+     * in nanoseconds.
+     * 
+     * @return the spin threshold
+     */
+    public long getSpinThreshold() {
+        return this.spinThreshold;
+    }
+
+    /**
+     * Parks the current thread until the
+     * {@code deadline} is closer than the
+     * spin threshold and then spins until
+     * it is reached.
+     * 
+     * @param deadline the time in nanoseconds
+     * until which to wait
+     * 
+     * @return the time in nanoseconds at
+     * which the waiting finished
+     */
+    @Override
+    public long waitUntil(long deadline) {
+        long now = System.nanoTime();
+        while(deadline - now > spinThreshold) {
+            LockSupport.parkNanos(deadline - now - spinThreshold);
+            now = System.nanoTime();
+        }
+        while(now < deadline) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+        }
+
+        return now;
+    }
+
+}
\ No newline at end of file
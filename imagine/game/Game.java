@@ -1,10 +1,27 @@
 package imagine.game;
 
 import java.util.ArrayList;
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import imagine.flow.*;
+import imagine.flow.pacing.PacingType;
+import imagine.input.InputRecorder;
+import imagine.input.InputReplay;
+import imagine.input.InputSource;
 import imagine.input.KeyHandler;
+import imagine.input.KeyState;
+import imagine.render.FrameRecorder;
+import imagine.render.Graphics2DBackend;
+import imagine.render.RenderBackend;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
+import imagine.schedule.TickScheduler;
+import imagine.sprite.ScaledSpriteCache;
 import imagine.stage.Stage;
 
 /**
@@ -28,11 +45,48 @@ public abstract class Game implements GameFluid {
      */
     private KeyHandler keyHandler;
 
+    /**
+     * Where the keyboard input of this
+     * {@code Game} comes from. Is initially
+     * its {@code KeyHandler}.
+     */
+    private volatile InputSource inputSource;
+
+    /**
+     * The keys pressed on the current
+     * tick, latched before every update.
+     */
+    private KeyState keyState = new KeyState();
+
     /**
      * An object for controlling the flow of the game.
      */
     private GameFlow gameFlow;
 
+    /**
+     * An object for running the game
+     * without pacing it to any fps.
+     */
+    private HeadlessFlow headlessFlow;
+
+    /**
+     * An object for running the game on
+     * the threads of a {@code TickExecutor}.
+     */
+    private SharedFlow sharedFlow;
+
+    /**
+     * The width of this game when
+     * it has no {@code GameFrame}.
+     */
+    private int width;
+
+    /**
+     * The height of this game when
+     * it has no {@code GameFrame}.
+     */
+    private int height;
+
     /**
      * Field which has the information of the default
      * width of the tiles of this {@code Game}.
@@ -55,6 +109,12 @@ public abstract class Game implements GameFluid {
      */
     private Stage currentStage;
 
+    /**
+     * Schedules callbacks that are run
+     * as this {@code Game} is updated.
+     */
+    private TickScheduler scheduler = new TickScheduler();
+
     /**
      * Boolean value to configure if a tile
      * grid should be displayed. This grid is
@@ -62,12 +122,148 @@ public abstract class Game implements GameFluid {
      */
     private boolean drawTileGrid = false;
 
+    /**
+     * The lowest quality level a {@code Game}
+     * can have, which is {@code 4}. Level
+     * {@code 0} is the full quality.
+     */
+    public static final int MAX_QUALITY_LEVEL = 4;
+
+    /**
+     * The render scale used at the lowest
+     * quality level, which is {@code 0.5}.
+     */
+    public static final double LOW_RENDER_SCALE = 0.5;
+
+    /**
+     * The off screen animation interval used
+     * from the second quality level on,
+     * which is {@code 4}.
+     */
+    public static final int LOW_OFF_SCREEN_ANIMATION_INTERVAL = 4;
+
+    /**
+     * The current quality level of this
+     * {@code Game}, from {@code 0} (full
+     * quality) to {@code MAX_QUALITY_LEVEL}.
+     */
+    private volatile int qualityLevel = 0;
+
+    /**
+     * Changes the quality level of this
+     * {@code Game} according to how long
+     * its frames take, if set.
+     */
+    private volatile QualityGovernor qualityGovernor;
+
+    /**
+     * The fraction of the size of the
+     * {@code GamePanel} in which the game
+     * is drawn before being scaled up.
+     * <p>
+     * Is initially set to {@code 1}.
+     */
+    private volatile double renderScale = 1;
+
+    /**
+     * How many pixels of the {@code GamePanel}
+     * each pixel of the native resolution of
+     * the game takes, on each axis.
+     * <p>
+     * Is initially set to {@code 1}.
+     */
+    private volatile int pixelScale = 1;
+
+    /**
+     * Keeps the sprites of this {@code Game}
+     * scaled to the sizes they are drawn at.
+     */
+    private ScaledSpriteCache scaledSpriteCache = new ScaledSpriteCache();
+
+    /**
+     * The backend that executes the frames of
+     * this {@code Game}, described in its
+     * {@code renderQueue}. When {@code null}, the
+     * stages draw themselves straight with the
+     * {@code Graphics2D}.
+     * <p>
+     * Is initially set to {@code null}.
+     */
+    private volatile RenderBackend renderBackend;
+
+    /**
+     * The queue in which the frames of this
+     * {@code Game} are described when it
+     * has a render backend.
+     */
+    private RenderQueue renderQueue = new RenderQueue();
+
+    /**
+     * Tells if the stages are drawn redrawing only
+     * the parts of the screen that changed.
+     * <p>
+     * Is initially set to {@code false}.
+     */
+    private volatile boolean dirtyRedraw = false;
+
+    /**
+     * The backend that redraws the dirty parts
+     * of the screen when this {@code Game} has
+     * no render backend. Is only created once
+     * it is first needed.
+     */
+    private RenderBackend dirtyBackend;
+
+    /**
+     * The recorder to which the drawn frames
+     * are offered, if this {@code Game}
+     * is being recorded.
+     */
+    private volatile FrameRecorder frameRecorder;
+
+    /**
+     * Updates the stages simulated in the
+     * background. Is only created once
+     * it is first needed.
+     */
+    private BackgroundSimulator backgroundSimulator;
+
+    /**
+     * The position of the stage whose selection
+     * was requested by a stage simulated in the
+     * background, to be selected at the beginning
+     * of the next update, or {@code -1} if none was.
+     */
+    private volatile int requestedStage = -1;
+
     /**
      * Constructs a new {@code Game} instance
      * with the default size of {@code 1024} by {@code 576} pixels.
      */
     public Game() {
-        createGameFrame();
+        this(false);
+    }
+
+    /**
+     * Constructs a new {@code Game} instance
+     * with the default size of {@code 1024} by {@code 576} pixels.
+     * <p>
+     * If {@code headless} is {@code true}, no
+     * {@code GameFrame} is created, so the game
+     * can run where there is no display, like
+     * on a continuous integration machine. A
+     * headless game is usually run through a
+     * {@code HeadlessFlow}.
+     * 
+     * @param headless boolean telling if the
+     * game should have no {@code GameFrame}
+     * 
+     * @see #createHeadlessFlow()
+     */
+    public Game(boolean headless) {
+        if(!headless) {
+            createGameFrame();
+        }
         setSize(1024, 576);
         centralize();
         createKeyHandler();
@@ -81,8 +277,22 @@ public abstract class Game implements GameFluid {
         this.gameFrame = new GameFrame(this);
     }
 
+    /**
+     * Returns {@code true} if this {@code Game}
+     * has no {@code GameFrame} and {@code false}
+     * otherwise.
+     * 
+     * @return boolean telling if this
+     * {@code Game} is headless
+     */
+    public boolean isHeadless() {
+        return gameFrame == null;
+    }
+
     /**
      * Returns the frame which is holding this game.
+     * {@code null} is returned if this
+     * {@code Game} is headless.
      * 
      * @return the {@code GameFrame}
      */
@@ -96,7 +306,11 @@ public abstract class Game implements GameFluid {
      * @return the {@code GameFrame} width
      */
     public int getGameFrameWidth() {
-        return getGameFrame().getWidth();
+        if(gameFrame != null) {
+            return getGameFrame().getWidth();
+        } else {
+            return width;
+        }
     }
 
     /**
@@ -105,7 +319,11 @@ public abstract class Game implements GameFluid {
      * @return the {@code GameFrame} height
      */
     public int getGameFrameHeight() {
-        return getGameFrame().getHeight();
+        if(gameFrame != null) {
+            return getGameFrame().getHeight();
+        } else {
+            return height;
+        }
     }
 
     /**
@@ -115,7 +333,11 @@ public abstract class Game implements GameFluid {
      * @return the content pane width
      */
     public int getContentPaneWidth() {
-        return getGameFrame().getContentPaneWidth();
+        if(gameFrame != null) {
+            return getGameFrame().getContentPaneWidth();
+        } else {
+            return width;
+        }
     }
 
     /**
@@ -125,59 +347,136 @@ public abstract class Game implements GameFluid {
      * @return the content pane height
      */
     public int getContentPaneHeight() {
-        return getGameFrame().getContentPaneHeight();
+        if(gameFrame != null) {
+            return getGameFrame().getContentPaneHeight();
+        } else {
+            return height;
+        }
     }
 
     /**
      * Returns the panel where this {@code Game} is drawn.
+     * {@code null} is returned if this
+     * {@code Game} is headless.
      * 
      * @return the {@code GamePanel}
      */
     public GamePanel getGamePanel() {
-        return getGameFrame().getGamePanel();
+        if(gameFrame != null) {
+            return getGameFrame().getGamePanel();
+        } else {
+            return null;
+        }
     }
 
     /**
-     * Returns the width of the panel of this {@code Game}.
+     * Returns the width of the panel of this {@code Game},
+     * at the native resolution of the game: the width
+     * in pixels divided by the pixel scale.
      * 
      * @return the {@code GamePanel} width
+     * 
+     * @see #setPixelScale(int)
      */
     public int getGamePanelWidth() {
-        return getGamePanel().getWidth();
+        if(gameFrame != null) {
+            return getGamePanel().getWidth() / pixelScale;
+        } else {
+            return width / pixelScale;
+        }
     }
 
     /**
-     * Returns the height of the panel of this {@code Game}.
+     * Returns the height of the panel of this {@code Game},
+     * at the native resolution of the game: the height
+     * in pixels divided by the pixel scale.
      * 
      * @return the {@code GamePanel} height
+     * 
+     * @see #setPixelScale(int)
      */
     public int getGamePanelHeight() {
-        return getGamePanel().getHeight();
+        if(gameFrame != null) {
+            return getGamePanel().getHeight() / pixelScale;
+        } else {
+            return height / pixelScale;
+        }
     }
 
     /**
      * Centralizes the game on the screen.
      */
     public void centralize() {
-        gameFrame.setLocationRelativeTo(null);
+        if(gameFrame != null) {
+            gameFrame.setLocationRelativeTo(null);
+        }
     }
 
     /**
-     * Causes a call to the
-     * {@code repaint} method of
-     * the {@code GamePanel}.
+     * Makes the current state of this {@code Game}
+     * reach the {@code GamePanel}. If the game is
+     * rendered actively, it is drawn and shown right
+     * away on the calling thread; otherwise Swing is
+     * asked to repaint the panel. Does nothing if
+     * this {@code Game} is headless.
+     * 
+     * @see #setActiveRendering(boolean)
      */
     public void repaintGamePanel() {
-        getGamePanel().repaint();
+        if(gameFrame != null && !gameFrame.renderActively()) {
+            getGamePanel().repaint();
+        }
     }
 
+    /**
+     * Configures if this {@code Game} should be
+     * rendered actively, drawn and shown by the
+     * thread of its flow through a buffer strategy,
+     * instead of being repainted by Swing, which
+     * may merge or delay the repaints. Does nothing
+     * if this {@code Game} is headless.
+     * 
+     * @param activeRendering boolean specifying if
+     * the game should be rendered actively
+     * 
+     * @return {@code true} if active rendering is
+     * enabled after the call and {@code false}
+     * otherwise, in which case the game keeps
+     * being repainted by Swing
+     * 
+     * @see GameFrame#setActiveRendering(boolean)
+     */
+    public boolean setActiveRendering(boolean activeRendering) {
+        if(gameFrame == null) {
+            return false;
+        }
+
+        return gameFrame.setActiveRendering(activeRendering);
+    }
+
+    /**
+     * Returns {@code true} if this {@code Game}
+     * is rendered actively and {@code false}
+     * otherwise.
+     * 
+     * @return boolean specifying if active
+     * rendering is enabled
+     */
+    public boolean getActiveRendering() {
+        return gameFrame != null && gameFrame.getActiveRendering();
+    }
+
+
     /**
      * Creates a {@code KeyHandler} instance
      * to monitor the inputs from the keyboard.
      */
     private void createKeyHandler() {
         this.keyHandler = new KeyHandler();
-        getGameFrame().addKeyListener(this.keyHandler);
+        this.inputSource = this.keyHandler;
+        if(gameFrame != null) {
+            getGameFrame().addKeyListener(this.keyHandler);
+        }
     }
 
     /**
@@ -190,17 +489,93 @@ public abstract class Game implements GameFluid {
         return this.keyHandler;
     }
 
+    /**
+     * Sets where the keyboard input of this
+     * {@code Game} comes from. It is polled
+     * once before every update.
+     * 
+     * @param inputSource the {@code InputSource}
+     * to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code inputSource} argument is {@code null}
+     */
+    public void setInputSource(InputSource inputSource) {
+        if(inputSource == null) {
+            throw new IllegalArgumentException (
+                "cannot set null input source"
+            );
+        }
+
+        this.inputSource = inputSource;
+    }
+
+    /**
+     * Returns where the keyboard input
+     * of this {@code Game} comes from.
+     * 
+     * @return the {@code InputSource}
+     */
+    public InputSource getInputSource() {
+        return this.inputSource;
+    }
+
+    /**
+     * Starts recording, tick by tick, the keys
+     * given by the current input source into
+     * the passed {@code output}. The recording
+     * goes on until the returned recorder
+     * is closed.
+     * 
+     * @param output the stream to write to
+     * 
+     * @return the {@code InputRecorder}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code output} argument is {@code null}
+     */
+    public InputRecorder recordInput(OutputStream output) {
+        InputRecorder recorder = new InputRecorder(inputSource, output);
+        setInputSource(recorder);
+        return recorder;
+    }
+
+    /**
+     * Makes the keyboard input of this {@code Game}
+     * come, tick by tick, from the recording read
+     * from the passed {@code input}, instead of
+     * the keyboard.
+     * 
+     * @param input the stream to read from
+     * 
+     * @return the {@code InputReplay}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code input} argument is {@code null} or
+     * it isn't a recorded input stream
+     */
+    public InputReplay replayInput(InputStream input) {
+        InputReplay replay = new InputReplay(input);
+        setInputSource(replay);
+        return replay;
+    }
+
     /**
      * Verifies if a key specified by the passed
-     * {@code keyCode} is currently pressed.
+     * {@code keyCode} is pressed on the current
+     * tick. The keys are latched from the input
+     * source before every update, so the answer
+     * doesn't change in the middle of one.
      * 
      * @param keyCode the code of the key to verify
      * 
      * @return {@code true} or {@code false} depending
      * on the key state
+     * 
+     * @see #setInputSource(InputSource)
      */
     public boolean keyIsPressed(int keyCode) {
-        return getKeyHandler().isPressed(keyCode);
+        return keyState.isPressed(keyCode);
     }
 
     /**
@@ -217,64 +592,428 @@ public abstract class Game implements GameFluid {
     /**
      * Returns the {@code GameFlow} of this {@code Game}.
      * 
-     * @return the {@code GameFlow}
+     * @return the {@code GameFlow}
+     */
+    public GameFlow getGameFlow() {
+        return this.gameFlow;
+    }
+
+    /**
+     * Creates a {@code HeadlessFlow} to run
+     * this {@code Game} without pacing it to
+     * any fps. The flow isn't started: it runs
+     * once its {@code runTicks} or
+     * {@code startFlow} method is called.
+     * 
+     * @return the created {@code HeadlessFlow}
+     */
+    public HeadlessFlow createHeadlessFlow() {
+        this.headlessFlow = new HeadlessFlow(this);
+        return this.headlessFlow;
+    }
+
+    /**
+     * Returns the {@code HeadlessFlow}
+     * of this {@code Game}.
+     * 
+     * @return the {@code HeadlessFlow}
+     */
+    public HeadlessFlow getHeadlessFlow() {
+        return this.headlessFlow;
+    }
+
+    /**
+     * Submits this {@code Game} to the passed
+     * {@code executor}, which runs it with the
+     * specified {@code fps} on threads shared
+     * with other games.
+     * 
+     * @param executor the {@code TickExecutor}
+     * that should run this {@code Game}
+     * @param fps the fps with which the game
+     * should iterate
+     * 
+     * @return the created {@code SharedFlow}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code executor} argument is {@code null}
+     * or the {@code fps} argument is not positive
+     */
+    public SharedFlow createSharedFlow(TickExecutor executor, int fps) {
+        if(executor == null) {
+            throw new IllegalArgumentException (
+                "cannot submit game to null executor"
+            );
+        }
+
+        this.sharedFlow = executor.submit(this, fps);
+        return this.sharedFlow;
+    }
+
+    /**
+     * Returns the {@code SharedFlow}
+     * of this {@code Game}.
+     * 
+     * @return the {@code SharedFlow}
+     */
+    public SharedFlow getSharedFlow() {
+        return this.sharedFlow;
+    }
+
+    /**
+     * Runs the specified amount of {@code ticks}
+     * through the {@code HeadlessFlow} of this
+     * {@code Game}, creating it if there is none.
+     * 
+     * @param ticks how many ticks should be run
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code ticks} argument is negative
+     */
+    public void runTicks(long ticks) {
+        if(headlessFlow == null) {
+            createHeadlessFlow();
+        }
+
+        headlessFlow.runTicks(ticks);
+    }
+
+    /**
+     * Returns the fps with which this
+     * {@code Game} is configured to run.
+     * {@code 0} is returned if no fps was
+     * configured.
+     * 
+     * @return the fps of this {@code Game}
+     */
+    public int getFps() {
+        if(gameFlow != null) {
+            return gameFlow.getFps();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Makes the flow of this {@code Game} finish.
+     */
+    public void killGameFlow() {
+        if(gameFlow != null) {
+            gameFlow.killFlow();
+        }
+        if(headlessFlow != null) {
+            headlessFlow.killFlow();
+        }
+        if(sharedFlow != null) {
+            sharedFlow.cancel();
+        }
+        if(backgroundSimulator != null) {
+            backgroundSimulator.shutdown();
+        }
+    }
+
+    /**
+     * Pauses the flow of this {@code Game}.
+     * Does nothing if there is no
+     * {@code GameFlow} executing.
+     * 
+     * @see GameFlow#pause()
+     */
+    public void pause() {
+        if(gameFlow != null) {
+            gameFlow.pause();
+        }
+    }
+
+    /**
+     * Resumes the flow of this {@code Game}
+     * if it is paused. Does nothing if there
+     * is no {@code GameFlow} executing.
+     * 
+     * @see GameFlow#resume()
+     */
+    public void resume() {
+        if(gameFlow != null) {
+            gameFlow.resume();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the flow of this
+     * {@code Game} is paused and {@code false}
+     * otherwise. {@code false} is also returned
+     * if there is no {@code GameFlow} executing.
+     * 
+     * @return boolean describing if the
+     * game is paused
+     */
+    public boolean isPaused() {
+        if(gameFlow != null) {
+            return gameFlow.isPaused();
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Runs the specified amount of updates
+     * through the flow of this {@code Game},
+     * leaving it paused. Does nothing if there
+     * is no {@code GameFlow} executing.
+     * 
+     * @param ticks how many updates should be run
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code ticks} argument is negative
+     * 
+     * @see GameFlow#step(int)
+     */
+    public void step(int ticks) {
+        if(gameFlow != null) {
+            gameFlow.step(ticks);
+        }
+    }
+
+    /**
+     * Sets how fast the time of this {@code Game}
+     * passes compared to the real time. Does
+     * nothing if there is no {@code GameFlow}
+     * executing.
+     * 
+     * @param timeScale the time scale to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code timeScale} argument isn't a
+     * positive number
+     * 
+     * @see GameFlow#setTimeScale(double)
+     */
+    public void setTimeScale(double timeScale) {
+        if(gameFlow != null) {
+            gameFlow.setTimeScale(timeScale);
+        }
+    }
+
+    /**
+     * Returns how fast the time of this
+     * {@code Game} passes compared to the
+     * real time. {@code 1} is returned if
+     * there is no {@code GameFlow} executing.
+     * 
+     * @return the time scale
+     */
+    public double getTimeScale() {
+        if(gameFlow != null) {
+            return gameFlow.getTimeScale();
+        } else {
+            return 1;
+        }
+    }
+
+    /**
+     * Sets if the fps should or shouldn't
+     * be displayed on the console.
+     * 
+     * @param displayFps boolean to
+     * configure the fps display
+     */
+    public void setDisplayFps(boolean displayFps) {
+        if(gameFlow != null) {
+            gameFlow.setDisplayFps(displayFps);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the fps is configured
+     * to be displayed on the console and {@code false}
+     * otherwise. {@code false} is also returned
+     * if there is no {@code GameFlow} executing.
+     * 
+     * @return boolean indicating fps display
+     * state
+     */
+    public boolean getDisplayFps() {
+        if(gameFlow != null) {
+            return gameFlow.getDisplayFps();
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Sets if the flow of this {@code Game}
+     * should update it with a fixed timestep,
+     * drawing it independently from the
+     * updates. Does nothing if there is
+     * no {@code GameFlow} executing.
+     * 
+     * @param fixedTimestep boolean to
+     * configure the fixed timestep
+     * 
+     * @see GameFlow#setFixedTimestep(boolean)
+     */
+    public void setFixedTimestep(boolean fixedTimestep) {
+        if(gameFlow != null) {
+            gameFlow.setFixedTimestep(fixedTimestep);
+        }
+    }
+
+    /**
+     * Sets the fps with which this {@code Game}
+     * is drawn when its flow runs with a fixed
+     * timestep. {@code 0} means that the refresh
+     * rate of the display is used. Does nothing
+     * if there is no {@code GameFlow} executing.
+     * 
+     * @param renderFps the render fps to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code renderFps} argument is negative
+     */
+    public void setRenderFps(int renderFps) {
+        if(gameFlow != null) {
+            gameFlow.setRenderFps(renderFps);
+        }
+    }
+
+    /**
+     * Sets if this {@code Game} should be drawn
+     * on a separate thread from snapshots taken
+     * after each update. Does nothing if there
+     * is no {@code GameFlow} executing.
+     * 
+     * @param snapshotRendering boolean to
+     * configure the snapshot rendering
+     * 
+     * @see GameFlow#setSnapshotRendering(boolean)
+     */
+    public void setSnapshotRendering(boolean snapshotRendering) {
+        if(gameFlow != null) {
+            gameFlow.setSnapshotRendering(snapshotRendering);
+        }
+    }
+
+    /**
+     * Returns the {@code RenderFlow} that draws
+     * this {@code Game} on a separate thread.
+     * {@code null} is returned if there is no
+     * {@code GameFlow} executing or if snapshot
+     * rendering is not enabled.
+     * 
+     * @return the {@code RenderFlow}
+     */
+    public RenderFlow getRenderFlow() {
+        if(gameFlow != null) {
+            return gameFlow.getRenderFlow();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns how far, between {@code 0} and
+     * {@code 1}, the flow of this {@code Game}
+     * was from the last update to the next one
+     * when it was last drawn. {@code 1} is
+     * returned if there is no {@code GameFlow}
+     * executing.
+     * 
+     * @return the interpolation of the last draw
+     */
+    public double getInterpolation() {
+        if(gameFlow != null) {
+            return gameFlow.getInterpolation();
+        } else {
+            return 1;
+        }
+    }
+
+    /**
+     * Sets how many updates the flow of this
+     * {@code Game} can run without drawing,
+     * besides the first one, when it falls
+     * behind. Does nothing if there is no
+     * {@code GameFlow} executing.
+     * 
+     * @param maxCatchUpUpdates the amount of
+     * catch up updates
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code maxCatchUpUpdates} argument is negative
+     * 
+     * @see CatchUpPolicy
      */
-    public GameFlow getGameFlow() {
-        return this.gameFlow;
+    public void setMaxCatchUpUpdates(int maxCatchUpUpdates) {
+        if(gameFlow != null) {
+            gameFlow.getCatchUpPolicy().setMaxCatchUpUpdates(maxCatchUpUpdates);
+        }
     }
 
     /**
-     * Returns the fps with which this
-     * {@code Game} is configured to run.
-     * {@code 0} is returned if no fps was
-     * configured.
+     * Returns how many updates the flow of
+     * this {@code Game} ran without drawing
+     * in between to catch up. {@code 0} is
+     * returned if there is no {@code GameFlow}
+     * executing.
      * 
-     * @return the fps of this {@code Game}
+     * @return the amount of skipped ticks
      */
-    public int getFps() {
+    public long getSkippedTicks() {
         if(gameFlow != null) {
-            return gameFlow.getFps();
+            return gameFlow.getCatchUpPolicy().getSkippedTicks();
         } else {
             return 0;
         }
     }
 
     /**
-     * Makes the flow of this {@code Game} finish.
+     * Returns how many due updates the flow
+     * of this {@code Game} threw away because
+     * it was too far behind. {@code 0} is
+     * returned if there is no {@code GameFlow}
+     * executing.
+     * 
+     * @return the amount of dropped ticks
      */
-    public void killGameFlow() {
+    public long getDroppedTicks() {
         if(gameFlow != null) {
-            gameFlow.killFlow();
+            return gameFlow.getCatchUpPolicy().getDroppedTicks();
+        } else {
+            return 0;
         }
     }
 
     /**
-     * Sets if the fps should or shouldn't
-     * be displayed on the console.
+     * Sets the type of pacing used by the
+     * flow of this {@code Game} to wait
+     * between frames. Does nothing if there
+     * is no {@code GameFlow} executing.
      * 
-     * @param displayFps boolean to
-     * configure the fps display
+     * @param pacingType the {@code PacingType} to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pacingType} argument is {@code null}
      */
-    public void setDisplayFps(boolean displayFps) {
+    public void setPacingType(PacingType pacingType) {
         if(gameFlow != null) {
-            gameFlow.setDisplayFps(displayFps);
+            gameFlow.setPacingType(pacingType);
         }
     }
 
     /**
-     * Returns {@code true} if the fps is configured
-     * to be displayed on the console and {@code false}
-     * otherwise. {@code false} is also returned
-     * if there is no {@code GameFlow} executing.
+     * Returns the {@code DeadlineMonitor} that
+     * measures how well the flow of this
+     * {@code Game} hits its frame deadlines.
+     * {@code null} is returned if there is no
+     * {@code GameFlow} executing.
      * 
-     * @return boolean indicating fps display
-     * state
+     * @return the {@code DeadlineMonitor}
      */
-    public boolean getDisplayFps() {
+    public DeadlineMonitor getDeadlineMonitor() {
         if(gameFlow != null) {
-            return gameFlow.getDisplayFps();
+            return gameFlow.getDeadlineMonitor();
         } else {
-            return false;
+            return null;
         }
     }
 
@@ -636,10 +1375,17 @@ public abstract class Game implements GameFluid {
 
     /**
      * Selects and starts the stage specified
-     * by the passed {@code position}.
+     * by the passed {@code position}. A stage
+     * simulated in the background is only
+     * started the first time it is selected.
      * If there are no stages added to this
      * {@code Game}, however, does nothing.
      * <p>
+     * If called by a stage simulated in the
+     * background, while the worker updates it,
+     * the stage is only selected at the
+     * beginning of the next update.
+     * <p>
      * If the passed argument does not correspond
      * to a stage (is negative or greater or equal 
      * to the amount of added stages), throws
@@ -662,8 +1408,21 @@ public abstract class Game implements GameFluid {
             );
         }
 
+        if(backgroundSimulator != null && backgroundSimulator.isWorkerThread()) {
+            requestedStage = position;
+            return;
+        }
+
         Stage currentStage = stages.get(position);
-        currentStage.start();
+        if(backgroundSimulator != null) {
+            backgroundSimulator.awaitBatch();
+        }
+        if(qualityGovernor != null) {
+            applyQualityLevel(currentStage, qualityLevel);
+        }
+        if(!currentStage.isBackgroundSimulated() || !currentStage.isStarted()) {
+            currentStage.start();
+        }
         this.currentStage = currentStage;
     }
 
@@ -733,6 +1492,36 @@ public abstract class Game implements GameFluid {
         return this.currentStage;
     }
 
+    /**
+     * Returns the {@code BackgroundSimulator} that
+     * updates the stages of this {@code Game} that
+     * are simulated in the background, creating
+     * it if there is none.
+     * 
+     * @return the {@code BackgroundSimulator}
+     * 
+     * @see Stage#setBackgroundSimulated(boolean)
+     */
+    public synchronized BackgroundSimulator getBackgroundSimulator() {
+        if(backgroundSimulator == null || backgroundSimulator.isShutdown()) {
+            backgroundSimulator = new BackgroundSimulator(this);
+        }
+
+        return this.backgroundSimulator;
+    }
+
+    /**
+     * Returns the {@code TickScheduler} of this
+     * {@code Game}, which is advanced at the
+     * beginning of every update, no matter
+     * which stage is selected.
+     * 
+     * @return the {@code TickScheduler}
+     */
+    public TickScheduler getScheduler() {
+        return this.scheduler;
+    }
+
     /**
      * Specifies if a tile grid should be drawn.
      * This grid is usually good for debugging.
@@ -756,16 +1545,394 @@ public abstract class Game implements GameFluid {
         return this.drawTileGrid;
     }
 
+    /**
+     * Configures if the quality of this {@code Game}
+     * should be adapted to hold its target fps.
+     * When enabled, a {@code QualityGovernor} whose
+     * frame budget is the interval of the fps of
+     * the {@code GameFlow} (or of {@code 60} fps if
+     * there is none) watches the update and draw
+     * times and changes the quality level.
+     * When disabled, the full quality is restored.
+     * 
+     * @param adaptiveQuality boolean specifying if
+     * the quality should be adapted
+     * 
+     * @see #setQualityLevel(int)
+     */
+    public void setAdaptiveQuality(boolean adaptiveQuality) {
+        if(!adaptiveQuality) {
+            qualityGovernor = null;
+            setQualityLevel(0);
+            return;
+        }
+
+        int fps = getFps() > 0 ? getFps() : 60;
+        qualityGovernor = new QualityGovernor(this, 1000000000.0 / fps);
+    }
+
+    /**
+     * Returns the {@code QualityGovernor} of this
+     * {@code Game}, or {@code null} if its quality
+     * isn't adapted.
+     * 
+     * @return the {@code QualityGovernor}
+     */
+    public QualityGovernor getQualityGovernor() {
+        return this.qualityGovernor;
+    }
+
+    /**
+     * Sets the quality level of this {@code Game}
+     * and applies it to every one of its stages.
+     * Each level keeps the reductions of the
+     * previous ones and adds its own:
+     * <ul>
+     * <li>{@code 1}: debug overlays aren't drawn;</li>
+     * <li>{@code 2}: objects out of the screen are
+     * animated every {@code LOW_OFF_SCREEN_ANIMATION_INTERVAL}
+     * ticks;</li>
+     * <li>{@code 3}: at most one detail layer is drawn
+     * among the backgrounds and among the foregrounds;</li>
+     * <li>{@code 4}: the game is drawn at the
+     * {@code LOW_RENDER_SCALE} and scaled up.</li>
+     * </ul>
+     * 
+     * @param qualityLevel the quality level to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code qualityLevel} argument is negative or
+     * greater than {@code MAX_QUALITY_LEVEL}
+     * 
+     * @see #applyQualityLevel(Stage, int)
+     */
+    public void setQualityLevel(int qualityLevel) {
+        if(qualityLevel < 0 || qualityLevel > MAX_QUALITY_LEVEL) {
+            throw new IllegalArgumentException (
+                "quality level must be between 0 and " + MAX_QUALITY_LEVEL
+            );
+        }
+
+        this.qualityLevel = qualityLevel;
+        for(Stage stage : stages) {
+            applyQualityLevel(stage, qualityLevel);
+        }
+        setRenderScale(qualityLevel >= 4 ? LOW_RENDER_SCALE : 1);
+    }
+
+    /**
+     * Returns the current quality level of this
+     * {@code Game}, where {@code 0} is the
+     * full quality.
+     * 
+     * @return the quality level
+     */
+    public int getQualityLevel() {
+        return this.qualityLevel;
+    }
+
+    /**
+     * Applies the passed quality {@code level}
+     * to the passed {@code stage}, through its
+     * debug overlays, detail layer limit and off
+     * screen animation interval. Can be overridden
+     * to change what each level reduces.
+     * 
+     * @param stage the {@code Stage} to be changed
+     * @param level the quality level to be applied
+     * 
+     * @see #setQualityLevel(int)
+     */
+    protected void applyQualityLevel(Stage stage, int level) {
+        stage.setDrawDebugOverlays(level < 1);
+        stage.setOffScreenAnimationInterval (
+            level >= 2 ? LOW_OFF_SCREEN_ANIMATION_INTERVAL : 1
+        );
+        stage.setDetailLayerLimit(level >= 3 ? 1 : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sets the fraction of the size of the
+     * {@code GamePanel} in which this {@code Game}
+     * is drawn before being scaled up to fill it.
+     * With {@code 1}, the game is drawn directly.
+     * 
+     * @param renderScale the render scale to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code renderScale} argument isn't greater
+     * than {@code 0} and at most {@code 1}
+     */
+    public void setRenderScale(double renderScale) {
+        if(renderScale <= 0 || renderScale > 1) {
+            throw new IllegalArgumentException (
+                "render scale must be greater than 0 and at most 1"
+            );
+        }
+
+        this.renderScale = renderScale;
+    }
+
+    /**
+     * Returns the fraction of the size of the
+     * {@code GamePanel} in which this {@code Game}
+     * is drawn before being scaled up.
+     * 
+     * @return the render scale
+     */
+    public double getRenderScale() {
+        return this.renderScale;
+    }
+
+    /**
+     * Sets how many pixels of the {@code GamePanel}
+     * each pixel of the native resolution of this
+     * {@code Game} takes, on each axis. With a scale
+     * greater than {@code 1}, the game is laid out and
+     * drawn at its native resolution, the size of the
+     * panel divided by the scale, so sprites are copied
+     * without scaling, and the whole frame is then scaled
+     * up to the panel once, with nearest neighbour
+     * scaling.
+     * <p>
+     * For example, a game made for {@code 256} by
+     * {@code 240} pixels shown four times bigger is set
+     * with a size of {@code 1024} by {@code 960} pixels
+     * and a pixel scale of {@code 4}, and its tiles,
+     * objects and speeds are given in native pixels.
+     * 
+     * @param pixelScale the pixel scale to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pixelScale} argument isn't positive
+     */
+    public void setPixelScale(int pixelScale) {
+        if(pixelScale <= 0) {
+            throw new IllegalArgumentException (
+                "pixel scale must be positive"
+            );
+        }
+
+        this.pixelScale = pixelScale;
+    }
+
+    /**
+     * Returns how many pixels of the
+     * {@code GamePanel} each pixel of the
+     * native resolution of this {@code Game}
+     * takes, on each axis.
+     * 
+     * @return the pixel scale
+     */
+    public int getPixelScale() {
+        return this.pixelScale;
+    }
+
+    /**
+     * Returns the cache that keeps the sprites
+     * of this {@code Game} scaled to the sizes
+     * they are drawn at, so that its capacity
+     * can be configured and its hits, misses
+     * and evictions can be read.
+     * 
+     * @return the {@code ScaledSpriteCache}
+     * of this {@code Game}
+     */
+    public ScaledSpriteCache getScaledSpriteCache() {
+        return this.scaledSpriteCache;
+    }
+
+    /**
+     * Sets the backend that draws the frames
+     * of this {@code Game}. With a backend, the
+     * current stage describes every frame in a
+     * {@code RenderQueue}, which the backend then
+     * executes, so drawing can be sorted and
+     * batched in one place. The {@code onDraw}
+     * methods of the stage and the game still
+     * draw with the {@code Graphics2D}, over
+     * the frame, while those of the objects
+     * and scenarios aren't called.
+     * <p>
+     * With {@code null}, the stages draw
+     * themselves straight with the
+     * {@code Graphics2D}, as by default.
+     * 
+     * @param renderBackend the {@code RenderBackend}
+     * to be set, or {@code null}
+     * 
+     * @see Graphics2DBackend
+     * @see imagine.render.SoftwareBackend
+     */
+    public void setRenderBackend(RenderBackend renderBackend) {
+        this.renderBackend = renderBackend;
+    }
+
+    /**
+     * Returns the backend that draws the
+     * frames of this {@code Game}, or
+     * {@code null} if it has none.
+     * 
+     * @return the {@code RenderBackend}
+     * of this {@code Game}
+     */
+    public RenderBackend getRenderBackend() {
+        return this.renderBackend;
+    }
+
+    /**
+     * Returns the queue in which the last
+     * frame of this {@code Game} was described,
+     * if it has a render backend.
+     * 
+     * @return the {@code RenderQueue}
+     * of this {@code Game}
+     */
+    public RenderQueue getRenderQueue() {
+        return this.renderQueue;
+    }
+
+    /**
+     * Configures if the current stage should be drawn
+     * redrawing only the parts of the screen that
+     * changed since its last drawing, over a back
+     * buffer kept between frames. Suits mostly static
+     * screens, like title or pause screens, and stages
+     * whose camera stands still: whenever the camera
+     * moves, the whole frame is redrawn.
+     * <p>
+     * The dirty parts are redrawn by the render
+     * backend of this {@code Game}, or by a
+     * {@code Graphics2DBackend} if it has none. The
+     * {@code onDraw} methods of the objects and
+     * scenarios aren't called in this mode, while
+     * those of the stage and the game draw over the
+     * frame. Frames drawn by a {@code RenderFlow}
+     * aren't affected.
+     * 
+     * @param dirtyRedraw boolean specifying if
+     * only the changed parts should be redrawn
+     * 
+     * @see Stage#getDirtyRegions()
+     */
+    public void setDirtyRedraw(boolean dirtyRedraw) {
+        this.dirtyRedraw = dirtyRedraw;
+    }
+
+    /**
+     * Returns {@code true} if the stages are drawn
+     * redrawing only the parts of the screen that
+     * changed and {@code false} otherwise.
+     * 
+     * @return boolean specifying if only the
+     * changed parts are redrawn
+     */
+    public boolean getDirtyRedraw() {
+        return this.dirtyRedraw;
+    }
+
+    /**
+     * Starts recording the frames of this
+     * {@code Game} as PNG images written into the
+     * passed {@code directory} by a new
+     * {@code FrameRecorder}.
+     * 
+     * @param directory the directory where
+     * the images are written
+     * 
+     * @return the created {@code FrameRecorder}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code directory} argument is {@code null}
+     * or the directory cannot be created
+     * 
+     * @see #startRecording(FrameRecorder)
+     */
+    public FrameRecorder startRecording(File directory) {
+        FrameRecorder frameRecorder = new FrameRecorder(directory);
+        startRecording(frameRecorder);
+        return frameRecorder;
+    }
+
+    /**
+     * Starts recording the frames of this
+     * {@code Game} through the passed
+     * {@code frameRecorder}, stopping the
+     * current recording, if any.
+     * <p>
+     * While recording, each captured frame is drawn
+     * into a buffer of the recorder at the native
+     * resolution of the game, which is then drawn
+     * on the screen. The encoding
+     * happens on the threads of the recorder, so
+     * the flow of the game keeps its pace, and
+     * frames are dropped if they fall behind.
+     * Frames drawn by a {@code RenderFlow} are
+     * offered as they are published.
+     * 
+     * @param frameRecorder the {@code FrameRecorder}
+     * to offer the frames to
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code frameRecorder} argument is {@code null}
+     */
+    public void startRecording(FrameRecorder frameRecorder) {
+        if(frameRecorder == null) {
+            throw new IllegalArgumentException (
+                "cannot record with null frame recorder"
+            );
+        }
+
+        stopRecording();
+        this.frameRecorder = frameRecorder;
+    }
+
+    /**
+     * Stops recording the frames of this
+     * {@code Game} and blocks until every
+     * captured frame is encoded and written.
+     * 
+     * @return the {@code FrameRecorder} of the
+     * recording, or {@code null} if this
+     * {@code Game} wasn't being recorded
+     */
+    public FrameRecorder stopRecording() {
+        FrameRecorder frameRecorder = this.frameRecorder;
+        this.frameRecorder = null;
+        if(frameRecorder != null) {
+            frameRecorder.close();
+        }
+        return frameRecorder;
+    }
+
+    /**
+     * Returns the {@code FrameRecorder} to which
+     * the frames of this {@code Game} are offered.
+     * {@code null} is returned if it isn't
+     * being recorded.
+     * 
+     * @return the {@code FrameRecorder}
+     * of this {@code Game}
+     */
+    public FrameRecorder getFrameRecorder() {
+        return this.frameRecorder;
+    }
+
     /**
      * Sets the size of the frame
-     * containing this {@code Game}.
+     * containing this {@code Game}, or
+     * of the game itself if it is headless.
      * 
      * @param width the width to be set
      * @param height the height to be set
      */
     public void setSize(int width, int height) {
-        getGameFrame().setContentPaneSize(width, height);
-        getGamePanel().setSize(width, height);
+        this.width = width;
+        this.height = height;
+        if(gameFrame != null) {
+            getGameFrame().setContentPaneSize(width, height);
+            getGamePanel().setSize(width, height);
+        }
     }
 
     /**
@@ -791,20 +1958,52 @@ public abstract class Game implements GameFluid {
 
     /**
      * Executed every frame of this {@code Game} to
+     * wait for the stages simulated in the background
+     * to finish the batch of the last update, select
+     * the stage they requested, if any, latch the
+     * keys given by its input source,
+     * run the tasks of its {@code TickScheduler}
+     * that expire on this update, hand the stages
+     * simulated in the background that are due to
+     * its {@code BackgroundSimulator} and then
      * update the current stage.
      * <p>
      * This method also executes the {@code onUpdate}
-     * method.
+     * method. If the quality of this {@code Game} is
+     * adapted, the time the update took is recorded
+     * by its {@code QualityGovernor}.
      * 
      * @see #onUpdate()
      */
     @Override
     public void update() {
+        long start = System.nanoTime();
+        if(backgroundSimulator != null) {
+            backgroundSimulator.awaitBatch();
+        }
+        int requestedStage = this.requestedStage;
+        if(requestedStage >= 0) {
+            this.requestedStage = -1;
+            if(requestedStage < stages.size()) {
+                selectStage(requestedStage);
+            }
+        }
+
+        inputSource.poll(keyState);
+        scheduler.tick();
+        if(backgroundSimulator != null) {
+            backgroundSimulator.tick();
+        }
         if(currentStage != null) {
             currentStage.update();
         }
 
         onUpdate();
+
+        QualityGovernor qualityGovernor = this.qualityGovernor;
+        if(qualityGovernor != null) {
+            qualityGovernor.recordUpdateTime(System.nanoTime() - start);
+        }
     }
     
     /**
@@ -830,13 +2029,134 @@ public abstract class Game implements GameFluid {
      */
     @Override
     public void draw(Graphics2D g2) {
-        if(currentStage != null) {
-            currentStage.draw(g2);
+        draw(g2, 1);
+    }
+
+    /**
+     * Executed every frame of this {@code Game}
+     * to draw the current stage blending the
+     * positions of its elements between the
+     * last two updates.
+     * <p>
+     * This method also executes the {@code onDraw}
+     * method.
+     * 
+     * @param g2 a {@code Graphics2D} instance used
+     * for drawing the game.
+     * @param alpha how far, between {@code 0} and
+     * {@code 1}, the drawing is from the last update
+     * to the next one
+     * 
+     * @see #getInterpolation()
+     * @see #onDraw(Graphics2D)
+     * @see #setAdaptiveQuality(boolean)
+     */
+    @Override
+    public void draw(Graphics2D g2, double alpha) {
+        long start = System.nanoTime();
+        FrameRecorder frameRecorder = this.frameRecorder;
+        if(frameRecorder != null) {
+            drawRecorded(g2, alpha, frameRecorder);
+        } else {
+            drawFrame(g2, alpha);
+        }
+
+        QualityGovernor qualityGovernor = this.qualityGovernor;
+        if(qualityGovernor != null) {
+            qualityGovernor.recordDrawTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Offers a frame to the {@code frameRecorder}.
+     * If it is captured, draws this {@code Game}
+     * straight into the buffer of the recorder
+     * and then draws that buffer with {@code g2}.
+     * Otherwise, draws this {@code Game} as usual.
+     * 
+     * @param g2 a {@code Graphics2D} instance used
+     * for drawing the game.
+     * @param alpha how far the drawing is
+     * from the last update to the next one
+     * @param frameRecorder the recorder to
+     * offer the frame to
+     */
+    private void drawRecorded(Graphics2D g2, double alpha, FrameRecorder frameRecorder) {
+        int width = Math.max(1, getGamePanelWidth());
+        int height = Math.max(1, getGamePanelHeight());
+        BufferedImage frame = frameRecorder.beginCapture(width, height);
+        if(frame == null) {
+            drawFrame(g2, alpha);
+            return;
+        }
+
+        Graphics2D frameGraphics = frame.createGraphics();
+        frameGraphics.setColor(getBackgroundColor());
+        frameGraphics.fillRect(0, 0, width, height);
+        drawFrame(frameGraphics, alpha);
+        frameGraphics.dispose();
+
+        g2.drawImage(frame, 0, 0, null);
+        frameRecorder.endCapture(frame);
+    }
+
+    /**
+     * Draws the current stage, the way chosen
+     * for it, and executes the {@code onDraw}
+     * method.
+     * 
+     * @param g2 a {@code Graphics2D} instance used
+     * for drawing the game.
+     * @param alpha how far the drawing is
+     * from the last update to the next one
+     */
+    private void drawFrame(Graphics2D g2, double alpha) {
+        RenderBackend renderBackend = this.renderBackend;
+        if(currentStage != null && dirtyRedraw) {
+            if(renderBackend == null) {
+                if(dirtyBackend == null) {
+                    dirtyBackend = new Graphics2DBackend(scaledSpriteCache);
+                }
+                renderBackend = dirtyBackend;
+            }
+            currentStage.drawDirty(g2, alpha, renderBackend, getBackgroundColor());
+        } else if(currentStage != null && renderBackend != null) {
+            currentStage.render(g2, alpha, renderQueue, renderBackend);
+        } else if(currentStage != null) {
+            currentStage.draw(g2, alpha);
         }
 
         onDraw(g2);
     }
     
+    /**
+     * Returns the color with which the
+     * {@code GamePanel} is cleared, or black
+     * if this {@code Game} has no window.
+     * 
+     * @return the background color
+     */
+    private Color getBackgroundColor() {
+        if(gameFrame != null) {
+            return getGamePanel().getBackground();
+        } else {
+            return Color.BLACK;
+        }
+    }
+
+    /**
+     * Fills the passed {@code snapshot} with
+     * what is needed to draw the current stage.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     * to be filled
+     */
+    public void capture(RenderSnapshot snapshot) {
+        if(currentStage != null) {
+            currentStage.capture(snapshot);
+        }
+    }
+
     /**
      * User defined method to specify
      * what should happen every time this
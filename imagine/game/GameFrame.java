@@ -1,7 +1,12 @@
 package imagine.game;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
 
 /**
  * Class that serves to hold a {@code GamePanel}
@@ -24,6 +29,20 @@ public class GameFrame extends JFrame {
      */
     private GamePanel gamePanel;
 
+    /**
+     * The strategy with which the game is
+     * drawn and shown directly by the thread
+     * of its flow, or {@code null} if it is
+     * drawn by Swing when repainted.
+     */
+    private volatile BufferStrategy bufferStrategy;
+
+    /**
+     * How many frames were drawn and
+     * shown through the {@code bufferStrategy}.
+     */
+    private volatile long presentedFrames = 0;
+
     /**
      * Constructs a new {@code GameFrame}
      * to show the specified {@code game}.
@@ -120,5 +139,109 @@ public class GameFrame extends JFrame {
     public int getContentPaneHeight() {
         return getContentPane().getHeight();
     }
+
+    /**
+     * Configures if the game should be rendered
+     * actively: drawn and shown directly by the
+     * thread of its flow through a {@code BufferStrategy}
+     * of this {@code GameFrame}, flipping pages when
+     * the system supports it, instead of asking Swing
+     * to repaint the {@code GamePanel}.
+     * <p>
+     * If a buffer strategy can't be created, for
+     * example because this frame isn't displayable,
+     * active rendering stays disabled and the game
+     * keeps being repainted by Swing.
+     * 
+     * @param activeRendering boolean specifying if
+     * the game should be rendered actively
+     * 
+     * @return {@code true} if active rendering is
+     * enabled after the call and {@code false}
+     * otherwise
+     */
+    public synchronized boolean setActiveRendering(boolean activeRendering) {
+        BufferStrategy bufferStrategy = this.bufferStrategy;
+        this.bufferStrategy = null;
+        if(bufferStrategy != null) {
+            bufferStrategy.dispose();
+        }
+
+        setIgnoreRepaint(activeRendering);
+        if(activeRendering) {
+            try {
+                createBufferStrategy(2);
+                this.bufferStrategy = getBufferStrategy();
+            } catch(RuntimeException e) {
+                setIgnoreRepaint(false);
+            }
+        }
+
+        return this.bufferStrategy != null;
+    }
+
+    /**
+     * Returns {@code true} if the game is
+     * rendered actively and {@code false}
+     * if it is repainted by Swing.
+     * 
+     * @return boolean specifying if active
+     * rendering is enabled
+     */
+    public boolean getActiveRendering() {
+        return bufferStrategy != null;
+    }
+
+    /**
+     * Draws the {@code GamePanel} into the back
+     * buffer of the buffer strategy and shows it,
+     * on the calling thread. If the contents of the
+     * buffers are lost meanwhile, the drawing
+     * is repeated.
+     * 
+     * @return {@code true} if the frame was shown
+     * and {@code false} if the game isn't rendered
+     * actively, in which case nothing is done
+     */
+    public boolean renderActively() {
+        BufferStrategy bufferStrategy = this.bufferStrategy;
+        if(bufferStrategy == null) {
+            return false;
+        }
+
+        Point origin = SwingUtilities.convertPoint(gamePanel, 0, 0, this);
+        try {
+            do {
+                do {
+                    Graphics2D g2 = (Graphics2D) bufferStrategy.getDrawGraphics();
+                    try {
+                        g2.translate(origin.x, origin.y);
+                        g2.clipRect(0, 0, gamePanel.getWidth(), gamePanel.getHeight());
+                        gamePanel.render(g2);
+                    } finally {
+                        g2.dispose();
+                    }
+                } while(bufferStrategy.contentsRestored());
+
+                bufferStrategy.show();
+            } while(bufferStrategy.contentsLost());
+        } catch(IllegalStateException e) {
+            return false;
+        }
+        Toolkit.getDefaultToolkit().sync();
+
+        presentedFrames++;
+        return true;
+    }
+
+    /**
+     * Returns how many frames were drawn
+     * and shown through active rendering.
+     * 
+     * @return the amount of presented frames
+     */
+    public long getPresentedFrames() {
+        return this.presentedFrames;
+    }
     
 }
\ No newline at end of file
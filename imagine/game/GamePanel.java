@@ -4,6 +4,11 @@ import javax.swing.JPanel;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+import imagine.flow.RenderFlow;
+import imagine.render.Blit;
 
 /**
  * Class used for creating a 
@@ -24,6 +29,14 @@ public class GamePanel extends JPanel {
      */
     private GameFrame gameFrame;
 
+    /**
+     * The frame in which the {@code Game} is
+     * drawn when it has a pixel scale or its
+     * render scale is lower than {@code 1},
+     * reused between paints.
+     */
+    private BufferedImage scaledFrame;
+
     /**
      * Creates a new {@code GamePanel} that will
      * be contained inside the passed {@code gameFrame}.
@@ -79,7 +92,16 @@ public class GamePanel extends JPanel {
      * Calls the {@code draw} method of the
      * displayed {@code Game} passing a
      * {@code Graphics2D} instance obtained
-     * from the {@code g} parameter.
+     * from the {@code g} parameter and the
+     * interpolation of the {@code Game}.
+     * <p>
+     * If the {@code Game} is drawn on a separate
+     * thread, the latest frame drawn by its
+     * {@code RenderFlow} is shown instead.
+     * If the {@code Game} has a pixel scale or its
+     * render scale is lower than {@code 1}, it is
+     * drawn into a smaller frame, which is then
+     * scaled up.
      * 
      * @param g a {@code Graphics} instance used
      * for drawing on this {@code GamePanel}
@@ -89,9 +111,105 @@ public class GamePanel extends JPanel {
         super.paintComponent(g);
 
         Graphics2D g2 = (Graphics2D) g;
-        getGame().draw(g2);
+        draw(g2);
         
         g2.dispose();
     }
 
+    /**
+     * Clears this {@code GamePanel} with its
+     * background color and draws the displayed
+     * {@code Game} with the passed {@code g2},
+     * the same way as {@code paintComponent}.
+     * Used by the {@code GameFrame} when the
+     * game is rendered actively.
+     * 
+     * @param g2 a {@code Graphics2D} instance whose
+     * origin is the corner of this panel
+     * 
+     * @see GameFrame#renderActively()
+     */
+    void render(Graphics2D g2) {
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, getWidth(), getHeight());
+        draw(g2);
+    }
+
+    /**
+     * Draws the latest frame of the
+     * {@code RenderFlow}, or the {@code Game}
+     * itself, at the pixel and render scales
+     * of the game.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * used for drawing on this {@code GamePanel}
+     */
+    private void draw(Graphics2D g2) {
+        RenderFlow renderFlow = getGame().getRenderFlow();
+        if(renderFlow != null && renderFlow.drawLatestFrame(g2, getWidth(), getHeight())) {
+            return;
+        }
+
+        double renderScale = getGame().getRenderScale();
+        if(getGame().getPixelScale() > 1 || renderScale < 1) {
+            drawScaled(g2, renderScale);
+        } else {
+            getGame().draw(g2, getGame().getInterpolation());
+        }
+    }
+
+    /**
+     * Draws the {@code Game} into a frame of its
+     * native resolution scaled by the {@code renderScale}
+     * and then draws that frame scaled up to fill this
+     * panel, in a single nearest neighbour pass.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * used for drawing on this {@code GamePanel}
+     * @param renderScale the render scale
+     * of the {@code Game}
+     */
+    private void drawScaled(Graphics2D g2, double renderScale) {
+        int width = Math.max(1, (int) Math.ceil(getGame().getGamePanelWidth() * renderScale));
+        int height = Math.max(1, (int) Math.ceil(getGame().getGamePanelHeight() * renderScale));
+        if (
+            scaledFrame == null ||
+            scaledFrame.getWidth() != width ||
+            scaledFrame.getHeight() != height
+        ) {
+            scaledFrame = createFrame(width, height);
+        }
+
+        Graphics2D frameGraphics = scaledFrame.createGraphics();
+        frameGraphics.setColor(getBackground());
+        frameGraphics.fillRect(0, 0, width, height);
+        if(renderScale < 1) {
+            frameGraphics.scale(renderScale, renderScale);
+        }
+        getGame().draw(frameGraphics, getGame().getInterpolation());
+        frameGraphics.dispose();
+
+        Blit.upscale(g2, scaledFrame, getWidth(), getHeight());
+    }
+
+    /**
+     * Creates a frame of the passed size in the
+     * format of the screen of this panel, if it is
+     * known, so that copying it to the screen
+     * needs no conversion.
+     * 
+     * @param width the width of the frame
+     * @param height the height of the frame
+     * 
+     * @return the created frame
+     */
+    private BufferedImage createFrame(int width, int height) {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if(configuration != null) {
+            return configuration.createCompatibleImage(width, height);
+        }
+
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,250 @@
+package imagine.input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Class that records, tick by tick, the keys
+ * given by another {@code InputSource} into
+ * a compact binary stream, which can later
+ * be replayed by an {@code InputReplay}.
+ * <p>
+ * The stream starts with the {@code MAGIC}
+ * number and the {@code VERSION} of the format.
+ * Then, for every tick, it has the amount of
+ * keys that changed since the previous tick
+ * followed by their codes, all written as
+ * variable length integers. A tick with no
+ * changes takes a single byte.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see InputReplay
+ */
+public class InputRecorder implements InputSource {
+
+    /**
+     * The number that starts
+     * every input stream.
+     */
+    public static final int MAGIC = 0x494D4950;
+
+    /**
+     * The version of the format
+     * of the input streams.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The source whose keys are recorded.
+     */
+    private InputSource source;
+
+    /**
+     * The stream to which the
+     * ticks are written.
+     */
+    private DataOutputStream output;
+
+    /**
+     * The keys pressed on the last
+     * recorded tick.
+     */
+    private KeyState previous = new KeyState();
+
+    /**
+     * How many ticks were recorded.
+     */
+    private long recordedTicks = 0;
+
+    /**
+     * Tells if this recorder was closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * Creates a new {@code InputRecorder} that
+     * records the keys of the passed {@code source}
+     * into the passed {@code output}, writing the
+     * header of the stream right away.
+     * 
+     * @param source the {@code InputSource}
+     * to be recorded
+     * @param output the stream to write to
+     * 
+     * @throws IllegalArgumentException if an
+     * argument is {@code null}
+     * @throws UncheckedIOException if the
+     * header can't be written
+     */
+    public InputRecorder(InputSource source, OutputStream output) {
+        if(source == null || output == null) {
+            throw new IllegalArgumentException (
+                "cannot record with null source or output"
+            );
+        }
+
+        this.source = source;
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        try {
+            this.output.writeInt(MAGIC);
+            this.output.writeByte(VERSION);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code InputSource}
+     * recorded by this {@code InputRecorder}.
+     * 
+     * @return the recorded source
+     */
+    public InputSource getSource() {
+        return this.source;
+    }
+
+    /**
+     * Fills the passed {@code state} with the keys
+     * of the recorded source and writes the keys
+     * that changed since the previous tick. Once
+     * this recorder is closed, the keys are still
+     * given but not written anymore.
+     * 
+     * @param state the {@code KeyState} to be filled
+     * 
+     * @throws UncheckedIOException if the
+     * tick can't be written
+     */
+    @Override
+    public synchronized void poll(KeyState state) {
+        source.poll(state);
+        if(closed) {
+            return;
+        }
+
+        try {
+            writeChanges(state);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        previous.set(state);
+        recordedTicks++;
+    }
+
+    /**
+     * Writes the codes of the keys whose state
+     * differs between the previous tick and the
+     * passed {@code state}, preceded by how
+     * many they are.
+     * 
+     * @param state the keys of the current tick
+     * 
+     * @throws IOException if the
+     * changes can't be written
+     */
+    private void writeChanges(KeyState state) throws IOException {
+        int changes = 0;
+        for(int i = 0; i < state.getPressedCount(); i++) {
+            if(!previous.isPressed(state.getPressedKey(i))) {
+                changes++;
+            }
+        }
+        for(int i = 0; i < previous.getPressedCount(); i++) {
+            if(!state.isPressed(previous.getPressedKey(i))) {
+                changes++;
+            }
+        }
+
+        writeVarInt(changes);
+        for(int i = 0; i < state.getPressedCount(); i++) {
+            if(!previous.isPressed(state.getPressedKey(i))) {
+                writeVarInt(state.getPressedKey(i));
+            }
+        }
+        for(int i = 0; i < previous.getPressedCount(); i++) {
+            if(!state.isPressed(previous.getPressedKey(i))) {
+                writeVarInt(previous.getPressedKey(i));
+            }
+        }
+    }
+
+    /**
+     * Writes the passed {@code value} using seven
+     * bits per byte, the highest bit telling if
+     * another byte follows.
+     * 
+     * @param value the value to be written
+     * 
+     * @throws IOException if the
+     * value can't be written
+     */
+    private void writeVarInt(int value) throws IOException {
+        while((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    /**
+     * Returns how many ticks were
+     * recorded by this {@code InputRecorder}.
+     * 
+     * @return the amount of recorded ticks
+     */
+    public synchronized long getRecordedTicks() {
+        return this.recordedTicks;
+    }
+
+    /**
+     * Returns how many bytes were written
+     * by this {@code InputRecorder},
+     * including the header.
+     * 
+     * @return the amount of written bytes
+     */
+    public synchronized int getWrittenBytes() {
+        return output.size();
+    }
+
+    /**
+     * Writes everything that is still
+     * buffered to the output stream.
+     * 
+     * @throws UncheckedIOException if the
+     * stream can't be flushed
+     */
+    public synchronized void flush() {
+        try {
+            output.flush();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops recording and closes the output
+     * stream. Does nothing if this recorder
+     * is already closed.
+     * 
+     * @throws UncheckedIOException if the
+     * stream can't be closed
+     */
+    public synchronized void close() {
+        if(closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            output.close();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
\ No newline at end of file
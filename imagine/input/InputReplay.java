@@ -0,0 +1,195 @@
+package imagine.input;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Class that gives, tick by tick, the keys
+ * recorded by an {@code InputRecorder}, so
+ * that a session can be reproduced exactly,
+ * with a window or headless.
+ * <p>
+ * Once the recorded ticks are over, every key
+ * is released and the replay is finished.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see InputRecorder
+ */
+public class InputReplay implements InputSource {
+
+    /**
+     * The stream from which
+     * the ticks are read.
+     */
+    private DataInputStream input;
+
+    /**
+     * The keys pressed on the
+     * last replayed tick.
+     */
+    private KeyState current = new KeyState();
+
+    /**
+     * How many ticks were replayed.
+     */
+    private long replayedTicks = 0;
+
+    /**
+     * Tells if the recorded ticks are over.
+     */
+    private volatile boolean finished = false;
+
+    /**
+     * Creates a new {@code InputReplay} that reads
+     * the recorded ticks from the passed {@code input},
+     * reading and checking the header of the
+     * stream right away.
+     * 
+     * @param input the stream to read from
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code input} argument is {@code null} or it
+     * isn't a stream written by an {@code InputRecorder}
+     * @throws UncheckedIOException if the
+     * header can't be read
+     */
+    public InputReplay(InputStream input) {
+        if(input == null) {
+            throw new IllegalArgumentException (
+                "cannot replay null input"
+            );
+        }
+
+        this.input = new DataInputStream(new BufferedInputStream(input));
+        try {
+            if(this.input.readInt() != InputRecorder.MAGIC) {
+                throw new IllegalArgumentException (
+                    "input is not a recorded input stream"
+                );
+            }
+            if(this.input.readUnsignedByte() != InputRecorder.VERSION) {
+                throw new IllegalArgumentException (
+                    "input stream version is not supported"
+                );
+            }
+        } catch(EOFException e) {
+            throw new IllegalArgumentException (
+                "input is not a recorded input stream"
+            );
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fills the passed {@code state} with the keys
+     * of the next recorded tick. If the recorded
+     * ticks are over, no key is pressed.
+     * 
+     * @param state the {@code KeyState} to be filled
+     * 
+     * @throws UncheckedIOException if the
+     * tick can't be read
+     */
+    @Override
+    public synchronized void poll(KeyState state) {
+        if(!finished) {
+            readTick();
+        }
+
+        state.set(current);
+    }
+
+    /**
+     * Reads the keys that changed on the next
+     * tick and applies them to the current keys.
+     * If the stream is over, finishes the replay.
+     */
+    private void readTick() {
+        try {
+            int first = input.read();
+            if(first < 0) {
+                finish();
+                return;
+            }
+
+            int changes = readVarInt(first);
+            for(int i = 0; i < changes; i++) {
+                current.toggle(readVarInt(input.readUnsignedByte()));
+            }
+            replayedTicks++;
+        } catch(EOFException e) {
+            finish();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a value written with seven bits per
+     * byte, the highest bit telling if another
+     * byte follows.
+     * 
+     * @param first the first byte of the value
+     * 
+     * @return the read value
+     * 
+     * @throws IOException if the
+     * value can't be read
+     */
+    private int readVarInt(int first) throws IOException {
+        int value = first & 0x7F;
+        int shift = 7;
+        int next = first;
+        while((next & 0x80) != 0) {
+            next = input.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        }
+
+        return value;
+    }
+
+    /**
+     * Releases every key, marks the
+     * replay as finished and closes
+     * the input stream.
+     */
+    private void finish() {
+        finished = true;
+        current.clear();
+        try {
+            input.close();
+        } catch(IOException e) {
+
+        }
+    }
+
+    /**
+     * Returns how many ticks were replayed
+     * by this {@code InputReplay}.
+     * 
+     * @return the amount of replayed ticks
+     */
+    public synchronized long getReplayedTicks() {
+        return this.replayedTicks;
+    }
+
+    /**
+     * Returns {@code true} if the recorded
+     * ticks are over and {@code false}
+     * otherwise.
+     * 
+     * @return boolean telling if the
+     * replay is finished
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package imagine.input;
+
+/**
+ * Interface to represent where the keyboard
+ * input of a {@code Game} comes from.
+ * <p>
+ * The input is latched once per tick: before
+ * every update, the game asks its source for
+ * the keys pressed on that tick, and every
+ * {@code keyIsPressed} call during the tick
+ * answers from them. This way the input can't
+ * change in the middle of an update, and a
+ * recorded session can be replayed tick by tick.
+ * 
+ * @author Daniel O Sousa
+ */
+public interface InputSource {
+
+    /**
+     * Fills the passed {@code state} with
+     * the keys pressed on the next tick.
+     * 
+     * @param state the {@code KeyState}
+     * to be filled
+     */
+    void poll(KeyState state);
+
+}
\ No newline at end of file
@@ -12,10 +12,13 @@ import java.util.ArrayList;
  * To use it, you must add it to a
  * {@code Component} using the method
  * {@code addKeyListener}.
+ * <p>
+ * As an {@code InputSource}, it gives
+ * the keys pressed when it is polled.
  * 
  * @author Daniel O Sousa
  */
-public class KeyHandler implements KeyListener {
+public class KeyHandler implements KeyListener, InputSource {
 
     /**
      * Array list for storing the codes of the keys
@@ -46,7 +49,7 @@ public class KeyHandler implements KeyListener {
      * @see #removeKey(int)
      * @see #activeKeys
      */
-    private void addKey(int keyCode) {
+    private synchronized void addKey(int keyCode) {
         if(!activeKeys.contains(keyCode)) {
             activeKeys.add(keyCode);
         }
@@ -63,7 +66,7 @@ public class KeyHandler implements KeyListener {
      * @see #addKey(int)
      * @see #activeKeys
      */
-    private void removeKey(int keyCode) {
+    private synchronized void removeKey(int keyCode) {
         activeKeys.remove((Integer) keyCode);
     }
 
@@ -80,10 +83,25 @@ public class KeyHandler implements KeyListener {
      * by the passed {@code keyCode} is currently
      * pressed
      */
-    public boolean isPressed(int keyCode) {
+    public synchronized boolean isPressed(int keyCode) {
         return activeKeys.contains(keyCode);
     }
 
+    /**
+     * Fills the passed {@code state} with
+     * the keys that are currently pressed.
+     * 
+     * @param state the {@code KeyState}
+     * to be filled
+     */
+    @Override
+    public synchronized void poll(KeyState state) {
+        state.clear();
+        for(int keyCode : activeKeys) {
+            state.press(keyCode);
+        }
+    }
+
     @Override
     public void keyTyped(KeyEvent e) {
 
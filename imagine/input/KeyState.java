@@ -0,0 +1,165 @@
+package imagine.input;
+
+import java.util.Arrays;
+
+/**
+ * Class that stores which keys are pressed
+ * during one tick of a {@code Game}.
+ * <p>
+ * The codes of the pressed keys are kept
+ * sorted in an array, so two states with
+ * the same keys always list them in the
+ * same order.
+ * 
+ * @author Daniel O Sousa
+ */
+public class KeyState {
+
+    /**
+     * The codes of the pressed keys, sorted
+     * from the lowest to the highest.
+     */
+    private int[] keys = new int[8];
+
+    /**
+     * How many keys are pressed.
+     */
+    private int size = 0;
+
+    /**
+     * Verifies if the key specified by
+     * the passed {@code keyCode} is pressed
+     * in this {@code KeyState}.
+     * 
+     * @param keyCode the code of the key to verify
+     * 
+     * @return {@code true} if the key is pressed
+     * and {@code false} otherwise
+     */
+    public boolean isPressed(int keyCode) {
+        return Arrays.binarySearch(keys, 0, size, keyCode) >= 0;
+    }
+
+    /**
+     * Marks the key specified by the passed
+     * {@code keyCode} as pressed. Does nothing
+     * if it is already pressed.
+     * 
+     * @param keyCode the code of the pressed key
+     */
+    public void press(int keyCode) {
+        int position = Arrays.binarySearch(keys, 0, size, keyCode);
+        if(position >= 0) {
+            return;
+        }
+
+        position = -position - 1;
+        if(size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        keys[position] = keyCode;
+        size++;
+    }
+
+    /**
+     * Marks the key specified by the passed
+     * {@code keyCode} as released. Does nothing
+     * if it isn't pressed.
+     * 
+     * @param keyCode the code of the released key
+     */
+    public void release(int keyCode) {
+        int position = Arrays.binarySearch(keys, 0, size, keyCode);
+        if(position < 0) {
+            return;
+        }
+
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Presses the key specified by the passed
+     * {@code keyCode} if it is released, or
+     * releases it if it is pressed.
+     * 
+     * @param keyCode the code of the key
+     */
+    public void toggle(int keyCode) {
+        if(isPressed(keyCode)) {
+            release(keyCode);
+        } else {
+            press(keyCode);
+        }
+    }
+
+    /**
+     * Releases every key of
+     * this {@code KeyState}.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Makes this {@code KeyState} have
+     * the same pressed keys as the
+     * passed {@code state}.
+     * 
+     * @param state the state to be copied
+     */
+    public void set(KeyState state) {
+        if(keys.length < state.size) {
+            keys = new int[state.keys.length];
+        }
+        System.arraycopy(state.keys, 0, keys, 0, state.size);
+        size = state.size;
+    }
+
+    /**
+     * Returns how many keys are pressed
+     * in this {@code KeyState}.
+     * 
+     * @return the amount of pressed keys
+     */
+    public int getPressedCount() {
+        return this.size;
+    }
+
+    /**
+     * Returns the code of the pressed key at
+     * the passed {@code position}, counting
+     * from the lowest code.
+     * 
+     * @param position the position of the key
+     * 
+     * @return the code of the key
+     * 
+     * @throws IndexOutOfBoundsException if the
+     * {@code position} doesn't correspond
+     * to a pressed key
+     */
+    public int getPressedKey(int position) {
+        if(position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException (
+                "position " + position +
+                " does not correspond to a pressed key"
+            );
+        }
+
+        return keys[position];
+    }
+
+    /**
+     * Returns the codes of the keys pressed in
+     * this {@code KeyState}, from the lowest
+     * to the highest.
+     * 
+     * @return the codes of the pressed keys
+     */
+    public int[] getPressedKeys() {
+        return Arrays.copyOf(keys, size);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package imagine.job;
+
+/**
+ * Functional interface for the work of a
+ * phase that is split into chunks, each
+ * one covering a range of indices.
+ * 
+ * @author Daniel O Sousa
+ */
+@FunctionalInterface
+public interface ChunkTask {
+
+    /**
+     * Does the work of the
+     * indices of one chunk.
+     * 
+     * @param from the first index
+     * of the chunk, inclusive
+     * @param to the last index
+     * of the chunk, exclusive
+     */
+    void run(int from, int to);
+
+}
\ No newline at end of file
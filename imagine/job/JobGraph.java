@@ -0,0 +1,362 @@
+package imagine.job;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+/**
+ * Class used for declaring the phases of a
+ * frame, with the phases each one depends on,
+ * and running them once per frame.
+ * <p>
+ * By default the phases run one after another,
+ * in the order they were added, on the calling
+ * thread. When set to run in parallel, every
+ * phase whose dependencies finished runs on a
+ * work stealing {@code ForkJoinPool}, and phases
+ * split into chunks have their chunks stolen by
+ * idle threads. In both modes the time of each
+ * phase is measured.
+ * <p>
+ * A phase can only depend on phases added before
+ * it, so the order in which phases are added is
+ * always a valid order to run them.
+ * 
+ * @author Daniel O Sousa
+ */
+public class JobGraph {
+
+    /**
+     * The phases of this graph,
+     * in the order they were added.
+     */
+    private ArrayList<Phase> phases = new ArrayList<Phase>();
+
+    /**
+     * Tells if the phases should run
+     * in parallel or not.
+     * <p>
+     * Is initially set to {@code false}.
+     */
+    private boolean parallel = false;
+
+    /**
+     * The pool on which the phases
+     * run in parallel.
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Adds a phase that runs a single task.
+     * 
+     * @param name the name of the phase
+     * @param task the task of the phase
+     * @param dependencies the phases that must
+     * finish before this one starts
+     * 
+     * @return the added {@code Phase}
+     * 
+     * @throws IllegalArgumentException if an
+     * argument is {@code null} or a dependency
+     * isn't a phase of this graph
+     */
+    public Phase addPhase(String name, Runnable task, Phase... dependencies) {
+        if(task == null) {
+            throw new IllegalArgumentException (
+                "cannot add phase with null task"
+            );
+        }
+
+        return add(new Phase(name, task), dependencies);
+    }
+
+    /**
+     * Adds a phase that covers the indices from
+     * {@code 0} to the value given by {@code size},
+     * split into chunks of up to {@code chunkSize}
+     * indices.
+     * 
+     * @param name the name of the phase
+     * @param size tells, on every run, how many
+     * indices the phase covers
+     * @param chunkSize the maximum amount of
+     * indices of each chunk
+     * @param chunkTask the task run for each chunk
+     * @param dependencies the phases that must
+     * finish before this one starts
+     * 
+     * @return the added {@code Phase}
+     * 
+     * @throws IllegalArgumentException if an
+     * argument is {@code null}, the {@code chunkSize}
+     * isn't positive or a dependency isn't a
+     * phase of this graph
+     */
+    public Phase addChunkedPhase (
+        String name,
+        IntSupplier size,
+        int chunkSize,
+        ChunkTask chunkTask,
+        Phase... dependencies
+    ) {
+        if(size == null || chunkTask == null) {
+            throw new IllegalArgumentException (
+                "cannot add phase with null size or task"
+            );
+        }
+        if(chunkSize <= 0) {
+            throw new IllegalArgumentException (
+                "chunk size must be positive"
+            );
+        }
+
+        return add(new Phase(name, size, chunkSize, chunkTask), dependencies);
+    }
+
+    /**
+     * Adds the {@code phase} to this graph,
+     * depending on the {@code dependencies}.
+     * 
+     * @param phase the phase to be added
+     * @param dependencies the phases that must
+     * finish before it starts
+     * 
+     * @return the added {@code Phase}
+     */
+    private Phase add(Phase phase, Phase... dependencies) {
+        if(phase.getName() == null) {
+            throw new IllegalArgumentException (
+                "cannot add phase with null name"
+            );
+        }
+        for(Phase dependency : dependencies) {
+            if(!phases.contains(dependency)) {
+                throw new IllegalArgumentException (
+                    "dependency is not a phase of this graph"
+                );
+            }
+        }
+
+        for(Phase dependency : dependencies) {
+            phase.addDependency(dependency);
+        }
+        phases.add(phase);
+        return phase;
+    }
+
+    /**
+     * Returns the phases of this {@code JobGraph}
+     * in the order they were added.
+     * 
+     * @return the phases
+     */
+    public ArrayList<Phase> getPhases() {
+        return new ArrayList<Phase>(phases);
+    }
+
+    /**
+     * Returns the phase of this {@code JobGraph}
+     * with the passed {@code name}. {@code null}
+     * is returned if there is none.
+     * 
+     * @param name the name of the phase
+     * 
+     * @return the {@code Phase} with the name
+     */
+    public Phase getPhase(String name) {
+        for(Phase phase : phases) {
+            if(phase.getName().equals(name)) {
+                return phase;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Configures if the phases of this
+     * {@code JobGraph} should run in parallel.
+     * Only phases whose tasks don't touch the
+     * same state should be run in parallel.
+     * 
+     * @param parallel boolean describing if
+     * the phases should run in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Returns {@code true} if the phases of
+     * this {@code JobGraph} run in parallel
+     * and {@code false} otherwise.
+     * 
+     * @return boolean describing if the
+     * phases run in parallel
+     */
+    public boolean getParallel() {
+        return this.parallel;
+    }
+
+    /**
+     * Sets the pool on which the phases of this
+     * {@code JobGraph} run in parallel. By default,
+     * the common pool is used.
+     * 
+     * @param pool the {@code ForkJoinPool} to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pool} argument is {@code null}
+     */
+    public void setPool(ForkJoinPool pool) {
+        if(pool == null) {
+            throw new IllegalArgumentException (
+                "cannot set null pool"
+            );
+        }
+
+        this.pool = pool;
+    }
+
+    /**
+     * Clears the recorded times
+     * of every phase.
+     */
+    public void resetTimes() {
+        for(Phase phase : phases) {
+            phase.resetTimes();
+        }
+    }
+
+    /**
+     * Runs every phase of this {@code JobGraph}
+     * once, returning after all of them finish.
+     * If a phase throws an exception, the phases
+     * that didn't start yet are skipped and the
+     * exception is thrown again by this method.
+     */
+    public void run() {
+        if(!parallel) {
+            for(Phase phase : phases) {
+                phase.runSequentially();
+            }
+            return;
+        }
+
+        runInParallel();
+    }
+
+    /**
+     * Runs the phases on the {@code pool},
+     * starting each one once its dependencies
+     * finish, and waits for all of them.
+     */
+    private void runInParallel() {
+        CountDownLatch finished = new CountDownLatch(phases.size());
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        for(Phase phase : phases) {
+            phase.pendingDependencies.set(phase.getDependencies().size());
+        }
+        for(Phase phase : phases) {
+            if(phase.getDependencies().isEmpty()) {
+                pool.execute(new PhaseAction(phase, finished, failure));
+            }
+        }
+
+        boolean interrupted = false;
+        while(finished.getCount() > 0) {
+            try {
+                finished.await();
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable throwable = failure.get();
+        if(throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if(throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+    }
+
+    /**
+     * Action that runs one phase on the pool
+     * and then starts the dependents whose
+     * dependencies all finished.
+     */
+    private static class PhaseAction extends RecursiveAction {
+
+        /**
+         * Version of this serializable class.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The phase to be run.
+         */
+        private transient Phase phase;
+
+        /**
+         * Counted down once per finished phase.
+         */
+        private transient CountDownLatch finished;
+
+        /**
+         * The first exception thrown by a phase.
+         */
+        private transient AtomicReference<Throwable> failure;
+
+        /**
+         * Creates a new {@code PhaseAction}.
+         * 
+         * @param phase the phase to be run
+         * @param finished counted down once
+         * the phase finishes
+         * @param failure stores the first
+         * exception thrown by a phase
+         */
+        PhaseAction (
+            Phase phase,
+            CountDownLatch finished,
+            AtomicReference<Throwable> failure
+        ) {
+            this.phase = phase;
+            this.finished = finished;
+            this.failure = failure;
+        }
+
+        /**
+         * Runs the phase, unless a phase already
+         * failed, and forks the dependents that
+         * are ready to run.
+         */
+        @Override
+        protected void compute() {
+            try {
+                if(failure.get() == null) {
+                    phase.runInPool();
+                }
+            } catch(Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                for(Phase dependent : phase.getDependents()) {
+                    if(dependent.pendingDependencies.decrementAndGet() == 0) {
+                        new PhaseAction(dependent, finished, failure).fork();
+                    }
+                }
+                finished.countDown();
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
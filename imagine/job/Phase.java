@@ -0,0 +1,318 @@
+package imagine.job;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Class that represents one phase of a
+ * {@code JobGraph}, like updating the objects
+ * of a stage, with the phases it depends on
+ * and the time it takes to run.
+ * <p>
+ * A phase either runs a single task or splits
+ * a range of indices into chunks, which idle
+ * threads of the pool can steal when the
+ * graph runs in parallel.
+ * 
+ * @author Daniel O Sousa
+ */
+public class Phase {
+
+    /**
+     * The name of this phase.
+     */
+    private String name;
+
+    /**
+     * The task of this phase, when
+     * it isn't split into chunks.
+     */
+    private Runnable task;
+
+    /**
+     * The task run for each chunk,
+     * when this phase is split.
+     */
+    private ChunkTask chunkTask;
+
+    /**
+     * Tells how many indices
+     * this phase covers.
+     */
+    private IntSupplier size;
+
+    /**
+     * The maximum amount of
+     * indices of each chunk.
+     */
+    private int chunkSize;
+
+    /**
+     * The phases this phase depends on.
+     */
+    private ArrayList<Phase> dependencies = new ArrayList<Phase>();
+
+    /**
+     * The phases that depend on this phase.
+     */
+    private ArrayList<Phase> dependents = new ArrayList<Phase>();
+
+    /**
+     * How many dependencies didn't finish yet
+     * in the current parallel run.
+     */
+    AtomicInteger pendingDependencies = new AtomicInteger();
+
+    /**
+     * The time in nanoseconds
+     * the last run took.
+     */
+    private long lastTime = 0;
+
+    /**
+     * The longest time in nanoseconds
+     * a run took.
+     */
+    private long maxTime = 0;
+
+    /**
+     * The sum of the times in
+     * nanoseconds of every run.
+     */
+    private long totalTime = 0;
+
+    /**
+     * How many times this phase ran.
+     */
+    private long runs = 0;
+
+    /**
+     * Creates a new {@code Phase} that
+     * runs a single task.
+     * 
+     * @param name the name of the phase
+     * @param task the task of the phase
+     */
+    Phase(String name, Runnable task) {
+        this.name = name;
+        this.task = task;
+    }
+
+    /**
+     * Creates a new {@code Phase} split
+     * into chunks of indices.
+     * 
+     * @param name the name of the phase
+     * @param size tells how many indices
+     * the phase covers
+     * @param chunkSize the maximum amount
+     * of indices of each chunk
+     * @param chunkTask the task run
+     * for each chunk
+     */
+    Phase(String name, IntSupplier size, int chunkSize, ChunkTask chunkTask) {
+        this.name = name;
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.chunkTask = chunkTask;
+    }
+
+    /**
+     * Returns the name of this {@code Phase}.
+     * 
+     * @return the name of the phase
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Makes this phase depend on the
+     * passed {@code dependency}.
+     * 
+     * @param dependency the phase that
+     * must finish before this one
+     */
+    void addDependency(Phase dependency) {
+        dependencies.add(dependency);
+        dependency.dependents.add(this);
+    }
+
+    /**
+     * Returns the phases this
+     * {@code Phase} depends on.
+     * 
+     * @return the dependencies
+     */
+    public ArrayList<Phase> getDependencies() {
+        return new ArrayList<Phase>(dependencies);
+    }
+
+    /**
+     * Returns the phases that
+     * depend on this {@code Phase}.
+     * 
+     * @return the dependents
+     */
+    ArrayList<Phase> getDependents() {
+        return this.dependents;
+    }
+
+    /**
+     * Runs this phase on the calling
+     * thread, one chunk after another.
+     */
+    void runSequentially() {
+        long start = System.nanoTime();
+        if(chunkTask == null) {
+            task.run();
+        } else {
+            int size = this.size.getAsInt();
+            for(int from = 0; from < size; from += chunkSize) {
+                chunkTask.run(from, Math.min(size, from + chunkSize));
+            }
+        }
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * Runs this phase inside a fork join
+     * pool, forking its chunks so that
+     * idle threads can steal them.
+     */
+    void runInPool() {
+        long start = System.nanoTime();
+        if(chunkTask == null) {
+            task.run();
+        } else {
+            new ChunkAction(0, size.getAsInt()).invoke();
+        }
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records the time of a run.
+     * 
+     * @param time the time in nanoseconds
+     */
+    private synchronized void record(long time) {
+        lastTime = time;
+        totalTime += time;
+        maxTime = Math.max(maxTime, time);
+        runs++;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * the last run of this phase took.
+     * 
+     * @return the last time
+     */
+    public synchronized long getLastTime() {
+        return this.lastTime;
+    }
+
+    /**
+     * Returns the longest time in
+     * nanoseconds a run of this
+     * phase took.
+     * 
+     * @return the max time
+     */
+    public synchronized long getMaxTime() {
+        return this.maxTime;
+    }
+
+    /**
+     * Returns the average time in
+     * nanoseconds of the runs of this
+     * phase. {@code 0} is returned if
+     * it never ran.
+     * 
+     * @return the average time
+     */
+    public synchronized double getAverageTime() {
+        if(runs == 0) {
+            return 0;
+        }
+
+        return (double) totalTime / runs;
+    }
+
+    /**
+     * Returns how many times
+     * this phase ran.
+     * 
+     * @return the amount of runs
+     */
+    public synchronized long getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Clears the recorded times
+     * of this phase.
+     */
+    public synchronized void resetTimes() {
+        lastTime = 0;
+        maxTime = 0;
+        totalTime = 0;
+        runs = 0;
+    }
+
+    /**
+     * Action that runs a range of indices,
+     * splitting it in halves until each
+     * part fits in a chunk.
+     */
+    private class ChunkAction extends RecursiveAction {
+
+        /**
+         * Version of this serializable class.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first index, inclusive.
+         */
+        private int from;
+
+        /**
+         * The last index, exclusive.
+         */
+        private int to;
+
+        /**
+         * Creates a new {@code ChunkAction}
+         * for the passed range.
+         * 
+         * @param from the first index, inclusive
+         * @param to the last index, exclusive
+         */
+        ChunkAction(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Runs the range, or splits it
+         * if it doesn't fit in a chunk.
+         */
+        @Override
+        protected void compute() {
+            if(to - from <= chunkSize) {
+                if(to > from) {
+                    chunkTask.run(from, to);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkAction(from, middle), new ChunkAction(middle, to));
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -2,9 +2,16 @@ package imagine.object;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
 
 import imagine.stage.AnimatableStageElement;
+import imagine.stage.Stage;
 import imagine.sprite.SpriteSheet;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
+import imagine.script.Coroutine;
+import imagine.script.Script;
 
 /**
  * Class for creating game objects.
@@ -41,6 +48,23 @@ public abstract class GameObject extends AnimatableStageElement {
      */
     private boolean showSprite = true;
 
+    /**
+     * The z of this {@code GameObject}. When the
+     * stage is drawn through a {@code RenderQueue},
+     * objects with a greater z are drawn over the
+     * others, regardless of their order in the stage.
+     * <p>
+     * Initially, this property is set to {@code 0}.
+     */
+    private int z = 0;
+
+    /**
+     * The coroutines of the scripts started by
+     * this {@code GameObject}, which are cancelled
+     * when it is removed from its {@code Stage}.
+     */
+    private ArrayList<Coroutine> scripts = new ArrayList<Coroutine>();
+
     /**
      * Constructs a {@code GameObject} instance that will
      * have the passed {@code spriteSheet}, {@code x} and
@@ -108,6 +132,28 @@ public abstract class GameObject extends AnimatableStageElement {
         return this.showSprite;
     }
 
+    /**
+     * Sets the z of this {@code GameObject}, which
+     * decides, when the stage is drawn through a
+     * {@code RenderQueue}, which objects are drawn
+     * over the others. Objects with the same z are
+     * drawn in the order of the stage.
+     * 
+     * @param z the z to be set
+     */
+    public void setZ(int z) {
+        this.z = z;
+    }
+
+    /**
+     * Returns the z of this {@code GameObject}.
+     * 
+     * @return the z of this object
+     */
+    public int getZ() {
+        return this.z;
+    }
+
     /**
      * Defines if the bounding box of this
      * {@code GameObject} should be drawn
@@ -154,6 +200,34 @@ public abstract class GameObject extends AnimatableStageElement {
         return getY() - getCameraY();
     }
 
+    /**
+     * Returns the apparent x coordinate of
+     * this {@code GameObject} when taking into
+     * account the camera position, both
+     * interpolated between the last two
+     * updates. This is the coordinate where
+     * this {@code GameObject} is drawn.
+     * 
+     * @return the interpolated apparent x coordinate
+     */
+    public int getInterpolatedApparentX() {
+        return getInterpolatedX() - getInterpolatedCameraX();
+    }
+
+    /**
+     * Returns the apparent y coordinate of
+     * this {@code GameObject} when taking into
+     * account the camera position, both
+     * interpolated between the last two
+     * updates. This is the coordinate where
+     * this {@code GameObject} is drawn.
+     * 
+     * @return the interpolated apparent y coordinate
+     */
+    public int getInterpolatedApparentY() {
+        return getInterpolatedY() - getInterpolatedCameraY();
+    }
+
     /**
      * Returns the apparent y coordinate of
      * the top boundary of this {@code GameObject}
@@ -198,6 +272,83 @@ public abstract class GameObject extends AnimatableStageElement {
         return getLeft() - getCameraX();
     }
 
+    /**
+     * Returns {@code true} if any part of this
+     * {@code GameObject} is inside the
+     * {@code GamePanel}, when taking into
+     * account the camera position, and
+     * {@code false} otherwise.
+     * 
+     * @return boolean specifying if this
+     * object is on the screen
+     */
+    public boolean isOnScreen() {
+        int apparentX = getApparentX();
+        int apparentY = getApparentY();
+
+        return apparentX < getGamePanelWidth() &&
+               apparentY < getGamePanelHeight() &&
+               apparentX + getWidth() > 0 &&
+               apparentY + getHeight() > 0;
+    }
+
+    /**
+     * Returns {@code true} if any part of this
+     * {@code GameObject}, where it is drawn, is
+     * inside the {@code GamePanel} grown by
+     * {@code margin} pixels on every side, and
+     * {@code false} otherwise. Used by the
+     * {@code Stage} to leave out of the drawing
+     * the objects the camera doesn't see.
+     * 
+     * @param margin how many pixels the
+     * {@code GamePanel} is grown by
+     * 
+     * @return boolean specifying if this
+     * object is in the view of the camera
+     */
+    public boolean isInView(int margin) {
+        int drawingX = getInterpolatedApparentX();
+        int drawingY = getInterpolatedApparentY();
+
+        return drawingX < getGamePanelWidth() + margin &&
+               drawingY < getGamePanelHeight() + margin &&
+               drawingX + getWidth() > -margin &&
+               drawingY + getHeight() > -margin;
+    }
+
+    /**
+     * Returns {@code true} if this {@code GameObject}
+     * should be animated on the current tick and
+     * {@code false} otherwise. Objects on the
+     * screen are always animated, while the ones
+     * out of it are only animated once every
+     * off screen animation interval of the stage.
+     * <p>
+     * Animations done in the {@code onUpdate}
+     * method, like advancing the frame of the
+     * sprite sheet, can check this method so
+     * that they cost less when the quality of
+     * the game is lowered.
+     * 
+     * @return boolean specifying if this
+     * object should be animated
+     * 
+     * @see Stage#setOffScreenAnimationInterval(int)
+     */
+    public boolean shouldAnimate() {
+        Stage stage = getStage();
+        if(stage == null || stage.getOffScreenAnimationInterval() == 1) {
+            return true;
+        }
+        if(isOnScreen()) {
+            return true;
+        }
+
+        long tick = stage.getScheduler().getCurrentTick();
+        return tick % stage.getOffScreenAnimationInterval() == 0;
+    }
+
     /**
      * Executes the {@code onStart} method.
      * 
@@ -209,6 +360,65 @@ public abstract class GameObject extends AnimatableStageElement {
         onStart();
     }
 
+    /**
+     * Starts the passed {@code script} on the
+     * {@code ScriptScheduler} of the {@code Stage}
+     * of this {@code GameObject}. The script
+     * first runs at the next update of the
+     * {@code Stage} and is cancelled when this
+     * {@code GameObject} is removed from it.
+     * 
+     * @param script the {@code Script} to be started
+     * 
+     * @return the {@code Coroutine} of the script
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code script} argument is {@code null}
+     * @throws IllegalStateException if this
+     * {@code GameObject} has no {@code Stage}
+     */
+    public Coroutine startScript(Script script) {
+        if(getStage() == null) {
+            throw new IllegalStateException (
+                "cannot start script of game object without stage"
+            );
+        }
+
+        scripts.removeIf(Coroutine::isDone);
+        Coroutine coroutine = getStage().getScriptScheduler().start(script);
+        scripts.add(coroutine);
+        return coroutine;
+    }
+
+    /**
+     * Cancels every script started by this
+     * {@code GameObject} that isn't done yet.
+     * If called by one of those scripts, the
+     * others are cancelled first and then it
+     * ends with a {@code CancellationException}.
+     * 
+     * @throws CancellationException if called by
+     * one of the scripts of this {@code GameObject}
+     * 
+     * @see Coroutine#cancel()
+     */
+    public void cancelScripts() {
+        CancellationException ownCancellation = null;
+        ArrayList<Coroutine> coroutines = new ArrayList<Coroutine>(scripts);
+        scripts.clear();
+
+        for(Coroutine coroutine : coroutines) {
+            try {
+                coroutine.cancel();
+            } catch(CancellationException e) {
+                ownCancellation = e;
+            }
+        }
+        if(ownCancellation != null) {
+            throw ownCancellation;
+        }
+    }
+
     /**
      * Method executed when the
      * {@code start} method is called.
@@ -266,22 +476,81 @@ public abstract class GameObject extends AnimatableStageElement {
         if(showBoundingBox) {
             g2.setColor(color);
             g2.fillRect (
-                getApparentX(), getApparentY(),
+                getInterpolatedApparentX(), getInterpolatedApparentY(),
                 getWidth(), getHeight()
             );
         }
         if(showSprite && getSpriteSheet() != null) {
-            g2.drawImage (
-                getCurrentFrame().getImage(),
-                getApparentX(), getApparentY(),
-                getWidth(), getHeight(),
-                null
+            drawCurrentFrame (
+                g2,
+                getInterpolatedApparentX(), getInterpolatedApparentY(),
+                getWidth(), getHeight()
             );
         }
 
         onDraw(g2);
     }
     
+    /**
+     * Adds this {@code GameObject}'s bounding box
+     * and sprite, if they are configured to be
+     * shown, to the passed {@code snapshot}.
+     * <p>
+     * The {@code onDraw} method is not called
+     * when capturing.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     * to be filled
+     */
+    public void capture(RenderSnapshot snapshot) {
+        int previousApparentX = getPreviousX() - getPreviousCameraX();
+        int previousApparentY = getPreviousY() - getPreviousCameraY();
+
+        if(showBoundingBox) {
+            snapshot.addRect (
+                color,
+                previousApparentX, previousApparentY,
+                getApparentX(), getApparentY(),
+                getWidth(), getHeight()
+            );
+        }
+        if(showSprite && getSpriteSheet() != null) {
+            snapshot.addSprite (
+                getCurrentFrame(),
+                previousApparentX, previousApparentY,
+                getApparentX(), getApparentY(),
+                getWidth(), getHeight()
+            );
+        }
+    }
+
+    /**
+     * Adds the commands that draw this
+     * {@code GameObject}'s bounding box and sprite,
+     * if they are configured to be shown, to the
+     * passed {@code queue}, with the z of this
+     * object and at the position where
+     * it is drawn.
+     * <p>
+     * The {@code onDraw} method is not called
+     * when enqueuing.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be filled
+     */
+    public void enqueue(RenderQueue queue) {
+        int drawingX = getInterpolatedApparentX();
+        int drawingY = getInterpolatedApparentY();
+
+        queue.setZ(z);
+        if(showBoundingBox) {
+            queue.addRect(color, drawingX, drawingY, getWidth(), getHeight());
+        }
+        if(showSprite && getSpriteSheet() != null) {
+            queue.addSprite(getCurrentFrame(), drawingX, drawingY, getWidth(), getHeight());
+        }
+    }
+
     /**
      * Method executed when the
      * {@code draw} method is called.
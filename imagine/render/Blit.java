@@ -0,0 +1,120 @@
+package imagine.render;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import imagine.sprite.Sprite;
+
+/**
+ * Class with the methods used by the engine
+ * to copy images onto the frames it draws.
+ * <p>
+ * When an image is drawn at its own size,
+ * it is copied without scaling, which is
+ * much cheaper than asking the graphics
+ * to scale it to the same size.
+ * 
+ * @author Daniel O Sousa
+ */
+public class Blit {
+
+    /**
+     * This class only has static methods,
+     * so it can't be instantiated.
+     */
+    private Blit() {
+
+    }
+
+    /**
+     * Draws the {@code image} with its top left
+     * corner at {@code x} and {@code y}, scaled to
+     * {@code width} by {@code height}. If that is
+     * the size of the image, it is copied
+     * without scaling.
+     * 
+     * @param g2 the {@code Graphics2D} to draw with
+     * @param image the image to be drawn
+     * @param x the x coordinate of the drawing
+     * @param y the y coordinate of the drawing
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     */
+    public static void drawImage (
+        Graphics2D g2,
+        Image image,
+        int x, int y,
+        int width, int height
+    ) {
+        if(image.getWidth(null) == width && image.getHeight(null) == height) {
+            g2.drawImage(image, x, y, null);
+        } else {
+            g2.drawImage(image, x, y, width, height, null);
+        }
+    }
+
+    /**
+     * Draws the {@code sprite} with its top left
+     * corner at {@code x} and {@code y}, scaled to
+     * {@code width} by {@code height}. If it was
+     * packed into a {@code TextureAtlas}, its region
+     * is copied straight from its page, so sprites of
+     * the same page are all read from one image.
+     * 
+     * @param g2 the {@code Graphics2D} to draw with
+     * @param sprite the sprite to be drawn
+     * @param x the x coordinate of the drawing
+     * @param y the y coordinate of the drawing
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     * 
+     * @see imagine.sprite.TextureAtlas
+     */
+    public static void drawSprite (
+        Graphics2D g2,
+        Sprite sprite,
+        int x, int y,
+        int width, int height
+    ) {
+        BufferedImage page = sprite.getPage();
+        if(page == null) {
+            drawImage(g2, sprite.getImage(), x, y, width, height);
+            return;
+        }
+
+        int pageX = sprite.getPageX();
+        int pageY = sprite.getPageY();
+        g2.drawImage (
+            page,
+            x, y, x + width, y + height,
+            pageX, pageY, pageX + sprite.getWidth(), pageY + sprite.getHeight(),
+            null
+        );
+    }
+
+    /**
+     * Draws the whole {@code frame} scaled to
+     * {@code width} by {@code height} in a single
+     * pass, using nearest neighbour scaling so that
+     * every pixel becomes a sharp block.
+     * 
+     * @param g2 the {@code Graphics2D} to draw with
+     * @param frame the frame to be drawn
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     */
+    public static void upscale(Graphics2D g2, Image frame, int width, int height) {
+        Object interpolation = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g2.setRenderingHint (
+            RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+        );
+        drawImage(g2, frame, 0, 0, width, height);
+        if(interpolation != null) {
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        }
+    }
+
+}
\ No newline at end of file
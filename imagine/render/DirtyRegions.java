@@ -0,0 +1,492 @@
+package imagine.render;
+
+import java.util.Arrays;
+
+/**
+ * Class that finds which rectangles of the
+ * screen changed between two frames, by comparing
+ * the commands of the {@code RenderQueue} of each
+ * frame with the ones of the previous frame.
+ * <p>
+ * Every command that was added, removed or
+ * changed, because its element moved, was
+ * animated or changed its color, makes dirty both
+ * the rectangle it covered on the previous frame
+ * and the one it covers now. Overlapping dirty
+ * rectangles are merged, and when too much of the
+ * screen is dirty, the whole frame is redrawn.
+ * <p>
+ * The fraction of the pixels of the screen that
+ * are redrawn is recorded for the last frame
+ * and for all the frames together.
+ * 
+ * @author Daniel O Sousa
+ */
+public class DirtyRegions {
+
+    /**
+     * The most rectangles kept before
+     * they are merged into one.
+     */
+    public static final int MAX_RECTANGLES = 16;
+
+    /**
+     * The default fraction of the screen
+     * from which the whole frame is
+     * redrawn, which is {@code 0.6}.
+     */
+    public static final double DEFAULT_FULL_REDRAW_FRACTION = 0.6;
+
+    /**
+     * The fraction of the screen from
+     * which the whole frame is redrawn.
+     */
+    private double fullRedrawFraction = DEFAULT_FULL_REDRAW_FRACTION;
+
+    /**
+     * How many commands the previous frame had.
+     */
+    private int previousSize = 0;
+
+    /**
+     * Tells if a previous frame was recorded.
+     */
+    private boolean hasPrevious = false;
+
+    /**
+     * The kind of each command of the
+     * previous frame, in drawing order.
+     */
+    private int[] kinds = new int[64];
+
+    /**
+     * The sprite or color of each command
+     * of the previous frame.
+     */
+    private Object[] resources = new Object[64];
+
+    /**
+     * The x coordinate of each command
+     * of the previous frame.
+     */
+    private int[] xs = new int[64];
+
+    /**
+     * The y coordinate of each command
+     * of the previous frame.
+     */
+    private int[] ys = new int[64];
+
+    /**
+     * The width, or end x coordinate, of
+     * each command of the previous frame.
+     */
+    private int[] widths = new int[64];
+
+    /**
+     * The height, or end y coordinate, of
+     * each command of the previous frame.
+     */
+    private int[] heights = new int[64];
+
+    /**
+     * How many dirty rectangles
+     * the last frame had.
+     */
+    private int count = 0;
+
+    /**
+     * The left, top, right and bottom edges
+     * of each dirty rectangle, the right and
+     * bottom ones exclusive.
+     */
+    private int[] rectangles = new int[4 * (MAX_RECTANGLES + 1)];
+
+    /**
+     * Tells if the whole last frame was redrawn.
+     */
+    private boolean full = true;
+
+    /**
+     * The width of the screen.
+     */
+    private int width;
+
+    /**
+     * The height of the screen.
+     */
+    private int height;
+
+    /**
+     * How many pixels were redrawn
+     * on the last frame.
+     */
+    private long redrawnPixels = 0;
+
+    /**
+     * How many pixels were redrawn
+     * on all the frames.
+     */
+    private long totalRedrawnPixels = 0;
+
+    /**
+     * How many pixels all the frames had.
+     */
+    private long totalPixels = 0;
+
+    /**
+     * Sets the fraction of the screen, from
+     * {@code 0} to {@code 1}, from which the
+     * whole frame is redrawn instead of
+     * its dirty rectangles.
+     * 
+     * @param fullRedrawFraction the fraction to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code fullRedrawFraction} argument isn't
+     * between {@code 0} and {@code 1}
+     */
+    public void setFullRedrawFraction(double fullRedrawFraction) {
+        if(fullRedrawFraction < 0 || fullRedrawFraction > 1) {
+            throw new IllegalArgumentException (
+                "full redraw fraction must be between 0 and 1"
+            );
+        }
+
+        this.fullRedrawFraction = fullRedrawFraction;
+    }
+
+    /**
+     * Returns the fraction of the screen from
+     * which the whole frame is redrawn.
+     * 
+     * @return the full redraw fraction
+     */
+    public double getFullRedrawFraction() {
+        return this.fullRedrawFraction;
+    }
+
+    /**
+     * Finds the dirty rectangles of the frame
+     * described by the passed {@code queue} and
+     * records its commands for the next frame.
+     * The whole frame is dirty if {@code full} is
+     * {@code true}, like when the camera moved,
+     * or if there is no previous frame.
+     * 
+     * @param queue the sorted {@code RenderQueue}
+     * of the frame
+     * @param width the width of the screen
+     * @param height the height of the screen
+     * @param full if the whole frame must
+     * be redrawn
+     */
+    public void update(RenderQueue queue, int width, int height, boolean full) {
+        this.width = width;
+        this.height = height;
+        this.count = 0;
+        this.full = full || !hasPrevious;
+
+        int size = queue.getSize();
+        if(!this.full) {
+            for(int position = 0; position < Math.max(size, previousSize); position++) {
+                if(position >= size) {
+                    addPrevious(position);
+                } else if(position >= previousSize) {
+                    addCurrent(queue, queue.getCommand(position));
+                } else if(!isSame(queue, queue.getCommand(position), position)) {
+                    addPrevious(position);
+                    addCurrent(queue, queue.getCommand(position));
+                }
+                if(this.full) {
+                    break;
+                }
+            }
+        }
+
+        if(!this.full && getArea() >= fullRedrawFraction * width * height) {
+            this.full = true;
+        }
+        if(this.full) {
+            count = 0;
+            add(0, 0, width, height);
+        }
+        redrawnPixels = getArea();
+        totalRedrawnPixels += redrawnPixels;
+        totalPixels += (long) width * height;
+
+        record(queue);
+    }
+
+    /**
+     * Forgets the previous frame, so that
+     * the next one is redrawn whole.
+     */
+    public void invalidate() {
+        Arrays.fill(resources, 0, previousSize, null);
+        previousSize = 0;
+        hasPrevious = false;
+    }
+
+    /**
+     * Returns {@code true} if the command of the
+     * {@code queue} at the passed {@code index} is
+     * the same as the command of the previous
+     * frame at the passed {@code position}.
+     */
+    private boolean isSame(RenderQueue queue, int index, int position) {
+        int kind = queue.getKind(index);
+        Object resource = kind == RenderQueue.SPRITE ?
+            queue.getSprite(index) : queue.getColor(index);
+
+        return kinds[position] == kind &&
+               (resources[position] == resource || resource.equals(resources[position])) &&
+               xs[position] == queue.getX(index) &&
+               ys[position] == queue.getY(index) &&
+               widths[position] == queue.getWidth(index) &&
+               heights[position] == queue.getHeight(index);
+    }
+
+    /**
+     * Makes dirty the rectangle covered by
+     * the command of the previous frame
+     * at the passed {@code position}.
+     */
+    private void addPrevious(int position) {
+        addCommand(kinds[position], xs[position], ys[position], widths[position], heights[position]);
+    }
+
+    /**
+     * Makes dirty the rectangle covered by
+     * the command of the {@code queue} at
+     * the passed {@code index}.
+     */
+    private void addCurrent(RenderQueue queue, int index) {
+        addCommand (
+            queue.getKind(index),
+            queue.getX(index), queue.getY(index),
+            queue.getWidth(index), queue.getHeight(index)
+        );
+    }
+
+    /**
+     * Makes dirty the rectangle covered by a
+     * command, which for the lines is the
+     * rectangle around their ends.
+     */
+    private void addCommand(int kind, int x, int y, int w, int h) {
+        if(kind == RenderQueue.LINE) {
+            add(Math.min(x, w), Math.min(y, h), Math.max(x, w) + 1, Math.max(y, h) + 1);
+        } else {
+            add(x, y, x + w, y + h);
+        }
+    }
+
+    /**
+     * Adds a dirty rectangle clipped to the
+     * screen, merging it with every rectangle
+     * it overlaps. If there are too many
+     * rectangles, the whole frame is dirty.
+     */
+    private void add(int left, int top, int right, int bottom) {
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+        if(left >= right || top >= bottom) {
+            return;
+        }
+
+        boolean merged = true;
+        while(merged) {
+            merged = false;
+            for(int i = 0; i < count; i++) {
+                int offset = 4 * i;
+                if (
+                    left <= rectangles[offset + 2] && rectangles[offset] <= right &&
+                    top <= rectangles[offset + 3] && rectangles[offset + 1] <= bottom
+                ) {
+                    left = Math.min(left, rectangles[offset]);
+                    top = Math.min(top, rectangles[offset + 1]);
+                    right = Math.max(right, rectangles[offset + 2]);
+                    bottom = Math.max(bottom, rectangles[offset + 3]);
+                    remove(i);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+
+        if(count == MAX_RECTANGLES) {
+            full = true;
+            return;
+        }
+        int offset = 4 * count;
+        rectangles[offset] = left;
+        rectangles[offset + 1] = top;
+        rectangles[offset + 2] = right;
+        rectangles[offset + 3] = bottom;
+        count++;
+    }
+
+    /**
+     * Removes the dirty rectangle at the
+     * passed {@code index}, moving the last
+     * one to its place.
+     */
+    private void remove(int index) {
+        count--;
+        System.arraycopy(rectangles, 4 * count, rectangles, 4 * index, 4);
+    }
+
+    /**
+     * Returns how many pixels the dirty
+     * rectangles cover, which never
+     * overlap each other.
+     */
+    private long getArea() {
+        long area = 0;
+        for(int i = 0; i < count; i++) {
+            int offset = 4 * i;
+            area += (long) (rectangles[offset + 2] - rectangles[offset]) *
+                    (rectangles[offset + 3] - rectangles[offset + 1]);
+        }
+
+        return area;
+    }
+
+    /**
+     * Copies the commands of the {@code queue},
+     * in drawing order, as the previous frame.
+     */
+    private void record(RenderQueue queue) {
+        int size = queue.getSize();
+        if(kinds.length < size) {
+            int capacity = Math.max(size, kinds.length * 2);
+            kinds = new int[capacity];
+            resources = new Object[capacity];
+            xs = new int[capacity];
+            ys = new int[capacity];
+            widths = new int[capacity];
+            heights = new int[capacity];
+        }
+
+        for(int position = 0; position < size; position++) {
+            int index = queue.getCommand(position);
+            int kind = queue.getKind(index);
+            kinds[position] = kind;
+            resources[position] = kind == RenderQueue.SPRITE ?
+                queue.getSprite(index) : queue.getColor(index);
+            xs[position] = queue.getX(index);
+            ys[position] = queue.getY(index);
+            widths[position] = queue.getWidth(index);
+            heights[position] = queue.getHeight(index);
+        }
+        if(size < previousSize) {
+            Arrays.fill(resources, size, previousSize, null);
+        }
+        previousSize = size;
+        hasPrevious = true;
+    }
+
+    /**
+     * Returns how many dirty rectangles
+     * the last frame had.
+     * 
+     * @return the amount of dirty rectangles
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the x coordinate of the dirty
+     * rectangle at the passed {@code index}.
+     * 
+     * @param index the index of the rectangle
+     * 
+     * @return the x coordinate of the rectangle
+     */
+    public int getX(int index) {
+        return rectangles[4 * index];
+    }
+
+    /**
+     * Returns the y coordinate of the dirty
+     * rectangle at the passed {@code index}.
+     * 
+     * @param index the index of the rectangle
+     * 
+     * @return the y coordinate of the rectangle
+     */
+    public int getY(int index) {
+        return rectangles[4 * index + 1];
+    }
+
+    /**
+     * Returns the width of the dirty rectangle
+     * at the passed {@code index}.
+     * 
+     * @param index the index of the rectangle
+     * 
+     * @return the width of the rectangle
+     */
+    public int getWidth(int index) {
+        return rectangles[4 * index + 2] - rectangles[4 * index];
+    }
+
+    /**
+     * Returns the height of the dirty rectangle
+     * at the passed {@code index}.
+     * 
+     * @param index the index of the rectangle
+     * 
+     * @return the height of the rectangle
+     */
+    public int getHeight(int index) {
+        return rectangles[4 * index + 3] - rectangles[4 * index + 1];
+    }
+
+    /**
+     * Returns {@code true} if the whole last
+     * frame was redrawn and {@code false}
+     * otherwise.
+     * 
+     * @return boolean telling if the
+     * last frame was redrawn whole
+     */
+    public boolean isFull() {
+        return this.full;
+    }
+
+    /**
+     * Returns the fraction of the pixels of
+     * the screen redrawn on the last frame.
+     * 
+     * @return the redrawn fraction
+     */
+    public double getRedrawnFraction() {
+        long pixels = (long) width * height;
+        return pixels == 0 ? 0 : (double) redrawnPixels / pixels;
+    }
+
+    /**
+     * Returns the fraction of the pixels of
+     * the screen redrawn over all the frames.
+     * 
+     * @return the average redrawn fraction
+     */
+    public double getAverageRedrawnFraction() {
+        return totalPixels == 0 ? 0 : (double) totalRedrawnPixels / totalPixels;
+    }
+
+    /**
+     * Clears the recorded redrawn pixels
+     * of all the frames.
+     */
+    public void resetStatistics() {
+        totalRedrawnPixels = 0;
+        totalPixels = 0;
+    }
+
+}
\ No newline at end of file
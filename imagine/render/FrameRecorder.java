@@ -0,0 +1,569 @@
+package imagine.render;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * {@code FrameRecorder} is a class used for
+ * recording the frames of a game as a sequence
+ * of PNG images, without slowing down the
+ * thread that draws them.
+ * <p>
+ * Each captured frame is drawn or copied into
+ * a buffer taken from a small pool and handed
+ * to the writers, threads of their own that
+ * encode it and give the buffer back. The pool bounds how
+ * many frames may wait to be written: when every
+ * buffer is taken, the frame is dropped and
+ * counted instead of making the drawing wait.
+ * <p>
+ * The images are named after the order in which
+ * the frames were captured, such as
+ * {@code frame000042.png}, so the written
+ * sequence has no gaps even if frames are
+ * dropped.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see imagine.game.Game#startRecording(File)
+ */
+public class FrameRecorder {
+
+    /**
+     * Frame given to the writers to make
+     * them stop once they reach it.
+     */
+    private static final Frame END = new Frame(null, -1);
+
+    /**
+     * The directory where the
+     * images are written.
+     */
+    private File directory;
+
+    /**
+     * How many buffers the pool may have.
+     */
+    private int bufferCount;
+
+    /**
+     * How many buffers were created.
+     * Only used by the capturing thread.
+     */
+    private int createdBuffers = 0;
+
+    /**
+     * The buffers free to
+     * receive a frame.
+     */
+    private ArrayBlockingQueue<BufferedImage> freeBuffers;
+
+    /**
+     * The frames waiting to be written.
+     */
+    private ArrayBlockingQueue<Frame> pendingFrames;
+
+    /**
+     * The threads that write the frames.
+     */
+    private Thread[] writers;
+
+    /**
+     * Every how many offered
+     * frames one is captured.
+     */
+    private volatile int captureInterval = 1;
+
+    /**
+     * How many frames were offered.
+     * Only used by the capturing thread.
+     */
+    private long offeredFrames = 0;
+
+    /**
+     * How many frames were captured.
+     */
+    private AtomicLong capturedFrames = new AtomicLong();
+
+    /**
+     * How many frames were written.
+     */
+    private AtomicLong writtenFrames = new AtomicLong();
+
+    /**
+     * How many frames were dropped because every
+     * buffer was taken or because this recorder
+     * was closed while they were being captured.
+     */
+    private AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * How many frames failed to be written.
+     */
+    private AtomicLong failedFrames = new AtomicLong();
+
+    /**
+     * The last error that happened
+     * while writing a frame.
+     */
+    private volatile Exception lastError;
+
+    /**
+     * Tells if this {@code FrameRecorder}
+     * was closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new {@code FrameRecorder} writing
+     * into the passed {@code directory}, with one
+     * writer for every two available processors
+     * and two buffers for each writer.
+     * 
+     * @param directory the directory where the
+     * images are written
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code directory} argument is {@code null}
+     * or the directory cannot be created
+     */
+    public FrameRecorder(File directory) {
+        this (
+            directory,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            2 * Math.max(1, Runtime.getRuntime().availableProcessors() / 2)
+        );
+    }
+
+    /**
+     * Creates a new {@code FrameRecorder} writing
+     * into the passed {@code directory} with the
+     * specified amounts of writers and buffers.
+     * 
+     * @param directory the directory where the
+     * images are written
+     * @param writerCount how many threads
+     * should write the frames
+     * @param bufferCount how many frames may
+     * wait to be written at once
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code directory} argument is {@code null}
+     * or the directory cannot be created, or if
+     * the {@code writerCount} or the
+     * {@code bufferCount} argument is not positive
+     */
+    public FrameRecorder(File directory, int writerCount, int bufferCount) {
+        if(directory == null) {
+            throw new IllegalArgumentException (
+                "cannot record into null directory"
+            );
+        }
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException (
+                "cannot create directory " + directory
+            );
+        }
+        if(writerCount <= 0) {
+            throw new IllegalArgumentException (
+                "writer count must be positive"
+            );
+        }
+        if(bufferCount <= 0) {
+            throw new IllegalArgumentException (
+                "buffer count must be positive"
+            );
+        }
+
+        this.directory = directory;
+        this.bufferCount = bufferCount;
+        this.freeBuffers = new ArrayBlockingQueue<BufferedImage>(bufferCount);
+        this.pendingFrames = new ArrayBlockingQueue<Frame>(bufferCount + writerCount);
+        createWriters(writerCount);
+    }
+
+    /**
+     * Creates and starts the
+     * writers of this recorder.
+     * 
+     * @param writerCount how many
+     * writers should be created
+     */
+    private void createWriters(int writerCount) {
+        this.writers = new Thread[writerCount];
+        for(int i = 0; i < writerCount; i++) {
+            writers[i] = new Thread(this::runWriter, "FrameRecorder-" + i);
+            writers[i].setDaemon(true);
+            writers[i].setPriority(Thread.MIN_PRIORITY);
+            writers[i].start();
+        }
+    }
+
+    /**
+     * Returns the directory where
+     * the images are written.
+     * 
+     * @return the directory of
+     * this {@code FrameRecorder}
+     */
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Sets every how many offered frames one
+     * is captured. With an interval of {@code 2},
+     * a game drawn at 60 fps is recorded at 30.
+     * 
+     * @param captureInterval the capture
+     * interval to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code captureInterval} argument
+     * is not positive
+     */
+    public void setCaptureInterval(int captureInterval) {
+        if(captureInterval <= 0) {
+            throw new IllegalArgumentException (
+                "capture interval must be positive"
+            );
+        }
+
+        this.captureInterval = captureInterval;
+    }
+
+    /**
+     * Returns every how many offered
+     * frames one is captured.
+     * 
+     * @return the capture interval
+     */
+    public int getCaptureInterval() {
+        return this.captureInterval;
+    }
+
+    /**
+     * Offers the passed {@code frame} to be
+     * recorded. If it is time to capture a
+     * frame, it is copied into a free buffer
+     * and handed to the writers, or dropped if
+     * every buffer is taken. Never waits for
+     * the writers. Must only be called by one
+     * thread at a time, usually the one that
+     * draws the game.
+     * 
+     * @param frame the frame to be recorded
+     * 
+     * @return {@code true} if the frame
+     * was captured
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code frame} argument is {@code null}
+     */
+    public boolean capture(BufferedImage frame) {
+        if(frame == null) {
+            throw new IllegalArgumentException (
+                "cannot capture null frame"
+            );
+        }
+
+        BufferedImage buffer = beginCapture(frame.getWidth(), frame.getHeight());
+        if(buffer == null) {
+            return false;
+        }
+
+        Graphics2D g2 = buffer.createGraphics();
+        g2.setComposite(AlphaComposite.Src);
+        g2.drawImage(frame, 0, 0, null);
+        g2.dispose();
+
+        endCapture(buffer);
+        return true;
+    }
+
+    /**
+     * Offers a frame of the passed size to be
+     * recorded. If it is time to capture a frame,
+     * a free buffer is returned for the frame to
+     * be drawn straight into it, after which it
+     * must be passed to {@code endCapture}.
+     * {@code null} is returned if it isn't time to
+     * capture a frame or if the frame is dropped
+     * because every buffer is taken. Never waits
+     * for the writers. Must only be called by one
+     * thread at a time, usually the one that
+     * draws the game.
+     * 
+     * @param width the width of the frame
+     * @param height the height of the frame
+     * 
+     * @return the buffer to draw the
+     * frame into or {@code null}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code width} or the {@code height}
+     * argument is not positive
+     */
+    public BufferedImage beginCapture(int width, int height) {
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException (
+                "frame size must be positive"
+            );
+        }
+        if(closed || offeredFrames++ % captureInterval != 0) {
+            return null;
+        }
+
+        BufferedImage buffer = takeBuffer(width, height);
+        if(buffer == null) {
+            droppedFrames.incrementAndGet();
+        }
+        return buffer;
+    }
+
+    /**
+     * Hands the passed {@code buffer}, returned by
+     * {@code beginCapture} and holding a frame,
+     * to the writers. If this recorder was closed
+     * since the capture began, the frame is not
+     * written, but counted as dropped, and the
+     * buffer goes back to the pool.
+     * 
+     * @param buffer the buffer holding the frame
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code buffer} argument is {@code null}
+     */
+    public void endCapture(BufferedImage buffer) {
+        if(buffer == null) {
+            throw new IllegalArgumentException (
+                "cannot end capture of null buffer"
+            );
+        }
+
+        // checked under the lock of close, so that no
+        // frame is handed to the writers after their end
+        synchronized(this) {
+            if(closed) {
+                freeBuffers.offer(buffer);
+                droppedFrames.incrementAndGet();
+                return;
+            }
+
+            pendingFrames.add(new Frame(buffer, capturedFrames.getAndIncrement()));
+        }
+    }
+
+    /**
+     * Takes a free buffer of the passed size
+     * from the pool, creating it if the pool
+     * isn't full yet or if the free buffer has
+     * another size. {@code null} is returned
+     * if every buffer is taken.
+     * 
+     * @param width the width of the frame
+     * @param height the height of the frame
+     * 
+     * @return a free buffer or {@code null}
+     */
+    private BufferedImage takeBuffer(int width, int height) {
+        BufferedImage buffer = freeBuffers.poll();
+        if(buffer == null) {
+            if(createdBuffers == bufferCount) {
+                return null;
+            }
+            createdBuffers++;
+        }
+
+        if (
+            buffer == null ||
+            buffer.getWidth() != width ||
+            buffer.getHeight() != height
+        ) {
+            buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        return buffer;
+    }
+
+    /**
+     * Method executed by each writer. Writes
+     * the pending frames as they come and
+     * gives their buffers back to the pool,
+     * until it reaches the end. A frame that
+     * fails to be written is counted and the
+     * writer goes on with the next one.
+     */
+    private void runWriter() {
+        while(true) {
+            Frame frame;
+            try {
+                frame = pendingFrames.take();
+            } catch(InterruptedException e) {
+                return;
+            }
+            if(frame == END) {
+                return;
+            }
+
+            File file = new File (
+                directory,
+                String.format("frame%06d.png", frame.index)
+            );
+            try {
+                ImageIO.write(frame.image, "png", file);
+                writtenFrames.incrementAndGet();
+            } catch(IOException | RuntimeException e) {
+                lastError = e;
+                failedFrames.incrementAndGet();
+            } finally {
+                freeBuffers.offer(frame.image);
+            }
+        }
+    }
+
+    /**
+     * Stops capturing frames and blocks until
+     * every captured frame is encoded and
+     * written, after which the writers end,
+     * which may take a while if many frames are
+     * pending. A frame whose capture began but
+     * didn't end yet is not written. Does nothing
+     * if it was already closed.
+     */
+    public void close() {
+        synchronized(this) {
+            if(closed) {
+                return;
+            }
+
+            closed = true;
+            for(int i = 0; i < writers.length; i++) {
+                pendingFrames.add(END);
+            }
+        }
+
+        for(Thread writer : writers) {
+            try {
+                writer.join();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tells if this {@code FrameRecorder}
+     * was closed.
+     * 
+     * @return {@code true} if it was closed
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Returns how many frames were captured
+     * and handed to the writers.
+     * 
+     * @return the amount of captured frames
+     */
+    public long getCapturedFrames() {
+        return capturedFrames.get();
+    }
+
+    /**
+     * Returns how many frames were written.
+     * 
+     * @return the amount of written frames
+     */
+    public long getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    /**
+     * Returns how many frames were dropped
+     * because the writers were behind and
+     * every buffer was taken, or because this
+     * recorder was closed while they were
+     * being captured.
+     * 
+     * @return the amount of dropped frames
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Returns how many frames
+     * failed to be written.
+     * 
+     * @return the amount of failed frames
+     * 
+     * @see #getLastError()
+     */
+    public long getFailedFrames() {
+        return failedFrames.get();
+    }
+
+    /**
+     * Returns how many captured frames
+     * are waiting to be written or
+     * being written.
+     * 
+     * @return the amount of pending frames
+     */
+    public long getPendingFrames() {
+        return capturedFrames.get() - writtenFrames.get() - failedFrames.get();
+    }
+
+    /**
+     * Returns the last error that happened
+     * while writing a frame. {@code null} is
+     * returned if no frame failed.
+     * 
+     * @return the last error
+     */
+    public Exception getLastError() {
+        return this.lastError;
+    }
+
+    /**
+     * A captured frame waiting to be written.
+     */
+    private static class Frame {
+
+        /**
+         * The buffer holding the frame.
+         */
+        private final BufferedImage image;
+
+        /**
+         * The order in which
+         * the frame was captured.
+         */
+        private final long index;
+
+        /**
+         * Creates a new {@code Frame}.
+         * 
+         * @param image the buffer
+         * holding the frame
+         * @param index the order in which
+         * the frame was captured
+         */
+        private Frame(BufferedImage image, long index) {
+            this.image = image;
+            this.index = index;
+        }
+
+    }
+
+}
\ No newline at end of file
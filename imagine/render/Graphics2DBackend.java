@@ -0,0 +1,108 @@
+package imagine.render;
+
+import java.awt.Graphics2D;
+
+import imagine.sprite.ScaledSpriteCache;
+
+/**
+ * Backend that executes the commands of a
+ * {@code RenderQueue} with {@code Graphics2D},
+ * the same way the stage draws itself.
+ * <p>
+ * Sprites drawn at a size different from their
+ * own are taken from a {@code ScaledSpriteCache},
+ * if the backend has one.
+ * 
+ * @author Daniel O Sousa
+ */
+public class Graphics2DBackend implements RenderBackend {
+
+    /**
+     * The cache from which scaled
+     * sprites are taken, if any.
+     */
+    private ScaledSpriteCache scaledSpriteCache;
+
+    /**
+     * Creates a new {@code Graphics2DBackend}
+     * that scales the sprites on every drawing.
+     */
+    public Graphics2DBackend() {
+        this(null);
+    }
+
+    /**
+     * Creates a new {@code Graphics2DBackend}
+     * that takes the scaled sprites from the
+     * passed {@code scaledSpriteCache}.
+     * 
+     * @param scaledSpriteCache the cache of the
+     * scaled sprites, or {@code null} to scale
+     * them on every drawing
+     */
+    public Graphics2DBackend(ScaledSpriteCache scaledSpriteCache) {
+        this.scaledSpriteCache = scaledSpriteCache;
+    }
+
+    /**
+     * Draws every command of the {@code queue},
+     * in its drawing order, with {@code g2}.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be executed
+     * @param g2 the {@code Graphics2D} of
+     * the area to draw on
+     * @param width the width of the area
+     * @param height the height of the area
+     */
+    @Override
+    public void render(RenderQueue queue, Graphics2D g2, int width, int height) {
+        for(int position = 0; position < queue.getSize(); position++) {
+            int i = queue.getCommand(position);
+
+            switch(queue.getKind(i)) {
+                case RenderQueue.SPRITE:
+                    if(scaledSpriteCache != null) {
+                        scaledSpriteCache.draw (
+                            g2, queue.getSprite(i),
+                            queue.getX(i), queue.getY(i),
+                            queue.getWidth(i), queue.getHeight(i)
+                        );
+                    } else {
+                        Blit.drawSprite (
+                            g2, queue.getSprite(i),
+                            queue.getX(i), queue.getY(i),
+                            queue.getWidth(i), queue.getHeight(i)
+                        );
+                    }
+                    break;
+                case RenderQueue.RECT:
+                    g2.setColor(queue.getColor(i));
+                    g2.fillRect (
+                        queue.getX(i), queue.getY(i),
+                        queue.getWidth(i), queue.getHeight(i)
+                    );
+                    break;
+                case RenderQueue.LINE:
+                    g2.setColor(queue.getColor(i));
+                    g2.drawLine (
+                        queue.getX(i), queue.getY(i),
+                        queue.getWidth(i), queue.getHeight(i)
+                    );
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the name of this backend,
+     * which is {@code "Graphics2D"}.
+     * 
+     * @return the name of this backend
+     */
+    @Override
+    public String getName() {
+        return "Graphics2D";
+    }
+
+}
\ No newline at end of file
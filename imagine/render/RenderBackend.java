@@ -0,0 +1,50 @@
+package imagine.render;
+
+import java.awt.Graphics2D;
+
+/**
+ * Interface for the backends that execute the
+ * commands of a {@code RenderQueue}, drawing
+ * one frame.
+ * <p>
+ * A {@code Game} draws its stages straight
+ * with {@code Graphics2D} until a backend is
+ * set, after which every frame is described in
+ * a {@code RenderQueue} and executed by it.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see imagine.game.Game#setRenderBackend(RenderBackend)
+ */
+public interface RenderBackend {
+
+    /**
+     * Method for executing the commands of the
+     * {@code queue}, in its drawing order, onto
+     * an area of {@code width} by {@code height}
+     * whose top left corner is the origin of
+     * {@code g2}.
+     * <p>
+     * Only the part of the area inside the clip of
+     * {@code g2} must be drawn, and what is out of
+     * it must be left untouched, so that a frame
+     * can be redrawn one rectangle at a time.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be executed
+     * @param g2 the {@code Graphics2D} of
+     * the area to draw on
+     * @param width the width of the area
+     * @param height the height of the area
+     */
+    void render(RenderQueue queue, Graphics2D g2, int width, int height);
+
+    /**
+     * Method for getting the
+     * name of the backend.
+     * 
+     * @return the name of the backend
+     */
+    String getName();
+
+}
\ No newline at end of file
@@ -0,0 +1,528 @@
+package imagine.render;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import imagine.sprite.Sprite;
+
+/**
+ * Class that holds the draw commands of one
+ * frame, so that drawing is described first and
+ * executed later, in one place, by a
+ * {@code RenderBackend}.
+ * <p>
+ * There are three kinds of commands: sprites,
+ * filled rectangles and lines, all on screen
+ * coordinates. Every command is added with the
+ * current layer and z of the queue. Sorting the
+ * queue orders the commands by layer, then by z,
+ * keeping the order in which they were added
+ * among equal ones, so a queue that is never
+ * given a z is drawn in the same order as
+ * the stage draws itself.
+ * <p>
+ * The commands are kept in arrays of primitives
+ * that are reused frame after frame, so filling
+ * a queue doesn't allocate once its arrays are
+ * big enough.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see RenderBackend
+ */
+public class RenderQueue {
+
+    /**
+     * Kind of the commands that draw a sprite.
+     */
+    public static final int SPRITE = 0;
+
+    /**
+     * Kind of the commands that fill a rectangle.
+     */
+    public static final int RECT = 1;
+
+    /**
+     * Kind of the commands that draw a line.
+     */
+    public static final int LINE = 2;
+
+    /**
+     * Layer of the backgrounds of a stage.
+     */
+    public static final int BACKGROUND_LAYER = 0;
+
+    /**
+     * Layer of the objects of a stage.
+     */
+    public static final int OBJECT_LAYER = 1;
+
+    /**
+     * Layer of the foregrounds of a stage.
+     */
+    public static final int FOREGROUND_LAYER = 2;
+
+    /**
+     * Layer of the debug overlays of
+     * a stage, like the camera grid.
+     */
+    public static final int OVERLAY_LAYER = 3;
+
+    /**
+     * The greatest layer a command can have.
+     */
+    public static final int MAX_LAYER = 127;
+
+    /**
+     * The greatest amount of commands a queue
+     * can hold, limited by how the commands
+     * are sorted.
+     */
+    public static final int MAX_SIZE = 1 << 24;
+
+    /**
+     * How many commands this queue has.
+     */
+    private int size = 0;
+
+    /**
+     * The layer given to the added commands.
+     */
+    private int layer = 0;
+
+    /**
+     * The z given to the added commands.
+     */
+    private int z = 0;
+
+    /**
+     * Tells if the commands were sorted
+     * since the last one was added.
+     */
+    private boolean sorted = true;
+
+    /**
+     * The kind of each command.
+     */
+    private int[] kinds = new int[64];
+
+    /**
+     * The sprite or color of each command.
+     */
+    private Object[] resources = new Object[64];
+
+    /**
+     * The layer of each command.
+     */
+    private int[] layers = new int[64];
+
+    /**
+     * The z of each command.
+     */
+    private int[] zs = new int[64];
+
+    /**
+     * The x coordinate of each command.
+     */
+    private int[] xs = new int[64];
+
+    /**
+     * The y coordinate of each command.
+     */
+    private int[] ys = new int[64];
+
+    /**
+     * The width of each command, or the x
+     * coordinate of the end of the lines.
+     */
+    private int[] widths = new int[64];
+
+    /**
+     * The height of each command, or the y
+     * coordinate of the end of the lines.
+     */
+    private int[] heights = new int[64];
+
+    /**
+     * The keys by which the commands are
+     * sorted: the layer, the z and the
+     * position in which they were added.
+     */
+    private long[] keys = new long[64];
+
+    /**
+     * The position of the commands
+     * in the sorted order.
+     */
+    private int[] order = new int[64];
+
+    /**
+     * Removes every command of this queue
+     * and resets its layer and z to {@code 0}.
+     */
+    public void clear() {
+        Arrays.fill(resources, 0, size, null);
+        this.size = 0;
+        this.layer = 0;
+        this.z = 0;
+        this.sorted = true;
+    }
+
+    /**
+     * Sets the layer given to the commands
+     * added from now on.
+     * 
+     * @param layer the layer to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code layer} argument is negative or
+     * greater than {@code MAX_LAYER}
+     */
+    public void setLayer(int layer) {
+        if(layer < 0 || layer > MAX_LAYER) {
+            throw new IllegalArgumentException (
+                "layer must be between 0 and " + MAX_LAYER
+            );
+        }
+
+        this.layer = layer;
+    }
+
+    /**
+     * Returns the layer given to the
+     * commands added from now on.
+     * 
+     * @return the current layer
+     */
+    public int getLayer() {
+        return this.layer;
+    }
+
+    /**
+     * Sets the z given to the commands added
+     * from now on. Inside a layer, commands with
+     * a greater z are drawn over the others.
+     * 
+     * @param z the z to be set
+     */
+    public void setZ(int z) {
+        this.z = z;
+    }
+
+    /**
+     * Returns the z given to the
+     * commands added from now on.
+     * 
+     * @return the current z
+     */
+    public int getZ() {
+        return this.z;
+    }
+
+    /**
+     * Adds a command that draws the
+     * {@code sprite} with its top left corner
+     * at {@code x} and {@code y}, at the size
+     * of {@code width} by {@code height}.
+     * 
+     * @param sprite the sprite to be drawn
+     * @param x the x coordinate of the drawing
+     * @param y the y coordinate of the drawing
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code sprite} argument is {@code null}
+     */
+    public void addSprite(Sprite sprite, int x, int y, int width, int height) {
+        if(sprite == null) {
+            throw new IllegalArgumentException (
+                "cannot add null sprite"
+            );
+        }
+
+        add(SPRITE, sprite, x, y, width, height);
+    }
+
+    /**
+     * Adds a command that fills a rectangle
+     * with the passed {@code color}.
+     * 
+     * @param color the color of the rectangle
+     * @param x the x coordinate of the rectangle
+     * @param y the y coordinate of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code color} argument is {@code null}
+     */
+    public void addRect(Color color, int x, int y, int width, int height) {
+        if(color == null) {
+            throw new IllegalArgumentException (
+                "cannot add rect with null color"
+            );
+        }
+
+        add(RECT, color, x, y, width, height);
+    }
+
+    /**
+     * Adds a command that draws a line
+     * with the passed {@code color}.
+     * 
+     * @param color the color of the line
+     * @param x1 the x coordinate of the start
+     * @param y1 the y coordinate of the start
+     * @param x2 the x coordinate of the end
+     * @param y2 the y coordinate of the end
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code color} argument is {@code null}
+     */
+    public void addLine(Color color, int x1, int y1, int x2, int y2) {
+        if(color == null) {
+            throw new IllegalArgumentException (
+                "cannot add line with null color"
+            );
+        }
+
+        add(LINE, color, x1, y1, x2, y2);
+    }
+
+    /**
+     * Adds a command to this queue with the
+     * current layer and z, growing its
+     * arrays if needed.
+     */
+    private void add (
+        int kind, Object resource,
+        int x, int y,
+        int width, int height
+    ) {
+        if(size == MAX_SIZE) {
+            throw new IllegalStateException (
+                "render queue cannot hold more than " + MAX_SIZE + " commands"
+            );
+        }
+        if(size == kinds.length) {
+            grow();
+        }
+
+        kinds[size] = kind;
+        resources[size] = resource;
+        layers[size] = layer;
+        zs[size] = z;
+        xs[size] = x;
+        ys[size] = y;
+        widths[size] = width;
+        heights[size] = height;
+        size++;
+        sorted = false;
+    }
+
+    /**
+     * Doubles the capacity of the
+     * arrays of this queue.
+     */
+    private void grow() {
+        int capacity = kinds.length * 2;
+
+        kinds = Arrays.copyOf(kinds, capacity);
+        resources = Arrays.copyOf(resources, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    /**
+     * Sorts the commands of this queue by layer,
+     * then by z, keeping the order in which they
+     * were added among equal ones. Does nothing
+     * if the queue is already sorted.
+     */
+    public void sort() {
+        if(sorted) {
+            return;
+        }
+
+        for(int i = 0; i < size; i++) {
+            keys[i] =
+                (long) layers[i] << 56 |
+                ((zs[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL) << 24 |
+                i;
+        }
+        Arrays.sort(keys, 0, size);
+        for(int i = 0; i < size; i++) {
+            order[i] = (int) (keys[i] & (MAX_SIZE - 1));
+        }
+        sorted = true;
+    }
+
+    /**
+     * Returns {@code true} if the commands
+     * of this queue are sorted and
+     * {@code false} otherwise.
+     * 
+     * @return boolean telling if
+     * this queue is sorted
+     */
+    public boolean isSorted() {
+        return this.sorted;
+    }
+
+    /**
+     * Returns how many commands this queue has.
+     * 
+     * @return the amount of commands
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the index of the command that is
+     * drawn at the passed {@code position}: in the
+     * sorted order if this queue is sorted, and
+     * in the order of addition otherwise. The
+     * index is the one taken by the getters of
+     * the commands.
+     * 
+     * @param position the position in
+     * the drawing order
+     * 
+     * @return the index of the command
+     * 
+     * @throws IndexOutOfBoundsException if the
+     * {@code position} argument is out of the
+     * bounds of this queue
+     */
+    public int getCommand(int position) {
+        if(position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException (
+                "position " + position + " out of bounds for size " + size
+            );
+        }
+
+        return sorted ? order[position] : position;
+    }
+
+    /**
+     * Returns the kind of the command at the
+     * passed {@code index}: {@code SPRITE},
+     * {@code RECT} or {@code LINE}.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the kind of the command
+     */
+    public int getKind(int index) {
+        return kinds[index];
+    }
+
+    /**
+     * Returns the sprite of the sprite
+     * command at the passed {@code index}.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the sprite of the command
+     */
+    public Sprite getSprite(int index) {
+        return (Sprite) resources[index];
+    }
+
+    /**
+     * Returns the color of the rectangle or
+     * line command at the passed {@code index}.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the color of the command
+     */
+    public Color getColor(int index) {
+        return (Color) resources[index];
+    }
+
+    /**
+     * Returns the layer of the command
+     * at the passed {@code index}.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the layer of the command
+     */
+    public int getLayer(int index) {
+        return layers[index];
+    }
+
+    /**
+     * Returns the z of the command
+     * at the passed {@code index}.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the z of the command
+     */
+    public int getZ(int index) {
+        return zs[index];
+    }
+
+    /**
+     * Returns the x coordinate of the command
+     * at the passed {@code index}, which is
+     * the start of the lines.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the x coordinate of the command
+     */
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Returns the y coordinate of the command
+     * at the passed {@code index}, which is
+     * the start of the lines.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the y coordinate of the command
+     */
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Returns the width of the command
+     * at the passed {@code index}, or the x
+     * coordinate of the end of the lines.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the width of the command
+     */
+    public int getWidth(int index) {
+        return widths[index];
+    }
+
+    /**
+     * Returns the height of the command
+     * at the passed {@code index}, or the y
+     * coordinate of the end of the lines.
+     * 
+     * @param index the index of the command
+     * 
+     * @return the height of the command
+     */
+    public int getHeight(int index) {
+        return heights[index];
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,461 @@
+package imagine.render;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+import imagine.scenario.Scenario;
+import imagine.sprite.Sprite;
+
+/**
+ * Class that holds everything needed for
+ * drawing one frame of a {@code Stage}:
+ * the sprites, bounding boxes and scenarios
+ * with their apparent positions before and
+ * after the last update, plus the camera
+ * grid lines.
+ * <p>
+ * A snapshot is filled by the simulation
+ * thread and, once published, is only read
+ * by the render thread, which never touches
+ * the live {@code Stage}. The same instances
+ * are reused frame after frame, so filling
+ * a snapshot doesn't allocate once its
+ * arrays are big enough.
+ * 
+ * @author Daniel O Sousa
+ */
+public class RenderSnapshot {
+
+    /**
+     * Kind of the entries that draw a sprite.
+     */
+    private static final int SPRITE = 0;
+
+    /**
+     * Kind of the entries that fill a rectangle.
+     */
+    private static final int RECT = 1;
+
+    /**
+     * Kind of the entries that draw a line.
+     */
+    private static final int LINE = 2;
+
+    /**
+     * Kind of the entries that draw a scenario.
+     */
+    private static final int SCENARIO = 3;
+
+    /**
+     * Flag of the scenarios that repeat
+     * themselves on the x axis.
+     */
+    private static final int REPEAT_X = 1;
+
+    /**
+     * Flag of the scenarios that repeat
+     * themselves on the y axis.
+     */
+    private static final int REPEAT_Y = 2;
+
+    /**
+     * The width of the area where
+     * this snapshot is drawn.
+     */
+    private int width;
+
+    /**
+     * The height of the area where
+     * this snapshot is drawn.
+     */
+    private int height;
+
+    /**
+     * The time in nanoseconds at which
+     * this snapshot was taken.
+     */
+    private long tickTime;
+
+    /**
+     * The interval in nanoseconds between
+     * updates, used for interpolating the
+     * positions. When {@code 0}, positions
+     * are not interpolated.
+     */
+    private double tickInterval;
+
+    /**
+     * How many entries this snapshot has.
+     */
+    private int size = 0;
+
+    /**
+     * The kind of each entry.
+     */
+    private int[] kinds = new int[64];
+
+    /**
+     * The sprite or color of each entry.
+     */
+    private Object[] resources = new Object[64];
+
+    /**
+     * The apparent x coordinate of each
+     * entry before the last update.
+     */
+    private int[] previousXs = new int[64];
+
+    /**
+     * The apparent y coordinate of each
+     * entry before the last update.
+     */
+    private int[] previousYs = new int[64];
+
+    /**
+     * The apparent x coordinate of each entry.
+     */
+    private int[] xs = new int[64];
+
+    /**
+     * The apparent y coordinate of each entry.
+     */
+    private int[] ys = new int[64];
+
+    /**
+     * The width of each entry, or the x
+     * coordinate of the end of the lines.
+     */
+    private int[] widths = new int[64];
+
+    /**
+     * The height of each entry, or the y
+     * coordinate of the end of the lines.
+     */
+    private int[] heights = new int[64];
+
+    /**
+     * The repeat flags of each entry.
+     */
+    private int[] flags = new int[64];
+
+    /**
+     * Removes every entry of this snapshot
+     * and prepares it to hold a new frame.
+     * 
+     * @param width the width of the area
+     * where the frame is drawn
+     * @param height the height of the area
+     * where the frame is drawn
+     * @param tickTime the time in nanoseconds
+     * at which the frame is taken
+     * @param tickInterval the interval in
+     * nanoseconds between updates, or {@code 0}
+     * if positions shouldn't be interpolated
+     */
+    public void clear(int width, int height, long tickTime, double tickInterval) {
+        Arrays.fill(resources, 0, size, null);
+        this.size = 0;
+        this.width = width;
+        this.height = height;
+        this.tickTime = tickTime;
+        this.tickInterval = tickInterval;
+    }
+
+    /**
+     * Returns the width of the area
+     * where this snapshot is drawn.
+     * 
+     * @return the width of the snapshot
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the area
+     * where this snapshot is drawn.
+     * 
+     * @return the height of the snapshot
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns how many entries
+     * this snapshot has.
+     * 
+     * @return the amount of entries
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the time in nanoseconds at
+     * which this snapshot was taken.
+     * 
+     * @return the time of the snapshot
+     */
+    public long getTickTime() {
+        return this.tickTime;
+    }
+
+    /**
+     * Returns {@code true} if the positions
+     * of this snapshot are interpolated when
+     * drawn and {@code false} otherwise.
+     * 
+     * @return boolean describing if this
+     * snapshot is interpolated
+     */
+    public boolean isInterpolated() {
+        return tickInterval > 0;
+    }
+
+    /**
+     * Returns how far, between {@code 0} and
+     * {@code 1}, the passed time {@code now}
+     * is from the time of this snapshot to the
+     * time of the next one. If this snapshot
+     * isn't interpolated, {@code 1} is returned.
+     * 
+     * @param now the time in nanoseconds
+     * 
+     * @return the interpolation at {@code now}
+     */
+    public double getInterpolation(long now) {
+        if(!isInterpolated()) {
+            return 1;
+        }
+
+        return Math.max(0, Math.min(1, (now - tickTime) / tickInterval));
+    }
+
+    /**
+     * Adds a sprite to this snapshot.
+     * 
+     * @param sprite the sprite
+     * @param previousX the apparent x coordinate
+     * before the last update
+     * @param previousY the apparent y coordinate
+     * before the last update
+     * @param x the apparent x coordinate
+     * @param y the apparent y coordinate
+     * @param width the width with which it is drawn
+     * @param height the height with which it is drawn
+     */
+    public void addSprite (
+        Sprite sprite,
+        int previousX, int previousY,
+        int x, int y,
+        int width, int height
+    ) {
+        add(SPRITE, sprite, previousX, previousY, x, y, width, height, 0);
+    }
+
+    /**
+     * Adds a filled rectangle to this snapshot.
+     * 
+     * @param color the color of the rectangle
+     * @param previousX the apparent x coordinate
+     * before the last update
+     * @param previousY the apparent y coordinate
+     * before the last update
+     * @param x the apparent x coordinate
+     * @param y the apparent y coordinate
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    public void addRect (
+        Color color,
+        int previousX, int previousY,
+        int x, int y,
+        int width, int height
+    ) {
+        add(RECT, color, previousX, previousY, x, y, width, height, 0);
+    }
+
+    /**
+     * Adds a line to this snapshot. Lines are
+     * drawn on screen coordinates and are
+     * never interpolated.
+     * 
+     * @param color the color of the line
+     * @param x1 the x coordinate of the start
+     * @param y1 the y coordinate of the start
+     * @param x2 the x coordinate of the end
+     * @param y2 the y coordinate of the end
+     */
+    public void addLine(Color color, int x1, int y1, int x2, int y2) {
+        add(LINE, color, x1, y1, x1, y1, x2, y2, 0);
+    }
+
+    /**
+     * Adds a scenario to this snapshot.
+     * 
+     * @param sprite the current frame of the scenario
+     * @param previousX the apparent x coordinate
+     * before the last update
+     * @param previousY the apparent y coordinate
+     * before the last update
+     * @param x the apparent x coordinate
+     * @param y the apparent y coordinate
+     * @param width the width with which it is drawn
+     * @param height the height with which it is drawn
+     * @param repeatX if the scenario repeats itself
+     * on the x axis
+     * @param repeatY if the scenario repeats itself
+     * on the y axis
+     */
+    public void addScenario (
+        Sprite sprite,
+        int previousX, int previousY,
+        int x, int y,
+        int width, int height,
+        boolean repeatX, boolean repeatY
+    ) {
+        add (
+            SCENARIO, sprite,
+            previousX, previousY, x, y,
+            width, height,
+            (repeatX ? REPEAT_X : 0) | (repeatY ? REPEAT_Y : 0)
+        );
+    }
+
+    /**
+     * Adds an entry to this snapshot,
+     * growing its arrays if needed.
+     */
+    private void add (
+        int kind, Object resource,
+        int previousX, int previousY,
+        int x, int y,
+        int width, int height,
+        int flag
+    ) {
+        if(size == kinds.length) {
+            grow();
+        }
+
+        kinds[size] = kind;
+        resources[size] = resource;
+        previousXs[size] = previousX;
+        previousYs[size] = previousY;
+        xs[size] = x;
+        ys[size] = y;
+        widths[size] = width;
+        heights[size] = height;
+        flags[size] = flag;
+        size++;
+    }
+
+    /**
+     * Doubles the capacity of the
+     * arrays of this snapshot.
+     */
+    private void grow() {
+        int capacity = kinds.length * 2;
+
+        kinds = Arrays.copyOf(kinds, capacity);
+        resources = Arrays.copyOf(resources, capacity);
+        previousXs = Arrays.copyOf(previousXs, capacity);
+        previousYs = Arrays.copyOf(previousYs, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    /**
+     * Draws every entry of this snapshot, in
+     * the order they were added, with their
+     * positions blended according to the
+     * {@code alpha} argument.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * to draw with
+     * @param alpha how far, between {@code 0}
+     * and {@code 1}, the drawing is from the
+     * previous positions to the current ones
+     */
+    public void draw(Graphics2D g2, double alpha) {
+        for(int i = 0; i < size; i++) {
+            int x = blend(previousXs[i], xs[i], alpha);
+            int y = blend(previousYs[i], ys[i], alpha);
+
+            switch(kinds[i]) {
+                case SPRITE:
+                    Blit.drawSprite (
+                        g2,
+                        (Sprite) resources[i],
+                        x, y, widths[i], heights[i]
+                    );
+                    break;
+                case RECT:
+                    g2.setColor((Color) resources[i]);
+                    g2.fillRect(x, y, widths[i], heights[i]);
+                    break;
+                case LINE:
+                    g2.setColor((Color) resources[i]);
+                    g2.drawLine(x, y, widths[i], heights[i]);
+                    break;
+                case SCENARIO:
+                    drawScenario(g2, i, x, y);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Draws the scenario entry at the position
+     * {@code i}, repeating it to fill the area of
+     * this snapshot on the axis it repeats on.
+     */
+    private void drawScenario(Graphics2D g2, int i, int x, int y) {
+        int w = widths[i];
+        int h = heights[i];
+        if(w == 0 || h == 0) {
+            return;
+        }
+
+        int startX = x;
+        int endX = x + 1;
+        if((flags[i] & REPEAT_X) != 0) {
+            startX = Scenario.getRepetitionStart(x, w, 0);
+            endX = width;
+        }
+        int startY = y;
+        int endY = y + 1;
+        if((flags[i] & REPEAT_Y) != 0) {
+            startY = Scenario.getRepetitionStart(y, h, 0);
+            endY = height;
+        }
+
+        for(int drawingY = startY; drawingY < endY; drawingY += h) {
+            for(int drawingX = startX; drawingX < endX; drawingX += w) {
+                Blit.drawSprite (
+                    g2,
+                    (Sprite) resources[i],
+                    drawingX, drawingY, w, h
+                );
+            }
+        }
+    }
+
+    /**
+     * Blends the {@code previous} and
+     * {@code current} values according
+     * to the {@code alpha} argument.
+     */
+    private int blend(int previous, int current, double alpha) {
+        if(previous == current || alpha >= 1) {
+            return current;
+        }
+
+        return (int) Math.round(previous + (current - previous) * alpha);
+    }
+
+}
\ No newline at end of file
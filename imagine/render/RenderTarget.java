@@ -0,0 +1,473 @@
+package imagine.render;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import imagine.game.Game;
+import imagine.stage.Stage;
+
+/**
+ * Class for drawing a {@code Game} or a
+ * {@code Stage} into a plain off-screen
+ * {@code BufferedImage}, with no window.
+ * <p>
+ * The image always has the native size of the
+ * game, the size of its panel divided by the
+ * pixel scale, and is created again when that
+ * size changes. Every drawing clears it first
+ * with the clear color, so that the same state
+ * always gives the same pixels, which can be
+ * compared through {@code getChecksum} to catch
+ * changes on the drawing. The time spent on the
+ * drawings is measured, giving the throughput
+ * of the rendering.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see imagine.flow.HeadlessFlow
+ */
+public class RenderTarget {
+
+    /**
+     * The type of the image, one of the
+     * types of {@code BufferedImage}.
+     */
+    private int imageType;
+
+    /**
+     * The image where the drawings are made.
+     */
+    private BufferedImage image;
+
+    /**
+     * The color with which the image is
+     * cleared before every drawing.
+     */
+    private Color clearColor = Color.BLACK;
+
+    /**
+     * Holds the bytes of a row of
+     * pixels for the checksum.
+     */
+    private ByteBuffer row;
+
+    /**
+     * How many frames were drawn.
+     */
+    private long renderedFrames = 0;
+
+    /**
+     * The time in nanoseconds spent
+     * on the drawings.
+     */
+    private long renderTime = 0;
+
+    /**
+     * The time in nanoseconds when
+     * the current drawing started.
+     */
+    private long renderStart;
+
+    /**
+     * Creates a new {@code RenderTarget}
+     * drawing into images of type
+     * {@code BufferedImage.TYPE_INT_RGB}.
+     */
+    public RenderTarget() {
+        this(BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Creates a new {@code RenderTarget} drawing
+     * into images of the passed {@code imageType}.
+     * 
+     * @param imageType one of the types
+     * of {@code BufferedImage}
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code imageType} argument is not a
+     * type of {@code BufferedImage}
+     */
+    public RenderTarget(int imageType) {
+        if (
+            imageType == BufferedImage.TYPE_CUSTOM ||
+            imageType < 0 ||
+            imageType > BufferedImage.TYPE_BYTE_INDEXED
+        ) {
+            throw new IllegalArgumentException (
+                "image type is not a type of buffered image"
+            );
+        }
+
+        this.imageType = imageType;
+    }
+
+    /**
+     * Returns the type of the images
+     * of this {@code RenderTarget}.
+     * 
+     * @return the image type
+     */
+    public int getImageType() {
+        return this.imageType;
+    }
+
+    /**
+     * Sets the color with which the image
+     * is cleared before every drawing.
+     * 
+     * @param clearColor the clear color
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code clearColor} argument is {@code null}
+     */
+    public void setClearColor(Color clearColor) {
+        if(clearColor == null) {
+            throw new IllegalArgumentException (
+                "clear color cannot be null"
+            );
+        }
+
+        this.clearColor = clearColor;
+    }
+
+    /**
+     * Returns the color with which the image
+     * is cleared before every drawing.
+     * 
+     * @return the clear color
+     */
+    public Color getClearColor() {
+        return this.clearColor;
+    }
+
+    /**
+     * Returns the image where the last
+     * drawing was made. {@code null} is
+     * returned if nothing was drawn yet.
+     * 
+     * @return the image of this
+     * {@code RenderTarget}
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Draws the passed {@code game} into the
+     * image at the positions of its last update.
+     * 
+     * @param game the {@code Game} to be drawn
+     * 
+     * @return the image with the drawing
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null}
+     */
+    public BufferedImage render(Game game) {
+        return render(game, 1);
+    }
+
+    /**
+     * Draws the passed {@code game} into the
+     * image, blending the positions of its
+     * elements between its last two updates.
+     * 
+     * @param game the {@code Game} to be drawn
+     * @param alpha how far, between {@code 0} and
+     * {@code 1}, the drawing is from the last update
+     * to the next one
+     * 
+     * @return the image with the drawing
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null}
+     */
+    public BufferedImage render(Game game, double alpha) {
+        if(game == null) {
+            throw new IllegalArgumentException (
+                "cannot render null game"
+            );
+        }
+
+        Graphics2D g2 = begin(game);
+        game.draw(g2, alpha);
+        end(g2);
+        return image;
+    }
+
+    /**
+     * Draws only the passed {@code stage} into
+     * the image, blending the positions of its
+     * elements between its last two updates.
+     * The {@code onDraw} method of its game
+     * is not executed.
+     * 
+     * @param stage the {@code Stage} to be drawn
+     * @param alpha how far, between {@code 0} and
+     * {@code 1}, the drawing is from the last update
+     * to the next one
+     * 
+     * @return the image with the drawing
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code stage} argument is {@code null}
+     * @throws IllegalStateException if the
+     * {@code stage} belongs to no game
+     */
+    public BufferedImage render(Stage stage, double alpha) {
+        if(stage == null) {
+            throw new IllegalArgumentException (
+                "cannot render null stage"
+            );
+        }
+        if(stage.getGame() == null) {
+            throw new IllegalStateException (
+                "stage belongs to no game"
+            );
+        }
+
+        Graphics2D g2 = begin(stage.getGame());
+        stage.draw(g2, alpha);
+        end(g2);
+        return image;
+    }
+
+    /**
+     * Draws the passed {@code game} into the
+     * image {@code frames} times in a row and
+     * returns how many frames were drawn per
+     * second. The game is not updated between
+     * the drawings.
+     * 
+     * @param game the {@code Game} to be drawn
+     * @param frames how many frames to draw
+     * 
+     * @return the frames drawn per second
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code game} argument is {@code null} or
+     * if the {@code frames} argument is not
+     * positive
+     */
+    public double benchmark(Game game, int frames) {
+        if(frames <= 0) {
+            throw new IllegalArgumentException (
+                "amount of frames must be positive"
+            );
+        }
+
+        long start = renderTime;
+        for(int i = 0; i < frames; i++) {
+            render(game);
+        }
+
+        long time = renderTime - start;
+        return time == 0 ? 0 : frames * 1000000000.0 / time;
+    }
+
+    /**
+     * Creates the image again if the native size
+     * of the {@code game} changed, clears it and
+     * returns a {@code Graphics2D} for drawing
+     * on it, starting to measure the drawing.
+     * 
+     * @param game the {@code Game} whose
+     * size the image must have
+     * 
+     * @return the {@code Graphics2D} of the image
+     */
+    private Graphics2D begin(Game game) {
+        int width = Math.max(1, game.getGamePanelWidth());
+        int height = Math.max(1, game.getGamePanelHeight());
+        if (
+            image == null ||
+            image.getWidth() != width ||
+            image.getHeight() != height
+        ) {
+            image = new BufferedImage(width, height, imageType);
+        }
+
+        renderStart = System.nanoTime();
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(clearColor);
+        g2.fillRect(0, 0, width, height);
+        return g2;
+    }
+
+    /**
+     * Disposes the passed {@code g2}
+     * and ends measuring the drawing.
+     * 
+     * @param g2 the {@code Graphics2D}
+     * of the image
+     */
+    private void end(Graphics2D g2) {
+        g2.dispose();
+        renderTime += System.nanoTime() - renderStart;
+        renderedFrames++;
+    }
+
+    /**
+     * Returns the checksum of the pixels of
+     * the last drawing, or {@code 0} if
+     * nothing was drawn yet.
+     * 
+     * @return the checksum of the image
+     * 
+     * @see #getChecksum(BufferedImage)
+     */
+    public long getChecksum() {
+        if(image == null) {
+            return 0;
+        }
+
+        if(row == null || row.capacity() < image.getWidth() * 4) {
+            row = ByteBuffer.allocate(image.getWidth() * 4);
+        }
+        return checksum(image, row);
+    }
+
+    /**
+     * Returns the CRC-32 of the colors of the
+     * pixels of the passed {@code image}, as
+     * returned by its {@code getRGB} method, row
+     * by row. Images with the same pixels have the
+     * same checksum whatever their types are.
+     * 
+     * @param image the image whose
+     * checksum is calculated
+     * 
+     * @return the checksum of the image
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code image} argument is {@code null}
+     */
+    public static long getChecksum(BufferedImage image) {
+        if(image == null) {
+            throw new IllegalArgumentException (
+                "cannot checksum null image"
+            );
+        }
+
+        return checksum(image, ByteBuffer.allocate(image.getWidth() * 4));
+    }
+
+    /**
+     * Calculates the checksum of the passed
+     * {@code image} using the {@code row}
+     * buffer to hold each row of pixels.
+     * Images of type {@code TYPE_INT_RGB} whose
+     * rows are packed one after another from the
+     * start of their raster, which isn't the case
+     * of subimages, are read straight from it,
+     * with their unused alpha set as opaque.
+     * 
+     * @param image the image whose
+     * checksum is calculated
+     * @param row a buffer for a row of pixels
+     * 
+     * @return the checksum of the image
+     */
+    private static long checksum(BufferedImage image, ByteBuffer row) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] direct = null;
+        WritableRaster raster = image.getRaster();
+        if (
+            image.getType() == BufferedImage.TYPE_INT_RGB &&
+            raster.getParent() == null &&
+            raster.getSampleModelTranslateX() == 0 &&
+            raster.getSampleModelTranslateY() == 0 &&
+            raster.getSampleModel() instanceof SinglePixelPackedSampleModel &&
+            ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == width &&
+            raster.getDataBuffer().getOffset() == 0
+        ) {
+            direct = ((DataBufferInt) raster.getDataBuffer()).getData();
+        }
+
+        CRC32 crc = new CRC32();
+        int[] pixels = new int[width];
+        for(int y = 0; y < height; y++) {
+            if(direct != null) {
+                for(int x = 0; x < width; x++) {
+                    pixels[x] = 0xff000000 | direct[y * width + x];
+                }
+            } else {
+                image.getRGB(0, y, width, 1, pixels, 0, width);
+            }
+
+            row.clear();
+            row.asIntBuffer().put(pixels, 0, width);
+            row.limit(width * 4);
+            crc.update(row);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Returns how many frames were drawn
+     * by this {@code RenderTarget}.
+     * 
+     * @return the amount of frames drawn
+     */
+    public long getRenderedFrames() {
+        return this.renderedFrames;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * spent on the drawings.
+     * 
+     * @return the render time
+     */
+    public long getRenderTime() {
+        return this.renderTime;
+    }
+
+    /**
+     * Returns the average time in nanoseconds
+     * spent on each drawing. {@code 0} is
+     * returned if nothing was drawn.
+     * 
+     * @return the average render time
+     */
+    public double getAverageRenderTime() {
+        if(renderedFrames == 0) {
+            return 0;
+        }
+
+        return (double) renderTime / renderedFrames;
+    }
+
+    /**
+     * Returns how many frames were drawn per
+     * second of time spent on the drawings.
+     * {@code 0} is returned if nothing was drawn.
+     * 
+     * @return the frames drawn per second
+     */
+    public double getFramesPerSecond() {
+        if(renderTime == 0) {
+            return 0;
+        }
+
+        return renderedFrames * 1000000000.0 / renderTime;
+    }
+
+    /**
+     * Clears the amount of frames drawn
+     * and the measured time.
+     */
+    public void resetStatistics() {
+        renderedFrames = 0;
+        renderTime = 0;
+    }
+
+}
\ No newline at end of file
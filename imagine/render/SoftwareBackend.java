@@ -0,0 +1,716 @@
+package imagine.render;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import imagine.sprite.Sprite;
+
+/**
+ * Backend that executes the commands of a
+ * {@code RenderQueue} in pure Java, writing
+ * straight into the {@code int} pixels of a
+ * framebuffer, which is then copied to the
+ * {@code Graphics2D} in a single drawing.
+ * <p>
+ * Sprites are drawn with an alpha test: their
+ * pixels are either drawn opaque or not drawn,
+ * which is enough for pixel art. Sprites drawn at
+ * a size different from their own are scaled with
+ * nearest neighbour scaling. Rectangles and lines
+ * are blended with the alpha of their color.
+ * <p>
+ * The frame is split into horizontal bands,
+ * which are rasterized in parallel on a
+ * {@code ForkJoinPool}. Every band runs all the
+ * commands clipped to its rows, so the bands
+ * never write the same pixels and the result
+ * is the same with any amount of bands.
+ * <p>
+ * Only the part of the frame inside the clip
+ * of the {@code Graphics2D} is cleared,
+ * rasterized and copied, so that redrawing a
+ * small rectangle costs that rectangle and
+ * not the whole frame.
+ * 
+ * @author Daniel O Sousa
+ */
+public class SoftwareBackend implements RenderBackend {
+
+    /**
+     * The default alpha from which the pixels
+     * of the sprites are drawn, which is {@code 128}.
+     */
+    public static final int DEFAULT_ALPHA_THRESHOLD = 128;
+
+    /**
+     * The pool on which the bands
+     * are rasterized.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * In how many horizontal bands
+     * the frame is split.
+     */
+    private int bands;
+
+    /**
+     * The alpha from which the pixels
+     * of the sprites are drawn.
+     */
+    private int alphaThreshold = DEFAULT_ALPHA_THRESHOLD;
+
+    /**
+     * The color with which the framebuffer
+     * is cleared before every frame.
+     * <p>
+     * Is initially set to black.
+     */
+    private int clearColor = 0xFF000000;
+
+    /**
+     * The framebuffer into
+     * which the frames are drawn.
+     */
+    private BufferedImage frame;
+
+    /**
+     * The pixels of the framebuffer.
+     */
+    private int[] pixels;
+
+    /**
+     * The pixels of the images of the sprites
+     * already drawn, or of the atlas pages they
+     * were packed into, in the ARGB format.
+     */
+    private Map<BufferedImage, int[]> spritePixels = new WeakHashMap<BufferedImage, int[]>();
+
+    /**
+     * The queue being executed.
+     */
+    private RenderQueue queue;
+
+    /**
+     * The pixels of the sprite, or the color,
+     * of each command of the queue being
+     * executed, by index.
+     */
+    private int[][] commandPixels = new int[64][];
+
+    /**
+     * The ARGB color of each command of
+     * the queue being executed, by index.
+     */
+    private int[] commandColors = new int[64];
+
+    /**
+     * Where the pixels of the sprite of each
+     * command start in its pixels, by index.
+     */
+    private int[] commandOffsets = new int[64];
+
+    /**
+     * How many pixels each row of the pixels
+     * of the sprite of each command has, by index.
+     */
+    private int[] commandStrides = new int[64];
+
+    /**
+     * The width of the frame being drawn.
+     */
+    private int width;
+
+    /**
+     * The height of the frame being drawn.
+     */
+    private int height;
+
+    /**
+     * The first column of the frame
+     * that is drawn, inside the clip.
+     */
+    private int clipLeft;
+
+    /**
+     * The column after the last column of
+     * the frame that is drawn, inside the clip.
+     */
+    private int clipRight;
+
+    /**
+     * The first row of the frame
+     * that is drawn, inside the clip.
+     */
+    private int clipTop;
+
+    /**
+     * The row after the last row of the
+     * frame that is drawn, inside the clip.
+     */
+    private int clipBottom;
+
+    /**
+     * How many frames this backend drew.
+     */
+    private long renderedFrames = 0;
+
+    /**
+     * The time in nanoseconds that
+     * rasterizing the last frame took.
+     */
+    private long lastRasterTime = 0;
+
+    /**
+     * Creates a new {@code SoftwareBackend}
+     * that rasterizes on the common
+     * {@code ForkJoinPool}, with one band
+     * for each of its threads.
+     */
+    public SoftwareBackend() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new {@code SoftwareBackend}
+     * that rasterizes on the passed {@code pool},
+     * with one band for each of its threads.
+     * 
+     * @param pool the {@code ForkJoinPool}
+     * on which the bands are rasterized
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pool} argument is {@code null}
+     */
+    public SoftwareBackend(ForkJoinPool pool) {
+        if(pool == null) {
+            throw new IllegalArgumentException (
+                "cannot rasterize on null pool"
+            );
+        }
+
+        this.pool = pool;
+        this.bands = pool.getParallelism();
+    }
+
+    /**
+     * Sets in how many horizontal bands the frame
+     * is split. With {@code 1}, the frame is
+     * rasterized on the drawing thread only.
+     * 
+     * @param bands the amount of bands
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code bands} argument isn't positive
+     */
+    public void setBands(int bands) {
+        if(bands <= 0) {
+            throw new IllegalArgumentException (
+                "bands must be positive"
+            );
+        }
+
+        this.bands = bands;
+    }
+
+    /**
+     * Returns in how many horizontal
+     * bands the frame is split.
+     * 
+     * @return the amount of bands
+     */
+    public int getBands() {
+        return this.bands;
+    }
+
+    /**
+     * Sets the alpha, from {@code 1} to
+     * {@code 255}, from which the pixels
+     * of the sprites are drawn.
+     * 
+     * @param alphaThreshold the alpha to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code alphaThreshold} argument isn't
+     * between {@code 1} and {@code 255}
+     */
+    public void setAlphaThreshold(int alphaThreshold) {
+        if(alphaThreshold < 1 || alphaThreshold > 255) {
+            throw new IllegalArgumentException (
+                "alpha threshold must be between 1 and 255"
+            );
+        }
+
+        this.alphaThreshold = alphaThreshold;
+    }
+
+    /**
+     * Returns the alpha from which the
+     * pixels of the sprites are drawn.
+     * 
+     * @return the alpha threshold
+     */
+    public int getAlphaThreshold() {
+        return this.alphaThreshold;
+    }
+
+    /**
+     * Sets the color with which the framebuffer
+     * is cleared before every frame. Its alpha
+     * is ignored.
+     * 
+     * @param clearColor the color to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code clearColor} argument is {@code null}
+     */
+    public void setClearColor(Color clearColor) {
+        if(clearColor == null) {
+            throw new IllegalArgumentException (
+                "clear color cannot be null"
+            );
+        }
+
+        this.clearColor = clearColor.getRGB() | 0xFF000000;
+    }
+
+    /**
+     * Returns the color with which the framebuffer
+     * is cleared before every frame.
+     * 
+     * @return the clear color
+     */
+    public Color getClearColor() {
+        return new Color(clearColor);
+    }
+
+    /**
+     * Rasterizes every command of the {@code queue},
+     * in its drawing order, into the framebuffer and
+     * then draws the framebuffer with {@code g2}.
+     * Only the part of the area inside the
+     * clip of {@code g2} is drawn.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be executed
+     * @param g2 the {@code Graphics2D} of
+     * the area to draw on
+     * @param width the width of the area
+     * @param height the height of the area
+     */
+    @Override
+    public void render(RenderQueue queue, Graphics2D g2, int width, int height) {
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+
+        clipLeft = 0;
+        clipTop = 0;
+        clipRight = width;
+        clipBottom = height;
+        Rectangle clip = g2.getClipBounds();
+        if(clip != null) {
+            clipLeft = Math.max(clip.x, 0);
+            clipTop = Math.max(clip.y, 0);
+            clipRight = Math.min(clip.x + clip.width, width);
+            clipBottom = Math.min(clip.y + clip.height, height);
+        }
+        if(clipLeft >= clipRight || clipTop >= clipBottom) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        prepare(queue, width, height);
+        int bandCount = Math.min(bands, clipBottom - clipTop);
+        if(bandCount == 1) {
+            rasterize(clipTop, clipBottom);
+        } else {
+            pool.invoke(new BandTask(0, bandCount, bandCount));
+        }
+        this.queue = null;
+        lastRasterTime = System.nanoTime() - start;
+        renderedFrames++;
+
+        g2.drawImage (
+            frame,
+            clipLeft, clipTop, clipRight, clipBottom,
+            clipLeft, clipTop, clipRight, clipBottom,
+            null
+        );
+    }
+
+    /**
+     * Makes the framebuffer the size of the frame
+     * and resolves the pixels and colors of the
+     * commands of the {@code queue}, so that the
+     * bands only read arrays.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be executed
+     * @param width the width of the frame
+     * @param height the height of the frame
+     */
+    private void prepare(RenderQueue queue, int width, int height) {
+        if(frame == null || frame.getWidth() != width || frame.getHeight() != height) {
+            frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        }
+        this.width = width;
+        this.height = height;
+        this.queue = queue;
+
+        int size = queue.getSize();
+        if(commandPixels.length < size) {
+            commandPixels = new int[Math.max(size, commandPixels.length * 2)][];
+            commandColors = new int[commandPixels.length];
+            commandOffsets = new int[commandPixels.length];
+            commandStrides = new int[commandPixels.length];
+        }
+        Arrays.fill(commandPixels, 0, size, null);
+        for(int i = 0; i < size; i++) {
+            if(queue.getKind(i) == RenderQueue.SPRITE) {
+                Sprite sprite = queue.getSprite(i);
+                BufferedImage page = sprite.getPage();
+                if(page != null) {
+                    commandPixels[i] = getPixels(page);
+                    commandOffsets[i] = sprite.getPageY() * page.getWidth() + sprite.getPageX();
+                    commandStrides[i] = page.getWidth();
+                } else {
+                    commandPixels[i] = getPixels(sprite.getImage());
+                    commandOffsets[i] = 0;
+                    commandStrides[i] = sprite.getWidth();
+                }
+            } else {
+                commandColors[i] = queue.getColor(i).getRGB();
+            }
+        }
+    }
+
+    /**
+     * Returns the ARGB pixels of the passed
+     * {@code image}, reading them only the
+     * first time it is drawn.
+     * 
+     * @param image the image of a sprite
+     * or the page it was packed into
+     * 
+     * @return the pixels of the image
+     */
+    private int[] getPixels(BufferedImage image) {
+        int[] imagePixels = spritePixels.get(image);
+        if(imagePixels == null) {
+            imagePixels = image.getRGB (
+                0, 0, image.getWidth(), image.getHeight(),
+                null, 0, image.getWidth()
+            );
+            spritePixels.put(image, imagePixels);
+        }
+
+        return imagePixels;
+    }
+
+    /**
+     * Clears the rows from {@code top}, inclusive,
+     * to {@code bottom}, exclusive, between the
+     * columns of the clip, and runs every command
+     * of the queue clipped to them.
+     * 
+     * @param top the first row of the band
+     * @param bottom the row after the
+     * last row of the band
+     */
+    private void rasterize(int top, int bottom) {
+        for(int row = top; row < bottom; row++) {
+            Arrays.fill(pixels, row * width + clipLeft, row * width + clipRight, clearColor);
+        }
+
+        for(int position = 0; position < queue.getSize(); position++) {
+            int i = queue.getCommand(position);
+            int x = queue.getX(i);
+            int y = queue.getY(i);
+
+            switch(queue.getKind(i)) {
+                case RenderQueue.SPRITE:
+                    Sprite sprite = queue.getSprite(i);
+                    drawSprite (
+                        commandPixels[i], commandOffsets[i], commandStrides[i],
+                        sprite.getWidth(), sprite.getHeight(),
+                        x, y, queue.getWidth(i), queue.getHeight(i),
+                        top, bottom
+                    );
+                    break;
+                case RenderQueue.RECT:
+                    fillRect (
+                        commandColors[i],
+                        x, y, queue.getWidth(i), queue.getHeight(i),
+                        top, bottom
+                    );
+                    break;
+                case RenderQueue.LINE:
+                    drawLine (
+                        commandColors[i],
+                        x, y, queue.getWidth(i), queue.getHeight(i),
+                        top, bottom
+                    );
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Draws the pixels of a sprite, which start at
+     * {@code offset} in {@code source} and whose rows
+     * are {@code stride} pixels apart, at {@code x}
+     * and {@code y}, scaled to {@code w} by
+     * {@code h}, on the rows of the band.
+     */
+    private void drawSprite (
+        int[] source, int offset, int stride,
+        int sourceWidth, int sourceHeight,
+        int x, int y, int w, int h,
+        int top, int bottom
+    ) {
+        if(w <= 0 || h <= 0) {
+            return;
+        }
+        int startX = Math.max(x, clipLeft);
+        int endX = Math.min(x + w, clipRight);
+        int startY = Math.max(y, top);
+        int endY = Math.min(y + h, bottom);
+        if(startX >= endX || startY >= endY) {
+            return;
+        }
+
+        int threshold = alphaThreshold;
+        if(w == sourceWidth && h == sourceHeight) {
+            for(int row = startY; row < endY; row++) {
+                int sourceIndex = offset + (row - y) * stride + (startX - x);
+                int index = row * width + startX;
+                for(int column = startX; column < endX; column++) {
+                    int pixel = source[sourceIndex++];
+                    if(pixel >>> 24 >= threshold) {
+                        pixels[index] = pixel;
+                    }
+                    index++;
+                }
+            }
+            return;
+        }
+
+        long stepX = ((long) sourceWidth << 16) / w;
+        for(int row = startY; row < endY; row++) {
+            int sourceRow = offset + (int) ((long) (row - y) * sourceHeight / h) * stride;
+            long sourceX = (startX - x) * stepX;
+            int index = row * width + startX;
+            for(int column = startX; column < endX; column++) {
+                int pixel = source[sourceRow + (int) (sourceX >>> 16)];
+                if(pixel >>> 24 >= threshold) {
+                    pixels[index] = pixel;
+                }
+                sourceX += stepX;
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Fills a rectangle with the ARGB
+     * {@code color} on the rows of the band.
+     */
+    private void fillRect (
+        int color,
+        int x, int y, int w, int h,
+        int top, int bottom
+    ) {
+        int alpha = color >>> 24;
+        if(alpha == 0) {
+            return;
+        }
+        int startX = Math.max(x, clipLeft);
+        int endX = Math.min(x + w, clipRight);
+        int startY = Math.max(y, top);
+        int endY = Math.min(y + h, bottom);
+        if(startX >= endX || startY >= endY) {
+            return;
+        }
+
+        for(int row = startY; row < endY; row++) {
+            int offset = row * width;
+            if(alpha == 255) {
+                Arrays.fill(pixels, offset + startX, offset + endX, color);
+            } else {
+                for(int index = offset + startX; index < offset + endX; index++) {
+                    pixels[index] = blend(pixels[index], color, alpha);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a line, including both of its ends,
+     * with the ARGB {@code color} on the rows
+     * of the band.
+     */
+    private void drawLine (
+        int color,
+        int x1, int y1, int x2, int y2,
+        int top, int bottom
+    ) {
+        int alpha = color >>> 24;
+        if(alpha == 0 || Math.max(y1, y2) < top || Math.min(y1, y2) >= bottom) {
+            return;
+        }
+
+        int dx = Math.abs(x2 - x1);
+        int dy = -Math.abs(y2 - y1);
+        int stepX = x1 < x2 ? 1 : -1;
+        int stepY = y1 < y2 ? 1 : -1;
+        int error = dx + dy;
+        int x = x1;
+        int y = y1;
+        while(true) {
+            if(y >= top && y < bottom && x >= clipLeft && x < clipRight) {
+                int index = y * width + x;
+                pixels[index] = alpha == 255 ? color : blend(pixels[index], color, alpha);
+            }
+            if(x == x2 && y == y2) {
+                break;
+            }
+
+            int doubledError = 2 * error;
+            if(doubledError >= dy) {
+                error += dy;
+                x += stepX;
+            }
+            if(doubledError <= dx) {
+                error += dx;
+                y += stepY;
+            }
+        }
+    }
+
+    /**
+     * Blends the {@code color} over the
+     * {@code pixel} with the passed {@code alpha}.
+     */
+    private int blend(int pixel, int color, int alpha) {
+        int inverse = 255 - alpha;
+        int red = (((color >> 16) & 0xFF) * alpha + ((pixel >> 16) & 0xFF) * inverse) / 255;
+        int green = (((color >> 8) & 0xFF) * alpha + ((pixel >> 8) & 0xFF) * inverse) / 255;
+        int blue = ((color & 0xFF) * alpha + (pixel & 0xFF) * inverse) / 255;
+
+        return 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Forgets the pixels read from the images
+     * of the sprites, which must be done if
+     * an image already drawn is drawn on.
+     */
+    public void clearSpritePixels() {
+        spritePixels.clear();
+    }
+
+    /**
+     * Returns how many frames
+     * this backend drew.
+     * 
+     * @return the amount of rendered frames
+     */
+    public long getRenderedFrames() {
+        return this.renderedFrames;
+    }
+
+    /**
+     * Returns the time in nanoseconds that
+     * rasterizing the last frame took, not
+     * counting its copy to the {@code Graphics2D}.
+     * 
+     * @return the time of the last rasterization
+     */
+    public long getLastRasterTime() {
+        return this.lastRasterTime;
+    }
+
+    /**
+     * Returns the name of this backend,
+     * which is {@code "Software"}.
+     * 
+     * @return the name of this backend
+     */
+    @Override
+    public String getName() {
+        return "Software";
+    }
+
+    /**
+     * Task that rasterizes a range of bands,
+     * splitting it in halves until a
+     * single band is left.
+     */
+    private class BandTask extends RecursiveAction {
+
+        /**
+         * The version of the serialized form
+         * of this task, which is never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first band of the range.
+         */
+        private final int from;
+
+        /**
+         * The band after the last one of the range.
+         */
+        private final int to;
+
+        /**
+         * How many bands the frame is split into.
+         */
+        private final int count;
+
+        /**
+         * Creates a new {@code BandTask}
+         * for the bands from {@code from},
+         * inclusive, to {@code to}, exclusive.
+         * 
+         * @param from the first band
+         * @param to the band after the last one
+         * @param count how many bands the
+         * frame is split into
+         */
+        private BandTask(int from, int to, int count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        /**
+         * Rasterizes the band of this task, or
+         * splits its range in two tasks.
+         */
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                int rows = clipBottom - clipTop;
+                rasterize(clipTop + from * rows / count, clipTop + (from + 1) * rows / count);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new BandTask(from, middle, count), new BandTask(middle, to, count));
+        }
+
+    }
+
+}
\ No newline at end of file
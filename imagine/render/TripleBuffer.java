@@ -0,0 +1,148 @@
+package imagine.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer used for handing
+ * values from one producer thread to one
+ * consumer thread.
+ * <p>
+ * The producer writes into the back buffer
+ * and publishes it, while the consumer reads
+ * the front buffer and updates it to the most
+ * recently published one. Neither of them
+ * ever waits for the other: the third buffer
+ * sits in the middle holding the latest
+ * published value.
+ * 
+ * @param <T> the type of the buffered values
+ * 
+ * @author Daniel O Sousa
+ */
+public class TripleBuffer<T> {
+
+    /**
+     * Bit set on the middle index when it
+     * holds a value that the consumer
+     * hasn't taken yet.
+     */
+    private static final int FRESH = 4;
+
+    /**
+     * Mask to extract a buffer index from
+     * the middle index.
+     */
+    private static final int INDEX_MASK = 3;
+
+    /**
+     * The three buffers.
+     */
+    private Object[] buffers = new Object[3];
+
+    /**
+     * Index of the buffer owned
+     * by the producer.
+     */
+    private int back = 0;
+
+    /**
+     * Index of the buffer shared between
+     * producer and consumer, plus the
+     * {@code FRESH} bit.
+     */
+    private AtomicInteger middle = new AtomicInteger(1);
+
+    /**
+     * Index of the buffer owned
+     * by the consumer.
+     */
+    private int front = 2;
+
+    /**
+     * Constructs a new {@code TripleBuffer}
+     * whose three buffers are created by
+     * the passed {@code factory}.
+     * 
+     * @param factory the {@code Supplier} that
+     * creates each buffer
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code factory} argument is {@code null}
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        if(factory == null) {
+            throw new IllegalArgumentException (
+                "cannot create buffers with null factory"
+            );
+        }
+
+        for(int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * Returns the back buffer, where the
+     * producer writes the next value.
+     * Must only be called by the producer.
+     * 
+     * @return the back buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Replaces the back buffer by the
+     * passed {@code value}. Must only be
+     * called by the producer.
+     * 
+     * @param value the new back buffer
+     */
+    public void setBack(T value) {
+        buffers[back] = value;
+    }
+
+    /**
+     * Publishes the back buffer, making it
+     * available to the consumer, and takes
+     * a free buffer as the new back buffer.
+     * Must only be called by the producer.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Makes the most recently published buffer
+     * the front buffer, if one was published
+     * since the last call. Must only be called
+     * by the consumer.
+     * 
+     * @return {@code true} if the front buffer
+     * changed and {@code false} otherwise
+     */
+    public boolean update() {
+        if((middle.get() & FRESH) == 0) {
+            return false;
+        }
+
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * Returns the front buffer, which the
+     * consumer reads from. Must only be
+     * called by the consumer.
+     * 
+     * @return the front buffer
+     */
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        return (T) buffers[front];
+    }
+
+}
\ No newline at end of file
@@ -5,6 +5,8 @@ import java.awt.Graphics2D;
 import imagine.stage.AnimatableStageElement;
 import imagine.scenario.type.*;
 import imagine.sprite.SpriteSheet;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
 
 /**
  * Class for creating and customizing
@@ -46,6 +48,25 @@ public abstract class Scenario extends AnimatableStageElement {
      */
     private ScenarioType type;
 
+    /**
+     * Keeps the last drawing of this
+     * {@code Scenario}, if it is scroll
+     * cached, so that only the strips that
+     * come into view are drawn.
+     * <p>
+     * Is initially set to {@code null}.
+     */
+    private ScrollCache scrollCache;
+
+    /**
+     * Tells if this {@code Scenario} is a detail
+     * layer, which may be left out of the drawing
+     * when the quality of the game is lowered.
+     * <p>
+     * Is initially set to {@code false}.
+     */
+    private boolean detailLayer = false;
+
     /**
      * Constructs a {@code Scenario} which will
      * have the specified {@code spriteSheet}.
@@ -177,6 +198,108 @@ public abstract class Scenario extends AnimatableStageElement {
         return this.type.getName();
     }
 
+    /**
+     * Returns {@code true} if this {@code Scenario}
+     * repeats itself on the x axis, according
+     * to its type, and {@code false} otherwise.
+     * 
+     * @return boolean specifying if this
+     * scenario repeats on the x axis
+     */
+    public boolean repeatsX() {
+        return this.type.repeatsX();
+    }
+
+    /**
+     * Returns {@code true} if this {@code Scenario}
+     * repeats itself on the y axis, according
+     * to its type, and {@code false} otherwise.
+     * 
+     * @return boolean specifying if this
+     * scenario repeats on the y axis
+     */
+    public boolean repeatsY() {
+        return this.type.repeatsY();
+    }
+
+    /**
+     * Defines if the drawing of this {@code Scenario}
+     * should be kept between frames in a
+     * {@code ScrollCache}, so that when the camera
+     * scrolls, the last drawing is shifted by the
+     * movement of the camera scaled by the parallax
+     * speeds and only the strips that come into view
+     * are drawn. Suits large layers that repeat
+     * themselves to fill the screen.
+     * <p>
+     * A cached scenario is drawn repeating itself
+     * on the axis its type repeats on, the same way
+     * the built in types draw it, so the {@code draw}
+     * method of a custom type isn't used.
+     * 
+     * @param scrollCached boolean specifying if
+     * this scenario should be scroll cached
+     */
+    public void setScrollCached(boolean scrollCached) {
+        if(scrollCached && scrollCache == null) {
+            scrollCache = new ScrollCache(this);
+        } else if(!scrollCached) {
+            scrollCache = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the drawing of this
+     * {@code Scenario} is kept between frames
+     * and {@code false} otherwise.
+     * 
+     * @return boolean specifying if this
+     * scenario is scroll cached
+     */
+    public boolean isScrollCached() {
+        return scrollCache != null;
+    }
+
+    /**
+     * Returns the {@code ScrollCache} of this
+     * {@code Scenario}, which tells how much of
+     * it is drawn on every frame, or {@code null}
+     * if it isn't scroll cached.
+     * 
+     * @return the {@code ScrollCache}
+     * of this scenario
+     */
+    public ScrollCache getScrollCache() {
+        return this.scrollCache;
+    }
+
+    /**
+     * Defines if this {@code Scenario} is a detail
+     * layer, which the {@code Stage} may leave out
+     * of the drawing when the quality of the game
+     * is lowered. Scenarios that aren't detail
+     * layers are always drawn.
+     * 
+     * @param detailLayer boolean specifying if
+     * this scenario is a detail layer
+     * 
+     * @see imagine.stage.Stage#setDetailLayerLimit(int)
+     */
+    public void setDetailLayer(boolean detailLayer) {
+        this.detailLayer = detailLayer;
+    }
+
+    /**
+     * Returns {@code true} if this {@code Scenario}
+     * is a detail layer and {@code false} otherwise.
+     * 
+     * @return boolean specifying if this
+     * scenario is a detail layer
+     */
+    public boolean isDetailLayer() {
+        return this.detailLayer;
+    }
+
     /**
      * Returns the apparent x coordinate of
      * this {@code Scenario} when taking into
@@ -199,6 +322,90 @@ public abstract class Scenario extends AnimatableStageElement {
         return getY() - getCameraY() * yParallaxSpeed / 100;
     }
 
+    /**
+     * Returns the apparent x coordinate of
+     * this {@code Scenario} when taking into
+     * account the camera position, both
+     * interpolated between the last two
+     * updates. This is the coordinate where
+     * this {@code Scenario} is drawn.
+     * 
+     * @return the interpolated apparent x coordinate
+     */
+    public int getInterpolatedApparentX() {
+        return getInterpolatedX() - getInterpolatedCameraX() * xParallaxSpeed / 100;
+    }
+
+    /**
+     * Returns the apparent y coordinate of
+     * this {@code Scenario} when taking into
+     * account the camera position, both
+     * interpolated between the last two
+     * updates. This is the coordinate where
+     * this {@code Scenario} is drawn.
+     * 
+     * @return the interpolated apparent y coordinate
+     */
+    public int getInterpolatedApparentY() {
+        return getInterpolatedY() - getInterpolatedCameraY() * yParallaxSpeed / 100;
+    }
+
+    /**
+     * Returns where the first repetition that
+     * reaches into an area starts, on one axis,
+     * for a scenario drawn at {@code position} and
+     * repeated every {@code size} pixels. Every way
+     * of drawing a repeating scenario starts from
+     * it and steps by {@code size} until the end
+     * of the area.
+     * 
+     * @param position where the scenario is drawn
+     * @param size the size of the scenario,
+     * which must be positive
+     * @param areaStart where the area starts
+     * 
+     * @return the start of the first
+     * repetition, which is at or before
+     * {@code areaStart}
+     */
+    public static int getRepetitionStart(int position, int size, int areaStart) {
+        return position + Math.floorDiv(areaStart - position, size) * size;
+    }
+
+    /**
+     * Returns {@code true} if any part of this
+     * {@code Scenario}, where it is drawn with its
+     * parallax, is inside the {@code GamePanel}
+     * grown by {@code margin} pixels on every
+     * side, and {@code false} otherwise. On the
+     * axes on which it repeats itself, it always
+     * fills the panel. Used by the {@code Stage}
+     * to leave out of the drawing the scenarios
+     * the camera doesn't see.
+     * 
+     * @param margin how many pixels the
+     * {@code GamePanel} is grown by
+     * 
+     * @return boolean specifying if this
+     * scenario is in the view of the camera
+     */
+    public boolean isInView(int margin) {
+        boolean inViewX = type.repeatsX();
+        if(!inViewX) {
+            int drawingX = getInterpolatedApparentX();
+            inViewX = drawingX < getGamePanelWidth() + margin &&
+                      drawingX + getWidth() > -margin;
+        }
+        boolean inViewY = type.repeatsY();
+        if(!inViewY) {
+            int drawingY = getInterpolatedApparentY();
+            inViewY = drawingY < getGamePanelHeight() + margin &&
+                      drawingY + getHeight() > -margin;
+        }
+
+        return inViewX && inViewY;
+    }
+
     /**
      * Calls the {@code onStart()} method.
      * 
@@ -242,9 +449,11 @@ public abstract class Scenario extends AnimatableStageElement {
     /**
      * Draws this {@code Scenario} according
      * to the {@code draw} method defined by
-     * its type. Depending on the type, access
-     * to the {@code Game} to which this {@code Scenario}
-     * belongs may be needed for the drawing.
+     * its type, or through its {@code ScrollCache}
+     * if it is scroll cached. Depending on the type,
+     * access to the {@code Game} to which this
+     * {@code Scenario} belongs may be needed
+     * for the drawing.
      * 
      * @param g2 a {@code Graphics2D} instance used
      * in the drawing
@@ -260,11 +469,89 @@ public abstract class Scenario extends AnimatableStageElement {
             return;
         }
 
-        type.draw(g2);
+        if(scrollCache != null) {
+            scrollCache.draw(g2);
+        } else {
+            type.draw(g2);
+        }
 
         onDraw(g2);
     }
     
+    /**
+     * Adds this {@code Scenario} to the passed
+     * {@code snapshot}, telling on which axis it
+     * repeats itself according to its type.
+     * <p>
+     * The {@code onDraw} method is not called
+     * when capturing.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     * to be filled
+     */
+    public void capture(RenderSnapshot snapshot) {
+        if(getCurrentFrame() == null) {
+            return;
+        }
+        if(getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+
+        snapshot.addScenario (
+            getCurrentFrame(),
+            getPreviousX() - getPreviousCameraX() * xParallaxSpeed / 100,
+            getPreviousY() - getPreviousCameraY() * yParallaxSpeed / 100,
+            getApparentX(), getApparentY(),
+            getWidth(), getHeight(),
+            type.repeatsX(), type.repeatsY()
+        );
+    }
+
+    /**
+     * Adds the commands that draw this
+     * {@code Scenario} to the passed {@code queue},
+     * with one sprite for every time it repeats
+     * itself to fill the {@code GamePanel} on the
+     * axis its type repeats on.
+     * <p>
+     * The {@code onDraw} method is not called
+     * when enqueuing.
+     * 
+     * @param queue the {@code RenderQueue}
+     * to be filled
+     */
+    public void enqueue(RenderQueue queue) {
+        if(getCurrentFrame() == null) {
+            return;
+        }
+        int width = getWidth();
+        int height = getHeight();
+        if(width == 0 || height == 0) {
+            return;
+        }
+
+        int drawingX = getInterpolatedApparentX();
+        int drawingY = getInterpolatedApparentY();
+        int startX = drawingX;
+        int endX = drawingX + 1;
+        if(type.repeatsX()) {
+            startX = getRepetitionStart(drawingX, width, 0);
+            endX = getGamePanelWidth();
+        }
+        int startY = drawingY;
+        int endY = drawingY + 1;
+        if(type.repeatsY()) {
+            startY = getRepetitionStart(drawingY, height, 0);
+            endY = getGamePanelHeight();
+        }
+
+        for(int y = startY; y < endY; y += height) {
+            for(int x = startX; x < endX; x += width) {
+                queue.addSprite(getCurrentFrame(), x, y, width, height);
+            }
+        }
+    }
+
     /**
      * Method used for defining what should
      * happen every time this {@code Scenario}
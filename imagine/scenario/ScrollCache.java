@@ -0,0 +1,493 @@
+package imagine.scenario;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import imagine.sprite.CompatibleImages;
+import imagine.sprite.Sprite;
+
+/**
+ * Class that keeps the last drawing of a
+ * {@code Scenario} over the whole screen, so that
+ * when the camera scrolls only the strips that
+ * came into view are drawn.
+ * <p>
+ * The layer wraps around on both axes: instead of
+ * moving its pixels, the point of it shown at the
+ * corner of the screen moves by how much the
+ * scenario moved on the screen, which is the
+ * movement of the camera scaled by the parallax
+ * speeds, and the strips that came into view are
+ * drawn over the ones that left it. The layer is
+ * then drawn with up to four copies, one for
+ * each part of the screen that wraps around.
+ * <p>
+ * The cost of drawing a scenario then depends on
+ * how fast it scrolls instead of on the size of
+ * the screen. The whole layer is drawn again when
+ * the frame or the size of the scenario changes,
+ * when the size of the screen changes or when it
+ * moves more than the screen in one drawing.
+ * <p>
+ * Drawing the layer has a cost of its own,
+ * which is the whole screen when it is
+ * translucent, so the cache pays off for
+ * scenarios made of many small repetitions,
+ * not for ones drawn with a few large images.
+ * 
+ * @author Daniel O Sousa
+ * 
+ * @see Scenario#setScrollCached(boolean)
+ */
+public class ScrollCache {
+
+    /**
+     * The color with which the
+     * exposed strips are cleared.
+     */
+    private static final Color CLEAR = new Color(0, 0, 0, 0);
+
+    /**
+     * The {@code Scenario} whose
+     * drawing is kept.
+     */
+    private Scenario scenario;
+
+    /**
+     * The last drawing of the
+     * scenario over the screen.
+     */
+    private BufferedImage layer;
+
+    /**
+     * The frame drawn on the layer.
+     */
+    private Sprite lastFrame;
+
+    /**
+     * The apparent x coordinate of the
+     * scenario on the last drawing.
+     */
+    private int lastX;
+
+    /**
+     * The apparent y coordinate of the
+     * scenario on the last drawing.
+     */
+    private int lastY;
+
+    /**
+     * The width of the scenario
+     * on the last drawing.
+     */
+    private int lastWidth;
+
+    /**
+     * The height of the scenario
+     * on the last drawing.
+     */
+    private int lastHeight;
+
+    /**
+     * If the scenario repeated itself on
+     * the x axis on the last drawing.
+     */
+    private boolean lastRepeatsX;
+
+    /**
+     * If the scenario repeated itself on
+     * the y axis on the last drawing.
+     */
+    private boolean lastRepeatsY;
+
+    /**
+     * The x coordinate of the point of the
+     * layer shown at the left of the screen.
+     * The layer wraps around, so what is left
+     * of that point is shown at the right.
+     */
+    private int originX;
+
+    /**
+     * The y coordinate of the point of the
+     * layer shown at the top of the screen.
+     * The layer wraps around, so what is above
+     * that point is shown at the bottom.
+     */
+    private int originY;
+
+    /**
+     * The spans of the layer holding a
+     * span of the screen on the x axis.
+     */
+    private int[] spansX = new int[6];
+
+    /**
+     * The spans of the layer holding a
+     * span of the screen on the y axis.
+     */
+    private int[] spansY = new int[6];
+
+    /**
+     * How many pixels were drawn
+     * on the last drawing.
+     */
+    private long redrawnPixels = 0;
+
+    /**
+     * How many pixels the
+     * last drawing had.
+     */
+    private long pixels = 0;
+
+    /**
+     * How many pixels were drawn
+     * on all the drawings.
+     */
+    private long totalRedrawnPixels = 0;
+
+    /**
+     * How many pixels all
+     * the drawings had.
+     */
+    private long totalPixels = 0;
+
+    /**
+     * How many times the whole
+     * layer was drawn again.
+     */
+    private long fullRedraws = 0;
+
+    /**
+     * Creates a new {@code ScrollCache}
+     * for the passed {@code scenario}.
+     * 
+     * @param scenario the {@code Scenario}
+     * whose drawing is kept
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code scenario} argument is {@code null}
+     */
+    public ScrollCache(Scenario scenario) {
+        if(scenario == null) {
+            throw new IllegalArgumentException (
+                "cannot cache null scenario"
+            );
+        }
+
+        this.scenario = scenario;
+    }
+
+    /**
+     * Draws the scenario with {@code g2} through
+     * the layer, first moving the origin of the
+     * layer by how much the scenario moved since
+     * the last drawing and drawing the strips
+     * that came into view where they wrap to.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * used in the drawing
+     */
+    public void draw(Graphics2D g2) {
+        int screenWidth = scenario.getGamePanelWidth();
+        int screenHeight = scenario.getGamePanelHeight();
+        Sprite frame = scenario.getCurrentFrame();
+        if(screenWidth <= 0 || screenHeight <= 0 || frame == null) {
+            return;
+        }
+
+        int x = scenario.getInterpolatedApparentX();
+        int y = scenario.getInterpolatedApparentY();
+        int dx = x - lastX;
+        int dy = y - lastY;
+        boolean full =
+            layer == null ||
+            layer.getWidth() != screenWidth ||
+            layer.getHeight() != screenHeight ||
+            frame != lastFrame ||
+            scenario.getWidth() != lastWidth ||
+            scenario.getHeight() != lastHeight ||
+            scenario.repeatsX() != lastRepeatsX ||
+            scenario.repeatsY() != lastRepeatsY ||
+            Math.abs(dx) >= screenWidth ||
+            Math.abs(dy) >= screenHeight;
+
+        if (
+            layer == null ||
+            layer.getWidth() != screenWidth ||
+            layer.getHeight() != screenHeight ||
+            scenario.repeatsX() != lastRepeatsX ||
+            scenario.repeatsY() != lastRepeatsY
+        ) {
+            layer = CompatibleImages.createCompatibleImage (
+                screenWidth, screenHeight,
+                frame.getImage().getTransparency() == Transparency.OPAQUE &&
+                scenario.repeatsX() && scenario.repeatsY() ?
+                Transparency.OPAQUE : Transparency.TRANSLUCENT
+            );
+        }
+
+        lastFrame = frame;
+        lastX = x;
+        lastY = y;
+        lastWidth = scenario.getWidth();
+        lastHeight = scenario.getHeight();
+        lastRepeatsX = scenario.repeatsX();
+        lastRepeatsY = scenario.repeatsY();
+
+        redrawnPixels = 0;
+        pixels = (long) screenWidth * screenHeight;
+        Graphics2D layerGraphics = layer.createGraphics();
+        if(full) {
+            originX = 0;
+            originY = 0;
+            redrawArea(layerGraphics, x, y, 0, 0, screenWidth, screenHeight);
+            fullRedraws++;
+        } else if(dx != 0 || dy != 0) {
+            // the pixels stay where they are on the layer,
+            // only the point of it shown at the corner moves
+            originX = Math.floorMod(originX - dx, screenWidth);
+            originY = Math.floorMod(originY - dy, screenHeight);
+            if(dx > 0) {
+                redrawArea(layerGraphics, x, y, 0, 0, dx, screenHeight);
+            } else if(dx < 0) {
+                redrawArea(layerGraphics, x, y, screenWidth + dx, 0, -dx, screenHeight);
+            }
+            if(dy > 0) {
+                redrawArea(layerGraphics, x, y, 0, 0, screenWidth, dy);
+            } else if(dy < 0) {
+                redrawArea(layerGraphics, x, y, 0, screenHeight + dy, screenWidth, -dy);
+            }
+        }
+        layerGraphics.dispose();
+        totalRedrawnPixels += redrawnPixels;
+        totalPixels += pixels;
+
+        // on an axis where the scenario does not repeat
+        // only the part of the layer it covers is drawn
+        int left = 0;
+        int right = screenWidth;
+        if(!lastRepeatsX) {
+            left = Math.max(x, 0);
+            right = Math.min(x + lastWidth, screenWidth);
+        }
+        int top = 0;
+        int bottom = screenHeight;
+        if(!lastRepeatsY) {
+            top = Math.max(y, 0);
+            bottom = Math.min(y + lastHeight, screenHeight);
+        }
+        if(left < right && top < bottom) {
+            present(g2, left, top, right - left, bottom - top);
+        }
+    }
+
+    /**
+     * Splits the span of the screen that starts at
+     * {@code screenStart} and has {@code length}
+     * pixels into the spans of the layer that hold it,
+     * which are two when it wraps around the end of the
+     * layer. Each span is written into {@code spans}
+     * as its start on the screen, its start on the
+     * layer and its length.
+     * 
+     * @param screenStart the start of the
+     * span on the screen
+     * @param length the length of the span
+     * @param origin the point of the layer
+     * shown at the start of the screen
+     * @param size the size of the layer
+     * @param spans where the spans are written
+     * 
+     * @return how many spans were written
+     */
+    private static int split(int screenStart, int length, int origin, int size, int[] spans) {
+        int layerStart = Math.floorMod(screenStart + origin, size);
+        int firstLength = Math.min(length, size - layerStart);
+        spans[0] = screenStart;
+        spans[1] = layerStart;
+        spans[2] = firstLength;
+        if(firstLength == length) {
+            return 1;
+        }
+
+        spans[3] = screenStart + firstLength;
+        spans[4] = 0;
+        spans[5] = length - firstLength;
+        return 2;
+    }
+
+    /**
+     * Draws the passed area of the screen onto the
+     * parts of the layer that hold it, translating
+     * the drawing of each part to where it is.
+     * 
+     * @param layerGraphics the {@code Graphics2D}
+     * of the layer
+     * @param x the apparent x
+     * coordinate of the scenario
+     * @param y the apparent y
+     * coordinate of the scenario
+     * @param areaX the x coordinate of the area
+     * @param areaY the y coordinate of the area
+     * @param areaWidth the width of the area
+     * @param areaHeight the height of the area
+     */
+    private void redrawArea (
+        Graphics2D layerGraphics,
+        int x, int y,
+        int areaX, int areaY,
+        int areaWidth, int areaHeight
+    ) {
+        int columns = split(areaX, areaWidth, originX, layer.getWidth(), spansX);
+        int rows = split(areaY, areaHeight, originY, layer.getHeight(), spansY);
+        for(int row = 0; row < rows * 3; row += 3) {
+            for(int column = 0; column < columns * 3; column += 3) {
+                int translateX = spansX[column + 1] - spansX[column];
+                int translateY = spansY[row + 1] - spansY[row];
+                layerGraphics.translate(translateX, translateY);
+                redraw (
+                    layerGraphics, x, y,
+                    spansX[column], spansY[row],
+                    spansX[column + 2], spansY[row + 2]
+                );
+                layerGraphics.translate(-translateX, -translateY);
+            }
+        }
+    }
+
+    /**
+     * Draws the passed area of the screen with
+     * {@code g2}, copying it from the parts of
+     * the layer that hold it, in up to four
+     * copies when it wraps around the layer.
+     * 
+     * @param g2 a {@code Graphics2D} instance
+     * used in the drawing
+     * @param areaX the x coordinate of the area
+     * @param areaY the y coordinate of the area
+     * @param areaWidth the width of the area
+     * @param areaHeight the height of the area
+     */
+    private void present (
+        Graphics2D g2,
+        int areaX, int areaY,
+        int areaWidth, int areaHeight
+    ) {
+        int columns = split(areaX, areaWidth, originX, layer.getWidth(), spansX);
+        int rows = split(areaY, areaHeight, originY, layer.getHeight(), spansY);
+        for(int row = 0; row < rows * 3; row += 3) {
+            for(int column = 0; column < columns * 3; column += 3) {
+                int screenX = spansX[column];
+                int screenY = spansY[row];
+                int layerX = spansX[column + 1];
+                int layerY = spansY[row + 1];
+                int width = spansX[column + 2];
+                int height = spansY[row + 2];
+                g2.drawImage (
+                    layer,
+                    screenX, screenY, screenX + width, screenY + height,
+                    layerX, layerY, layerX + width, layerY + height,
+                    null
+                );
+            }
+        }
+    }
+
+    /**
+     * Clears the passed area of the layer and draws
+     * on it, clipped to it, every repetition of the
+     * scenario that touches it, with the scenario
+     * at {@code scenarioX} and {@code scenarioY}.
+     * 
+     * @param layerGraphics the {@code Graphics2D}
+     * of the layer
+     * @param scenarioX the apparent x
+     * coordinate of the scenario
+     * @param scenarioY the apparent y
+     * coordinate of the scenario
+     * @param areaX the x coordinate of the area
+     * @param areaY the y coordinate of the area
+     * @param areaWidth the width of the area
+     * @param areaHeight the height of the area
+     */
+    private void redraw (
+        Graphics2D layerGraphics,
+        int scenarioX, int scenarioY,
+        int areaX, int areaY,
+        int areaWidth, int areaHeight
+    ) {
+        Composite composite = layerGraphics.getComposite();
+        layerGraphics.setComposite(AlphaComposite.Src);
+        layerGraphics.setColor(CLEAR);
+        layerGraphics.fillRect(areaX, areaY, areaWidth, areaHeight);
+        layerGraphics.setComposite(composite);
+        layerGraphics.setClip(areaX, areaY, areaWidth, areaHeight);
+
+        int width = scenario.getWidth();
+        int height = scenario.getHeight();
+        int startX = scenarioX;
+        int endX = scenarioX + 1;
+        if(scenario.repeatsX()) {
+            startX = Scenario.getRepetitionStart(scenarioX, width, areaX);
+            endX = areaX + areaWidth;
+        }
+        int startY = scenarioY;
+        int endY = scenarioY + 1;
+        if(scenario.repeatsY()) {
+            startY = Scenario.getRepetitionStart(scenarioY, height, areaY);
+            endY = areaY + areaHeight;
+        }
+
+        for(int drawingY = startY; drawingY < endY; drawingY += height) {
+            for(int drawingX = startX; drawingX < endX; drawingX += width) {
+                scenario.drawCurrentFrame(layerGraphics, drawingX, drawingY, width, height);
+            }
+        }
+        layerGraphics.setClip(null);
+        redrawnPixels += (long) areaWidth * areaHeight;
+    }
+
+    /**
+     * Drops the kept layer, so that the
+     * next drawing draws it whole.
+     */
+    public void invalidate() {
+        layer = null;
+    }
+
+    /**
+     * Returns the fraction of the pixels of the
+     * screen that were drawn on the last drawing.
+     * 
+     * @return the redrawn fraction
+     */
+    public double getRedrawnFraction() {
+        return pixels == 0 ? 0 : (double) redrawnPixels / pixels;
+    }
+
+    /**
+     * Returns the fraction of the pixels of the
+     * screen that were drawn over all the drawings.
+     * 
+     * @return the average redrawn fraction
+     */
+    public double getAverageRedrawnFraction() {
+        return totalPixels == 0 ? 0 : (double) totalRedrawnPixels / totalPixels;
+    }
+
+    /**
+     * Returns how many times the
+     * whole layer was drawn again.
+     * 
+     * @return the amount of full redraws
+     */
+    public long getFullRedraws() {
+        return this.fullRedraws;
+    }
+
+}
\ No newline at end of file
@@ -75,11 +75,10 @@ public class NoRepeat implements ScenarioType {
      */
     @Override
     public void draw(Graphics2D g2) {
-        g2.drawImage (
-            scenario.getCurrentFrame().getImage(),
-            scenario.getApparentX(), scenario.getApparentY(),
-            scenario.getWidth(), scenario.getHeight(),
-            null
+        scenario.drawCurrentFrame (
+            g2,
+            scenario.getInterpolatedApparentX(), scenario.getInterpolatedApparentY(),
+            scenario.getWidth(), scenario.getHeight()
         );
     }
     
@@ -81,19 +81,29 @@ public class RepeatX implements ScenarioType {
             return;
         }
 
-        int drawingX =
-            scenario.getApparentX() <= 0 ?
-            scenario.getApparentX() % scenario.getWidth() :
-            scenario.getApparentX() % scenario.getWidth() - scenario.getWidth();
+        int drawingX = Scenario.getRepetitionStart (
+            scenario.getInterpolatedApparentX(), scenario.getWidth(), 0
+        );
         while(drawingX < scenario.getGamePanelWidth()) {
-            g2.drawImage (
-                scenario.getCurrentFrame().getImage(),
-                drawingX, scenario.getApparentY(),
-                scenario.getWidth(), scenario.getHeight(),
-                null
+            scenario.drawCurrentFrame (
+                g2,
+                drawingX, scenario.getInterpolatedApparentY(),
+                scenario.getWidth(), scenario.getHeight()
             );
             drawingX += scenario.getWidth();
         }
     }
+
+    /**
+     * Returns {@code true} because
+     * {@code RepeatX} scenarios repeat
+     * themselves on the x axis.
+     * 
+     * @return {@code true}
+     */
+    @Override
+    public boolean repeatsX() {
+        return true;
+    }
     
 }
\ No newline at end of file
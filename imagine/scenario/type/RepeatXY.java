@@ -81,26 +81,47 @@ public class RepeatXY implements ScenarioType {
             return;
         }
 
-        int drawingY =
-            scenario.getApparentY() <= 0 ?
-            scenario.getApparentY() % scenario.getHeight() :
-            scenario.getApparentY() % scenario.getHeight() - scenario.getHeight();
+        int drawingY = Scenario.getRepetitionStart (
+            scenario.getInterpolatedApparentY(), scenario.getHeight(), 0
+        );
         while(drawingY < scenario.getGamePanelHeight()) {
-            int drawingX =
-                scenario.getApparentX() <= 0 ?
-                scenario.getApparentX() % scenario.getWidth() :
-                scenario.getApparentX() % scenario.getWidth() - scenario.getWidth();
+            int drawingX = Scenario.getRepetitionStart (
+                scenario.getInterpolatedApparentX(), scenario.getWidth(), 0
+            );
             while(drawingX < scenario.getGamePanelWidth()) {
-                g2.drawImage (
-                    scenario.getCurrentFrame().getImage(),
+                scenario.drawCurrentFrame (
+                    g2,
                     drawingX, drawingY,
-                    scenario.getWidth(), scenario.getHeight(),
-                    null
+                    scenario.getWidth(), scenario.getHeight()
                 );
                 drawingX += scenario.getWidth();
             }
             drawingY += scenario.getHeight();
         }
     }
+
+    /**
+     * Returns {@code true} because
+     * {@code RepeatXY} scenarios repeat
+     * themselves on the x axis.
+     * 
+     * @return {@code true}
+     */
+    @Override
+    public boolean repeatsX() {
+        return true;
+    }
+
+    /**
+     * Returns {@code true} because
+     * {@code RepeatXY} scenarios repeat
+     * themselves on the y axis.
+     * 
+     * @return {@code true}
+     */
+    @Override
+    public boolean repeatsY() {
+        return true;
+    }
     
 }
\ No newline at end of file
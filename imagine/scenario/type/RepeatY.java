@@ -81,19 +81,29 @@ public class RepeatY implements ScenarioType {
             return;
         }
 
-        int drawingY =
-            scenario.getApparentY() <= 0 ?
-            scenario.getApparentY() % scenario.getHeight() :
-            scenario.getApparentY() % scenario.getHeight() - scenario.getHeight();
+        int drawingY = Scenario.getRepetitionStart (
+            scenario.getInterpolatedApparentY(), scenario.getHeight(), 0
+        );
         while(drawingY < scenario.getGamePanelHeight()) {
-            g2.drawImage (
-                scenario.getCurrentFrame().getImage(),
-                scenario.getApparentX(), drawingY,
-                scenario.getWidth(), scenario.getHeight(),
-                null
+            scenario.drawCurrentFrame (
+                g2,
+                scenario.getInterpolatedApparentX(), drawingY,
+                scenario.getWidth(), scenario.getHeight()
             );
             drawingY += scenario.getHeight();
         }
     }
+
+    /**
+     * Returns {@code true} because
+     * {@code RepeatY} scenarios repeat
+     * themselves on the y axis.
+     * 
+     * @return {@code true}
+     */
+    @Override
+    public boolean repeatsY() {
+        return true;
+    }
     
 }
\ No newline at end of file
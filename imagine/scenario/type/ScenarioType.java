@@ -29,4 +29,32 @@ public interface ScenarioType {
      */
     void draw(Graphics2D g2);
 
+    /**
+     * Method to tell if a {@code Scenario}
+     * with this {@code ScenarioType} repeats
+     * itself on the x axis.
+     * <p>
+     * By default, {@code false} is returned.
+     * 
+     * @return {@code true} if it repeats
+     * on the x axis
+     */
+    default boolean repeatsX() {
+        return false;
+    }
+
+    /**
+     * Method to tell if a {@code Scenario}
+     * with this {@code ScenarioType} repeats
+     * itself on the y axis.
+     * <p>
+     * By default, {@code false} is returned.
+     * 
+     * @return {@code true} if it repeats
+     * on the y axis
+     */
+    default boolean repeatsY() {
+        return false;
+    }
+
 }
\ No newline at end of file
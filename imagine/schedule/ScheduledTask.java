@@ -0,0 +1,177 @@
+package imagine.schedule;
+
+/**
+ * Class that represents a callback scheduled
+ * on a {@code TickScheduler}, to be run once
+ * after a delay or repeatedly with a period,
+ * both counted in ticks.
+ * <p>
+ * Tasks are linked to the other tasks of the
+ * same slot of the timer wheel, so they can be
+ * added and cancelled without searching.
+ * 
+ * @author Daniel O Sousa
+ */
+public class ScheduledTask {
+
+    /**
+     * The scheduler where this
+     * task is scheduled.
+     */
+    private TickScheduler scheduler;
+
+    /**
+     * The callback run when
+     * this task expires.
+     */
+    private Runnable action;
+
+    /**
+     * The tick on which this
+     * task should be run next.
+     */
+    long expiry;
+
+    /**
+     * The amount of ticks between each run.
+     * When {@code 0}, this task runs once.
+     */
+    private long period;
+
+    /**
+     * Tells if this task was cancelled.
+     */
+    private boolean cancelled = false;
+
+    /**
+     * Tells if this task already ran
+     * and won't run again.
+     */
+    private boolean done = false;
+
+    /**
+     * The previous task in the
+     * slot of the timer wheel.
+     */
+    ScheduledTask previous;
+
+    /**
+     * The next task in the
+     * slot of the timer wheel.
+     */
+    ScheduledTask next;
+
+    /**
+     * Creates a new {@code ScheduledTask}.
+     * 
+     * @param scheduler the scheduler where
+     * the task is scheduled
+     * @param action the callback to be run
+     * @param expiry the tick of the first run
+     * @param period the amount of ticks between
+     * each run, or {@code 0} to run once
+     */
+    ScheduledTask(TickScheduler scheduler, Runnable action, long expiry, long period) {
+        this.scheduler = scheduler;
+        this.action = action;
+        this.expiry = expiry;
+        this.period = period;
+    }
+
+    /**
+     * Returns the amount of ticks between
+     * each run of this task. {@code 0} is
+     * returned if it runs only once.
+     * 
+     * @return the period of this task
+     */
+    public long getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * Returns {@code true} if this task
+     * runs repeatedly and {@code false}
+     * otherwise.
+     * 
+     * @return boolean describing if
+     * this task repeats
+     */
+    public boolean isRepeating() {
+        return period > 0;
+    }
+
+    /**
+     * Returns how many ticks are left until
+     * this task runs again. {@code -1} is
+     * returned if it won't run again.
+     * 
+     * @return the remaining ticks
+     */
+    public long getRemainingTicks() {
+        if(cancelled || done) {
+            return -1;
+        }
+
+        return expiry - scheduler.getCurrentTick();
+    }
+
+    /**
+     * Cancels this task, so that it won't
+     * run again. Does nothing if it was
+     * already cancelled or done.
+     */
+    public void cancel() {
+        if(cancelled || done) {
+            return;
+        }
+
+        cancelled = true;
+        scheduler.remove(this);
+    }
+
+    /**
+     * Returns {@code true} if this task
+     * was cancelled and {@code false}
+     * otherwise.
+     * 
+     * @return boolean describing if
+     * this task was cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns {@code true} if this task
+     * ran and won't run again and
+     * {@code false} otherwise.
+     * 
+     * @return boolean describing if
+     * this task is done
+     */
+    public boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * Runs the action of this task and
+     * calculates the tick of its next run.
+     * 
+     * @return {@code true} if this task
+     * should be scheduled again and
+     * {@code false} otherwise
+     */
+    boolean run() {
+        if(period > 0) {
+            expiry += period;
+        } else {
+            done = true;
+        }
+
+        action.run();
+
+        return period > 0 && !cancelled;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,303 @@
+package imagine.schedule;
+
+/**
+ * Class used for scheduling callbacks to be run
+ * after a delay or repeatedly, both counted in
+ * ticks, instead of checking counters like
+ * {@code frameCount % INTERVAL} every update.
+ * <p>
+ * The tasks are kept in a hierarchical timer
+ * wheel: {@code 4} levels of {@code 64} slots
+ * each, where every slot of a level covers a
+ * whole turn of the level below it. Scheduling
+ * and cancelling a task take constant time, and
+ * each tick only visits the slot that expires
+ * on it, moving down the tasks of a higher
+ * level slot once per turn of the level below.
+ * So the cost of a tick doesn't grow with the
+ * amount of pending tasks.
+ * 
+ * @author Daniel O Sousa
+ */
+public class TickScheduler {
+
+    /**
+     * How many bits of the tick select
+     * a slot on each level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * How many slots each level has.
+     */
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * Mask to extract the slot
+     * of a level from a tick.
+     */
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * How many levels the wheel has.
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * The biggest delay that fits in the
+     * wheel. Tasks with longer delays are
+     * placed at its end and moved again
+     * once they get there.
+     */
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * The slots of each level. Each slot is
+     * the head of a circular list of tasks.
+     */
+    private ScheduledTask[][] wheel = new ScheduledTask[LEVELS][SLOTS];
+
+    /**
+     * The tick this scheduler is at.
+     */
+    private long currentTick = 0;
+
+    /**
+     * How many tasks are waiting to run.
+     */
+    private int pendingTasks = 0;
+
+    /**
+     * Constructs a new empty
+     * {@code TickScheduler}.
+     */
+    public TickScheduler() {
+        for(int level = 0; level < LEVELS; level++) {
+            for(int slot = 0; slot < SLOTS; slot++) {
+                ScheduledTask head = new ScheduledTask(this, null, 0, 0);
+                head.previous = head;
+                head.next = head;
+                wheel[level][slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Returns the tick this {@code TickScheduler}
+     * is at, which is how many times its
+     * {@code tick} method was called.
+     * 
+     * @return the current tick
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * Returns how many tasks are waiting
+     * to run on this {@code TickScheduler}.
+     * 
+     * @return the amount of pending tasks
+     */
+    public int getPendingTasks() {
+        return this.pendingTasks;
+    }
+
+    /**
+     * Schedules the {@code action} to be run once,
+     * after the specified amount of ticks. A
+     * {@code delay} of {@code 0} runs it on the
+     * next tick, just like a {@code delay} of
+     * {@code 1}.
+     * 
+     * @param delay how many ticks to wait
+     * @param action the callback to be run
+     * 
+     * @return the {@code ScheduledTask}, which
+     * can be used to cancel it
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code delay} argument is negative or the
+     * {@code action} argument is {@code null}
+     */
+    public ScheduledTask schedule(long delay, Runnable action) {
+        return schedule(delay, 0, action);
+    }
+
+    /**
+     * Schedules the {@code action} to be run after
+     * the specified amount of ticks and then again
+     * every {@code period} ticks, until cancelled.
+     * 
+     * @param delay how many ticks to wait
+     * before the first run
+     * @param period how many ticks to wait
+     * between each run
+     * @param action the callback to be run
+     * 
+     * @return the {@code ScheduledTask}, which
+     * can be used to cancel it
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code delay} argument is negative, the
+     * {@code period} argument is not positive
+     * or the {@code action} argument is
+     * {@code null}
+     */
+    public ScheduledTask scheduleRepeating(long delay, long period, Runnable action) {
+        if(period <= 0) {
+            throw new IllegalArgumentException (
+                "period must be positive"
+            );
+        }
+
+        return schedule(delay, period, action);
+    }
+
+    /**
+     * Creates and adds a task to the wheel.
+     * 
+     * @param delay how many ticks to wait
+     * @param period how many ticks to wait
+     * between each run, or {@code 0}
+     * @param action the callback to be run
+     * 
+     * @return the {@code ScheduledTask}
+     */
+    private ScheduledTask schedule(long delay, long period, Runnable action) {
+        if(delay < 0) {
+            throw new IllegalArgumentException (
+                "delay cannot be negative"
+            );
+        }
+        if(action == null) {
+            throw new IllegalArgumentException (
+                "cannot schedule null action"
+            );
+        }
+
+        ScheduledTask task = new ScheduledTask (
+            this, action,
+            currentTick + Math.max(1, delay),
+            period
+        );
+        add(task);
+        return task;
+    }
+
+    /**
+     * Adds the {@code task} to the slot of the
+     * lowest level that can hold its expiry.
+     * 
+     * @param task the task to be added
+     */
+    private void add(ScheduledTask task) {
+        long expiry = task.expiry;
+        long delay = expiry - currentTick;
+        if(delay > MAX_DELAY) {
+            expiry = currentTick + MAX_DELAY;
+            delay = MAX_DELAY;
+        }
+
+        int level = 0;
+        while(level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (expiry >>> (SLOT_BITS * level)) & SLOT_MASK;
+
+        ScheduledTask head = wheel[level][slot];
+        task.previous = head.previous;
+        task.next = head;
+        head.previous.next = task;
+        head.previous = task;
+        pendingTasks++;
+    }
+
+    /**
+     * Removes the {@code task} from the
+     * slot where it is, if it is in one.
+     * 
+     * @param task the task to be removed
+     */
+    void remove(ScheduledTask task) {
+        if(task.previous == null) {
+            return;
+        }
+
+        task.previous.next = task.next;
+        task.next.previous = task.previous;
+        task.previous = null;
+        task.next = null;
+        pendingTasks--;
+    }
+
+    /**
+     * Advances this {@code TickScheduler} by one
+     * tick, running every task that expires on it
+     * in the order they were added. Repeating tasks
+     * are added again for their next run.
+     */
+    public void tick() {
+        currentTick++;
+
+        for(int level = LEVELS - 1; level > 0; level--) {
+            if((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                cascade(level);
+            }
+        }
+
+        ScheduledTask head = wheel[0][(int) currentTick & SLOT_MASK];
+        ScheduledTask later = null;
+        while(head.next != head) {
+            ScheduledTask task = head.next;
+            remove(task);
+
+            if(task.expiry != currentTick) {
+                task.next = later;
+                later = task;
+            } else if(task.run()) {
+                add(task);
+            }
+        }
+        while(later != null) {
+            ScheduledTask task = later;
+            later = task.next;
+            if(!task.isCancelled()) {
+                add(task);
+            }
+        }
+    }
+
+    /**
+     * Moves every task of the current slot
+     * of the specified {@code level} down
+     * to the levels below it.
+     * 
+     * @param level the level to cascade
+     */
+    private void cascade(int level) {
+        int slot = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        ScheduledTask head = wheel[level][slot];
+        while(head.next != head) {
+            ScheduledTask task = head.next;
+            remove(task);
+            add(task);
+        }
+    }
+
+    /**
+     * Cancels every task waiting
+     * to run on this {@code TickScheduler}.
+     */
+    public void cancelAll() {
+        for(int level = 0; level < LEVELS; level++) {
+            for(int slot = 0; slot < SLOTS; slot++) {
+                ScheduledTask head = wheel[level][slot];
+                while(head.next != head) {
+                    head.next.cancel();
+                }
+            }
+        }
+    }
+
+}
\ No newline at end of file
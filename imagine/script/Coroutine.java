@@ -0,0 +1,359 @@
+package imagine.script;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BooleanSupplier;
+
+import imagine.schedule.ScheduledTask;
+
+/**
+ * Class that runs a {@code Script} on a thread
+ * of its own, which is suspended every time the
+ * script awaits something and only resumed by
+ * its {@code ScriptScheduler}.
+ * <p>
+ * Resuming hands the control over to the script
+ * and waits until it suspends itself again, so
+ * only one side runs at a time: scripts run while
+ * the thread that updates the stage waits, and
+ * may touch the game freely.
+ * <p>
+ * When the running Java version has virtual
+ * threads, they are used, so suspended scripts
+ * hold no platform thread. Otherwise, daemon
+ * platform threads are used.
+ * 
+ * @author Daniel O Sousa
+ */
+public class Coroutine {
+
+    /**
+     * Creates the threads
+     * of the coroutines.
+     */
+    private static final ThreadFactory THREAD_FACTORY = createThreadFactory();
+
+    /**
+     * The scheduler that
+     * resumes this coroutine.
+     */
+    private ScriptScheduler scheduler;
+
+    /**
+     * The script run by
+     * this coroutine.
+     */
+    private Script script;
+
+    /**
+     * The thread that runs the script.
+     * Is only created once it is
+     * resumed for the first time.
+     */
+    private Thread thread;
+
+    /**
+     * Released to hand the
+     * control over to the script.
+     */
+    private Semaphore resumeSignal = new Semaphore(0);
+
+    /**
+     * Released by the script to hand
+     * the control back to its scheduler.
+     */
+    private Semaphore yieldSignal = new Semaphore(0);
+
+    /**
+     * The condition the script is waiting for.
+     */
+    private BooleanSupplier condition;
+
+    /**
+     * The task that wakes the script
+     * up after some ticks.
+     */
+    private ScheduledTask wakeTask;
+
+    /**
+     * Tells if the script finished.
+     */
+    private volatile boolean done = false;
+
+    /**
+     * Tells if this coroutine was cancelled.
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * The exception thrown by the script.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Creates a new {@code Coroutine} that
+     * runs the {@code script} once resumed
+     * by the {@code scheduler}.
+     * 
+     * @param scheduler the {@code ScriptScheduler}
+     * that resumes this coroutine
+     * @param script the {@code Script} to be run
+     */
+    Coroutine(ScriptScheduler scheduler, Script script) {
+        this.scheduler = scheduler;
+        this.script = script;
+    }
+
+    /**
+     * Creates the factory of the threads of the
+     * coroutines: one of virtual threads if the
+     * running Java version has them, or one of
+     * daemon platform threads otherwise.
+     * 
+     * @return the {@code ThreadFactory}
+     */
+    private static ThreadFactory createThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch(ReflectiveOperationException | RuntimeException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable, "Script");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    /**
+     * Suspends the script for the specified
+     * amount of ticks. If {@code ticks} is
+     * {@code 0}, returns right away.
+     * <p>
+     * Must only be called by the script
+     * of this coroutine.
+     * 
+     * @param ticks how many ticks to wait
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code ticks} argument is negative
+     * @throws IllegalStateException if not called
+     * by the script of this coroutine
+     * @throws CancellationException if this
+     * coroutine is cancelled while waiting
+     */
+    public void awaitTicks(long ticks) {
+        checkThread();
+        if(ticks < 0) {
+            throw new IllegalArgumentException (
+                "cannot await negative amount of ticks"
+            );
+        }
+        if(ticks == 0) {
+            return;
+        }
+
+        wakeTask = scheduler.wakeAfter(this, ticks);
+        suspend();
+        wakeTask = null;
+    }
+
+    /**
+     * Suspends the script until the passed
+     * {@code condition} is {@code true}. It is
+     * checked once per tick, by the thread that
+     * updates the stage. If it is already
+     * {@code true}, returns right away.
+     * <p>
+     * Must only be called by the script
+     * of this coroutine.
+     * 
+     * @param condition the condition to wait for
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code condition} argument is {@code null}
+     * @throws IllegalStateException if not called
+     * by the script of this coroutine
+     * @throws CancellationException if this
+     * coroutine is cancelled while waiting
+     */
+    public void awaitCondition(BooleanSupplier condition) {
+        checkThread();
+        if(condition == null) {
+            throw new IllegalArgumentException (
+                "cannot await null condition"
+            );
+        }
+        if(condition.getAsBoolean()) {
+            return;
+        }
+
+        this.condition = condition;
+        scheduler.waitFor(this);
+        suspend();
+        this.condition = null;
+    }
+
+    /**
+     * Throws an exception if the current
+     * thread isn't the one of this coroutine.
+     * 
+     * @throws IllegalStateException if the
+     * current thread isn't the one of
+     * this coroutine
+     */
+    private void checkThread() {
+        if(Thread.currentThread() != thread) {
+            throw new IllegalStateException (
+                "can only await from the script of the coroutine"
+            );
+        }
+    }
+
+    /**
+     * Hands the control back to the scheduler
+     * and waits until it is resumed.
+     * 
+     * @throws CancellationException if this
+     * coroutine was cancelled while suspended
+     */
+    private void suspend() {
+        yieldSignal.release();
+        resumeSignal.acquireUninterruptibly();
+        if(cancelled) {
+            throw new CancellationException("script cancelled");
+        }
+    }
+
+    /**
+     * Returns {@code true} if the condition
+     * this coroutine is waiting for is met.
+     * 
+     * @return boolean describing if the
+     * condition is met
+     */
+    boolean isConditionMet() {
+        return condition == null || condition.getAsBoolean();
+    }
+
+    /**
+     * Hands the control over to the script and
+     * waits until it suspends itself again or
+     * finishes. Does nothing if it is done.
+     * <p>
+     * If the script throws an exception, it is
+     * thrown again by this method.
+     */
+    void resume() {
+        if(done) {
+            return;
+        }
+
+        if(thread == null) {
+            thread = THREAD_FACTORY.newThread(this::execute);
+            thread.start();
+        } else {
+            resumeSignal.release();
+        }
+        yieldSignal.acquireUninterruptibly();
+
+        if(failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if(failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * Method executed by the thread of this
+     * coroutine. Runs the script and then
+     * hands the control back for good.
+     */
+    private void execute() {
+        try {
+            if(!cancelled) {
+                script.run(this);
+            }
+        } catch(CancellationException e) {
+
+        } catch(Throwable e) {
+            failure = e;
+        } finally {
+            done = true;
+            scheduler.finished(this);
+            yieldSignal.release();
+        }
+    }
+
+    /**
+     * Cancels this coroutine. If its script
+     * is suspended, it is resumed with a
+     * {@code CancellationException} so that
+     * it finishes. Does nothing if it is
+     * already done.
+     * 
+     * @throws CancellationException if called
+     * by the script of this coroutine itself
+     */
+    public void cancel() {
+        if(done || cancelled) {
+            return;
+        }
+
+        cancelled = true;
+        if(Thread.currentThread() == thread) {
+            throw new CancellationException("script cancelled");
+        }
+        if(wakeTask != null) {
+            wakeTask.cancel();
+        }
+
+        if(thread != null) {
+            resume();
+        } else {
+            done = true;
+            scheduler.finished(this);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this
+     * coroutine was cancelled and
+     * {@code false} otherwise.
+     * 
+     * @return boolean describing if
+     * the coroutine was cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns {@code true} if the script
+     * of this coroutine finished, was
+     * cancelled or failed and {@code false}
+     * otherwise.
+     * 
+     * @return boolean describing if
+     * the coroutine is done
+     */
+    public boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * Returns the exception thrown by the
+     * script of this coroutine. {@code null}
+     * is returned if it didn't throw one.
+     * 
+     * @return the failure of the script
+     */
+    public Throwable getFailure() {
+        return this.failure;
+    }
+
+}
\ No newline at end of file
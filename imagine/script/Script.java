@@ -0,0 +1,25 @@
+package imagine.script;
+
+/**
+ * Functional interface for writing behaviours
+ * that span many ticks as plain sequential code.
+ * <p>
+ * A script runs as a {@code Coroutine} and may
+ * suspend itself through it, for example with
+ * {@code coroutine.awaitTicks(30)}, instead of
+ * keeping its progress in a state machine.
+ * 
+ * @author Daniel O Sousa
+ */
+@FunctionalInterface
+public interface Script {
+
+    /**
+     * Method with the code of the script.
+     * 
+     * @param coroutine the {@code Coroutine}
+     * running this script, used to suspend it
+     */
+    void run(Coroutine coroutine);
+
+}
\ No newline at end of file
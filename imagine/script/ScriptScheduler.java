@@ -0,0 +1,218 @@
+package imagine.script;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CancellationException;
+
+import imagine.schedule.ScheduledTask;
+import imagine.schedule.TickScheduler;
+
+/**
+ * Class that resumes the coroutines of the
+ * scripts of a {@code Stage}, all at one point
+ * of its update, called the barrier.
+ * <p>
+ * Scripts waiting for ticks are woken up by
+ * a {@code TickScheduler}, so they cost nothing
+ * until then. Scripts waiting for a condition
+ * have it checked once per tick. At the barrier,
+ * every script that is ready is resumed in turn,
+ * running until it awaits again.
+ * 
+ * @author Daniel O Sousa
+ */
+public class ScriptScheduler {
+
+    /**
+     * The scheduler that wakes up the
+     * scripts waiting for ticks.
+     */
+    private TickScheduler tickScheduler;
+
+    /**
+     * The coroutines to be resumed
+     * at the next barrier.
+     */
+    private ArrayList<Coroutine> ready = new ArrayList<Coroutine>();
+
+    /**
+     * The list of coroutines being resumed
+     * at the current barrier, reused from
+     * one barrier to the next.
+     */
+    private ArrayList<Coroutine> resuming = new ArrayList<Coroutine>();
+
+    /**
+     * The coroutines waiting for a condition.
+     */
+    private ArrayList<Coroutine> waiting = new ArrayList<Coroutine>();
+
+    /**
+     * The coroutines that
+     * aren't done yet.
+     */
+    private LinkedHashSet<Coroutine> active = new LinkedHashSet<Coroutine>();
+
+    /**
+     * Constructs a new {@code ScriptScheduler}
+     * that uses the passed {@code tickScheduler}
+     * to wake up the scripts waiting for ticks.
+     * 
+     * @param tickScheduler the {@code TickScheduler}
+     * to be used
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code tickScheduler} argument is {@code null}
+     */
+    public ScriptScheduler(TickScheduler tickScheduler) {
+        if(tickScheduler == null) {
+            throw new IllegalArgumentException (
+                "cannot store null tick scheduler"
+            );
+        }
+
+        this.tickScheduler = tickScheduler;
+    }
+
+    /**
+     * Starts the passed {@code script} as a new
+     * {@code Coroutine}. It first runs at the
+     * next barrier.
+     * 
+     * @param script the {@code Script} to be started
+     * 
+     * @return the {@code Coroutine} of the script
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code script} argument is {@code null}
+     */
+    public Coroutine start(Script script) {
+        if(script == null) {
+            throw new IllegalArgumentException (
+                "cannot start null script"
+            );
+        }
+
+        Coroutine coroutine = new Coroutine(this, script);
+        ready.add(coroutine);
+        active.add(coroutine);
+        return coroutine;
+    }
+
+    /**
+     * Returns how many scripts started
+     * by this {@code ScriptScheduler}
+     * aren't done yet.
+     * 
+     * @return the amount of active scripts
+     */
+    public int getActiveScripts() {
+        return active.size();
+    }
+
+    /**
+     * Schedules the {@code coroutine} to be
+     * resumed at the barrier that happens
+     * after the specified amount of ticks.
+     * 
+     * @param coroutine the coroutine to wake up
+     * @param ticks how many ticks to wait
+     * 
+     * @return the task that wakes it up
+     */
+    ScheduledTask wakeAfter(Coroutine coroutine, long ticks) {
+        return tickScheduler.schedule(ticks, () -> ready.add(coroutine));
+    }
+
+    /**
+     * Makes the {@code coroutine} be resumed
+     * once the condition it is waiting
+     * for is met.
+     * 
+     * @param coroutine the coroutine to wait
+     */
+    void waitFor(Coroutine coroutine) {
+        waiting.add(coroutine);
+    }
+
+    /**
+     * Counts the {@code coroutine} as done.
+     * 
+     * @param coroutine the coroutine that is done
+     */
+    void finished(Coroutine coroutine) {
+        active.remove(coroutine);
+    }
+
+    /**
+     * The barrier: moves the coroutines whose
+     * condition is met to the ready ones and
+     * resumes every ready coroutine, in the
+     * order they became ready. Coroutines that
+     * become ready during this barrier, like
+     * newly started ones, wait for the next one.
+     * <p>
+     * If a script throws an exception, it is thrown
+     * again by this method and the scripts that
+     * weren't resumed yet wait for the next barrier.
+     */
+    public void resume() {
+        int kept = 0;
+        for(int i = 0; i < waiting.size(); i++) {
+            Coroutine coroutine = waiting.get(i);
+            if(coroutine.isDone()) {
+                continue;
+            }
+
+            if(coroutine.isConditionMet()) {
+                ready.add(coroutine);
+            } else {
+                waiting.set(kept++, coroutine);
+            }
+        }
+        waiting.subList(kept, waiting.size()).clear();
+
+        ArrayList<Coroutine> resuming = ready;
+        ready = this.resuming;
+        this.resuming = resuming;
+        int resumed = 0;
+        try {
+            while(resumed < resuming.size()) {
+                resuming.get(resumed++).resume();
+            }
+        } finally {
+            ready.addAll(0, resuming.subList(resumed, resuming.size()));
+            resuming.clear();
+        }
+    }
+
+    /**
+     * Cancels every script that was
+     * started by this {@code ScriptScheduler}
+     * and isn't done yet. If called by one of
+     * those scripts, the others are cancelled
+     * first and then it ends with a
+     * {@code CancellationException}.
+     * 
+     * @throws CancellationException if called by
+     * one of the scripts of this scheduler
+     */
+    public void cancelAll() {
+        CancellationException ownCancellation = null;
+        ArrayList<Coroutine> coroutines = new ArrayList<Coroutine>(active);
+        ready.clear();
+        waiting.clear();
+
+        for(Coroutine coroutine : coroutines) {
+            try {
+                coroutine.cancel();
+            } catch(CancellationException e) {
+                ownCancellation = e;
+            }
+        }
+        if(ownCancellation != null) {
+            throw ownCancellation;
+        }
+    }
+
+}
\ No newline at end of file
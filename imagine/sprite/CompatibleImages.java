@@ -0,0 +1,308 @@
+package imagine.sprite;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Class that converts the images of the sprites
+ * to the pixel format of the display, so that
+ * Java2D can copy them with its fastest loops and
+ * keep them cached in video memory as managed
+ * images, instead of converting every pixel on
+ * every {@code drawImage}.
+ * <p>
+ * Loaded sprites and every frame of a sprite
+ * sheet are converted once, when they are
+ * created. Where there is no display, the
+ * images are converted to the integer RGB
+ * formats, which are the fastest ones for
+ * software drawing.
+ * <p>
+ * How many images were converted and how long
+ * it took is recorded, and the time a drawing
+ * of an image takes can be measured, so that the
+ * gain of the conversion can be reported.
+ * 
+ * @author Daniel O Sousa
+ */
+public class CompatibleImages {
+
+    /**
+     * Tells if images are converted.
+     * <p>
+     * Is initially set to {@code true}.
+     */
+    private static volatile boolean enabled = true;
+
+    /**
+     * The acceleration priority given to the
+     * converted images, from {@code 0}, never
+     * cache them in video memory, to {@code 1},
+     * cache them as soon as possible.
+     */
+    private static volatile float accelerationPriority = 1;
+
+    /**
+     * How many images were converted.
+     */
+    private static long convertedImages = 0;
+
+    /**
+     * How many images were already in the
+     * format of the display and were kept.
+     */
+    private static long keptImages = 0;
+
+    /**
+     * The time in nanoseconds
+     * the conversions took.
+     */
+    private static long conversionTime = 0;
+
+    /**
+     * This class only has static methods,
+     * so it can't be instantiated.
+     */
+    private CompatibleImages() {
+
+    }
+
+    /**
+     * Configures if the images of the sprites
+     * should be converted when they are created.
+     * Images of sprites that were already
+     * created aren't changed.
+     * 
+     * @param enabled boolean specifying if the
+     * images should be converted
+     */
+    public static void setEnabled(boolean enabled) {
+        CompatibleImages.enabled = enabled;
+    }
+
+    /**
+     * Returns {@code true} if the images of the
+     * sprites are converted when they are created
+     * and {@code false} otherwise.
+     * 
+     * @return boolean specifying if the
+     * images are converted
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the acceleration priority given to the
+     * converted images: {@code 1} asks Java2D to
+     * cache them in video memory as managed images
+     * as soon as possible, while {@code 0} keeps
+     * them in system memory only.
+     * 
+     * @param accelerationPriority the priority to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code accelerationPriority} argument isn't
+     * between {@code 0} and {@code 1}
+     */
+    public static void setAccelerationPriority(float accelerationPriority) {
+        if(accelerationPriority < 0 || accelerationPriority > 1) {
+            throw new IllegalArgumentException (
+                "acceleration priority must be between 0 and 1"
+            );
+        }
+
+        CompatibleImages.accelerationPriority = accelerationPriority;
+    }
+
+    /**
+     * Returns the acceleration priority
+     * given to the converted images.
+     * 
+     * @return the acceleration priority
+     */
+    public static float getAccelerationPriority() {
+        return accelerationPriority;
+    }
+
+    /**
+     * Returns a copy of the passed {@code image} in
+     * the pixel format of the display, keeping its
+     * transparency. The image itself is returned if
+     * converting is disabled, or if it already has
+     * that format and doesn't share its pixels with
+     * a bigger image, like the frames taken from a
+     * sprite sheet do.
+     * 
+     * @param image the image to be converted
+     * 
+     * @return the converted image
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code image} argument is {@code null}
+     */
+    public static BufferedImage convert(BufferedImage image) {
+        if(image == null) {
+            throw new IllegalArgumentException (
+                "cannot convert null image"
+            );
+        }
+        if(!enabled) {
+            return image;
+        }
+
+        long start = System.nanoTime();
+        BufferedImage converted = createCompatibleImage (
+            image.getWidth(), image.getHeight(), image.getTransparency()
+        );
+        if (
+            image.getRaster().getParent() == null &&
+            image.getType() == converted.getType() &&
+            image.getColorModel().equals(converted.getColorModel())
+        ) {
+            image.setAccelerationPriority(accelerationPriority);
+            record(false, System.nanoTime() - start);
+            return image;
+        }
+
+        Graphics2D g2 = converted.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        converted.setAccelerationPriority(accelerationPriority);
+
+        record(true, System.nanoTime() - start);
+        return converted;
+    }
+
+    /**
+     * Creates an empty image of the passed size
+     * and transparency in the pixel format of
+     * the display, or in an integer RGB format
+     * if there is no display.
+     * 
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param transparency the transparency
+     * of the image, as defined by {@code Transparency}
+     * 
+     * @return the created image
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if(!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration configuration = GraphicsEnvironment
+                .getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration();
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+
+        if(transparency == Transparency.OPAQUE) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Records a conversion.
+     * 
+     * @param converted if the image was converted
+     * or kept as it was
+     * @param time the time in nanoseconds it took
+     */
+    private static synchronized void record(boolean converted, long time) {
+        if(converted) {
+            convertedImages++;
+        } else {
+            keptImages++;
+        }
+        conversionTime += time;
+    }
+
+    /**
+     * Returns how many images were converted.
+     * 
+     * @return the amount of converted images
+     */
+    public static synchronized long getConvertedImages() {
+        return convertedImages;
+    }
+
+    /**
+     * Returns how many images already had the
+     * format of the display and were kept.
+     * 
+     * @return the amount of kept images
+     */
+    public static synchronized long getKeptImages() {
+        return keptImages;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * the conversions took.
+     * 
+     * @return the conversion time
+     */
+    public static synchronized long getConversionTime() {
+        return conversionTime;
+    }
+
+    /**
+     * Clears the recorded conversions.
+     */
+    public static synchronized void resetStatistics() {
+        convertedImages = 0;
+        keptImages = 0;
+        conversionTime = 0;
+    }
+
+    /**
+     * Measures the average time in nanoseconds
+     * that drawing the passed {@code image} at its
+     * own size onto a frame in the format of the
+     * display takes, over the passed amount of
+     * {@code draws}. Comparing an image before and
+     * after converting it shows the gain of the
+     * conversion.
+     * 
+     * @param image the image to be drawn
+     * @param draws how many times to draw it
+     * 
+     * @return the average time of a drawing
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code image} argument is {@code null} or
+     * {@code draws} isn't positive
+     */
+    public static double measureBlitTime(BufferedImage image, int draws) {
+        if(image == null) {
+            throw new IllegalArgumentException (
+                "cannot measure null image"
+            );
+        }
+        if(draws <= 0) {
+            throw new IllegalArgumentException (
+                "draws must be positive"
+            );
+        }
+
+        BufferedImage frame = createCompatibleImage (
+            image.getWidth(), image.getHeight(), Transparency.OPAQUE
+        );
+        Graphics2D g2 = frame.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+
+        long start = System.nanoTime();
+        for(int i = 0; i < draws; i++) {
+            g2.drawImage(image, 0, 0, null);
+        }
+        long time = System.nanoTime() - start;
+        g2.dispose();
+
+        return (double) time / draws;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,461 @@
+package imagine.sprite;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import imagine.render.Blit;
+
+/**
+ * Class that keeps copies of sprites already
+ * scaled to the sizes they are drawn at, so that
+ * a sprite drawn at a size different from its own
+ * is scaled once, instead of on every frame.
+ * <p>
+ * The copies are kept by sprite, drawing size
+ * and interpolation, in the pixel format of the
+ * display. When the cache is full, the copy that
+ * was used the longest time ago is evicted.
+ * <p>
+ * How many drawings found their copy, how many
+ * had to scale the sprite and how many copies
+ * were evicted is recorded.
+ * 
+ * @author Daniel O Sousa
+ */
+public class ScaledSpriteCache {
+
+    /**
+     * The default amount of scaled copies
+     * a cache keeps.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The maximum amount of scaled
+     * copies kept by this cache.
+     */
+    private int capacity;
+
+    /**
+     * The scaled copies, from the one used the
+     * longest time ago to the last one used.
+     */
+    private LinkedHashMap<Key, BufferedImage> images =
+        new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true);
+
+    /**
+     * Tells if this cache is used.
+     * <p>
+     * Is initially set to {@code true}.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * How many drawings found their
+     * scaled copy in this cache.
+     */
+    private long hits = 0;
+
+    /**
+     * How many drawings had to
+     * scale their sprite.
+     */
+    private long misses = 0;
+
+    /**
+     * How many scaled copies were evicted.
+     */
+    private long evictions = 0;
+
+    /**
+     * Creates a new {@code ScaledSpriteCache}
+     * with the {@code DEFAULT_CAPACITY}.
+     */
+    public ScaledSpriteCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@code ScaledSpriteCache}
+     * that keeps at most {@code capacity}
+     * scaled copies.
+     * 
+     * @param capacity the maximum amount
+     * of scaled copies
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code capacity} argument isn't positive
+     */
+    public ScaledSpriteCache(int capacity) {
+        setCapacity(capacity);
+    }
+
+    /**
+     * Sets the maximum amount of scaled copies
+     * kept by this cache, evicting the ones used
+     * the longest time ago if there are more.
+     * 
+     * @param capacity the maximum amount
+     * of scaled copies
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code capacity} argument isn't positive
+     */
+    public synchronized void setCapacity(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException (
+                "capacity must be positive"
+            );
+        }
+
+        this.capacity = capacity;
+        evictExcess();
+    }
+
+    /**
+     * Returns the maximum amount of scaled
+     * copies kept by this cache.
+     * 
+     * @return the capacity
+     */
+    public synchronized int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Configures if this cache should be used.
+     * While it isn't, sprites are scaled on every
+     * drawing and the kept copies are cleared.
+     * 
+     * @param enabled boolean specifying if
+     * this cache should be used
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if(!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this cache
+     * is used and {@code false} otherwise.
+     * 
+     * @return boolean specifying if
+     * this cache is used
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Draws the {@code sprite} with its top left
+     * corner at {@code x} and {@code y}, at the size
+     * of {@code width} by {@code height}. If that
+     * isn't the size of the sprite, its copy scaled
+     * with the interpolation of {@code g2} is drawn,
+     * being created if it isn't kept yet.
+     * 
+     * @param g2 the {@code Graphics2D} to draw with
+     * @param sprite the sprite to be drawn
+     * @param x the x coordinate of the drawing
+     * @param y the y coordinate of the drawing
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     */
+    public void draw (
+        Graphics2D g2,
+        Sprite sprite,
+        int x, int y,
+        int width, int height
+    ) {
+        if (
+            !enabled || width <= 0 || height <= 0 ||
+            sprite.getWidth() == width && sprite.getHeight() == height
+        ) {
+            Blit.drawSprite(g2, sprite, x, y, width, height);
+            return;
+        }
+
+        g2.drawImage (
+            getScaledImage (
+                sprite, width, height,
+                g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION)
+            ),
+            x, y, null
+        );
+    }
+
+    /**
+     * Returns the image of the {@code sprite} scaled
+     * to {@code width} by {@code height} with the
+     * passed {@code interpolation}, as defined by
+     * {@code RenderingHints}. The copy is created and
+     * kept if it isn't kept yet. A {@code null}
+     * interpolation means nearest neighbour.
+     * 
+     * @param sprite the sprite to be scaled
+     * @param width the width of the copy
+     * @param height the height of the copy
+     * @param interpolation the interpolation
+     * of the scaling
+     * 
+     * @return the scaled image
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code sprite} argument is {@code null} or
+     * the size isn't positive
+     */
+    public BufferedImage getScaledImage (
+        Sprite sprite,
+        int width, int height,
+        Object interpolation
+    ) {
+        if(sprite == null) {
+            throw new IllegalArgumentException (
+                "cannot scale null sprite"
+            );
+        }
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException (
+                "width and height must be positive"
+            );
+        }
+        if(interpolation == null) {
+            interpolation = RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+        }
+
+        Key key = new Key(sprite, width, height, interpolation);
+        synchronized(this) {
+            BufferedImage scaled = images.get(key);
+            if(scaled != null) {
+                hits++;
+                return scaled;
+            }
+            misses++;
+        }
+
+        BufferedImage scaled = scale(sprite, width, height, interpolation);
+        synchronized(this) {
+            images.put(key, scaled);
+            evictExcess();
+        }
+
+        return scaled;
+    }
+
+    /**
+     * Creates a copy of the passed {@code sprite}
+     * scaled to {@code width} by {@code height} with
+     * the passed {@code interpolation}, in the pixel
+     * format of the display. A sprite packed into a
+     * {@code TextureAtlas} is read from its region
+     * of the page.
+     * 
+     * @param sprite the sprite to be scaled
+     * @param width the width of the copy
+     * @param height the height of the copy
+     * @param interpolation the interpolation
+     * of the scaling
+     * 
+     * @return the scaled copy
+     */
+    private BufferedImage scale (
+        Sprite sprite,
+        int width, int height,
+        Object interpolation
+    ) {
+        BufferedImage source = sprite.getPage() != null ? sprite.getPage() : sprite.getImage();
+        BufferedImage scaled = CompatibleImages.createCompatibleImage (
+            width, height, source.getTransparency()
+        );
+        Graphics2D g2 = scaled.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        Blit.drawSprite(g2, sprite, 0, 0, width, height);
+        g2.dispose();
+        scaled.setAccelerationPriority(CompatibleImages.getAccelerationPriority());
+
+        return scaled;
+    }
+
+    /**
+     * Evicts the copies used the longest time ago
+     * until there are no more than the capacity.
+     */
+    private void evictExcess() {
+        Iterator<Map.Entry<Key, BufferedImage>> iterator = images.entrySet().iterator();
+        while(images.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes every scaled copy of the passed
+     * {@code sprite}, which should be done if
+     * its image is drawn on.
+     * 
+     * @param sprite the sprite whose
+     * copies are removed
+     */
+    public synchronized void invalidate(Sprite sprite) {
+        images.keySet().removeIf(key -> key.sprite == sprite);
+    }
+
+    /**
+     * Removes every scaled copy
+     * kept by this cache.
+     */
+    public synchronized void clear() {
+        images.clear();
+    }
+
+    /**
+     * Returns how many scaled copies
+     * this cache keeps.
+     * 
+     * @return the amount of kept copies
+     */
+    public synchronized int getSize() {
+        return images.size();
+    }
+
+    /**
+     * Returns how many drawings found
+     * their scaled copy in this cache.
+     * 
+     * @return the amount of hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns how many drawings had
+     * to scale their sprite.
+     * 
+     * @return the amount of misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns how many scaled copies
+     * were evicted from this cache.
+     * 
+     * @return the amount of evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the fraction of the drawings
+     * that found their scaled copy in this
+     * cache, or {@code 0} if there were none.
+     * 
+     * @return the hit ratio
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Clears the recorded hits,
+     * misses and evictions.
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * The key of a scaled copy: the sprite,
+     * compared by identity, the size of the
+     * copy and its interpolation.
+     */
+    private static class Key {
+
+        /**
+         * The scaled sprite.
+         */
+        private final Sprite sprite;
+
+        /**
+         * The width of the copy.
+         */
+        private final int width;
+
+        /**
+         * The height of the copy.
+         */
+        private final int height;
+
+        /**
+         * The interpolation of the copy.
+         */
+        private final Object interpolation;
+
+        /**
+         * Creates a new {@code Key}.
+         * 
+         * @param sprite the scaled sprite
+         * @param width the width of the copy
+         * @param height the height of the copy
+         * @param interpolation the
+         * interpolation of the copy
+         */
+        private Key(Sprite sprite, int width, int height, Object interpolation) {
+            this.sprite = sprite;
+            this.width = width;
+            this.height = height;
+            this.interpolation = interpolation;
+        }
+
+        /**
+         * Returns {@code true} if the passed
+         * {@code object} is a key of the same
+         * sprite, size and interpolation.
+         * 
+         * @param object the object to compare
+         * 
+         * @return boolean telling if
+         * the keys are equal
+         */
+        @Override
+        public boolean equals(Object object) {
+            if(!(object instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) object;
+            return sprite == key.sprite &&
+                   width == key.width &&
+                   height == key.height &&
+                   interpolation.equals(key.interpolation);
+        }
+
+        /**
+         * Returns the hash code of this key.
+         * 
+         * @return the hash code
+         */
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(sprite);
+            hash = 31 * hash + width;
+            hash = 31 * hash + height;
+            return 31 * hash + interpolation.hashCode();
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -17,10 +17,44 @@ public class Sprite {
     private String path;
 
     /**
-     * The loaded sprite image.
+     * The loaded sprite image. Once this sprite
+     * is packed into a {@code TextureAtlas}, it is
+     * dropped and only created again, as a view of
+     * its region of the page, if asked for.
      */
     private BufferedImage img;
 
+    /**
+     * The page of the {@code TextureAtlas}
+     * into which this sprite was packed,
+     * or {@code null} if it wasn't.
+     */
+    private BufferedImage page;
+
+    /**
+     * The x coordinate of this
+     * sprite on its page.
+     */
+    private int pageX;
+
+    /**
+     * The y coordinate of this
+     * sprite on its page.
+     */
+    private int pageY;
+
+    /**
+     * The width of the region of this
+     * sprite on its page.
+     */
+    private int pageWidth;
+
+    /**
+     * The height of the region of this
+     * sprite on its page.
+     */
+    private int pageHeight;
+
     /**
      * Constructs a {@code Sprite}, loading its image from
      * where the {@code path} specifies.
@@ -97,21 +131,86 @@ public class Sprite {
     }
     
     /**
-     * Returns the image of this sprite.
+     * Returns the image of this sprite. If it was
+     * packed into a {@code TextureAtlas}, the image
+     * is a subimage of its page, sharing the pixels
+     * of its region, so the engine draws it from
+     * the page instead.
      * 
      * @return this sprite's image
+     * 
+     * @see #getPage()
      */
     public BufferedImage getImage() {
+        if(img == null && page != null) {
+            img = page.getSubimage(pageX, pageY, pageWidth, pageHeight);
+        }
+
         return this.img;
     }
 
+    /**
+     * Makes the region of the passed {@code page}
+     * whose top left corner is at {@code x} and
+     * {@code y}, to where its pixels were copied,
+     * hold the pixels of this sprite. Its own
+     * image is dropped, so that the page is
+     * the only copy of them.
+     * 
+     * @param page the page of the atlas
+     * @param x the x coordinate of the region
+     * @param y the y coordinate of the region
+     * 
+     * @see TextureAtlas#pack()
+     */
+    void storeRegion(BufferedImage page, int x, int y) {
+        this.pageWidth = getWidth();
+        this.pageHeight = getHeight();
+        this.img = null;
+        this.page = page;
+        this.pageX = x;
+        this.pageY = y;
+    }
+
+    /**
+     * Returns the page of the {@code TextureAtlas}
+     * into which this sprite was packed. If it is
+     * {@code null} that means that the sprite
+     * has an image of its own.
+     * 
+     * @return the page of this sprite
+     */
+    public BufferedImage getPage() {
+        return this.page;
+    }
+
+    /**
+     * Returns the x coordinate of this
+     * sprite on its page.
+     * 
+     * @return the x coordinate on the page
+     */
+    public int getPageX() {
+        return this.pageX;
+    }
+
+    /**
+     * Returns the y coordinate of this
+     * sprite on its page.
+     * 
+     * @return the y coordinate on the page
+     */
+    public int getPageY() {
+        return this.pageY;
+    }
+
     /**
      * Returns this sprite's width in pixels.
      * 
      * @return this sprite's width
      */
     public int getWidth() {
-        return img.getWidth();
+        return page != null ? pageWidth : img.getWidth();
     }
 
     /**
@@ -120,16 +219,22 @@ public class Sprite {
      * @return this sprite's height
      */
     public int getHeight() {
-        return img.getHeight();
+        return page != null ? pageHeight : img.getHeight();
     }
     
     /**
      * Loads this sprite's image and saves it into
-     * the {@code img} property.
+     * the {@code img} property, converted to the
+     * pixel format of the display.
+     * 
+     * @see CompatibleImages#convert(BufferedImage)
      */
     private void load() {
         try {
             img = ImageIO.read(getClass().getResourceAsStream("./../../" + path));
+            if(img != null) {
+                img = CompatibleImages.convert(img);
+            }
         }
         catch(IOException e) {
             e.printStackTrace();
@@ -321,6 +321,10 @@ public class SpriteSheet extends Sprite {
      * Saves each sprite from this sprite sheet
      * into a {@code Sprite} instance and stores
      * them into the {@code sprites} property.
+     * Each sprite gets its own copy of its pixels,
+     * in the pixel format of the display.
+     * 
+     * @see CompatibleImages#convert(BufferedImage)
      */
     private void loadSprites() {
         this.sprites = new Sprite[rows][columns];
@@ -328,11 +332,13 @@ public class SpriteSheet extends Sprite {
         for(int i = 0; i < rows; i++) {
             for(int j = 0; j < columns; j++) {
                 sprites[i][j] = new Sprite (
-                    getImage().getSubimage (
-                        spriteWidth * j + gap * j,
-                        spriteHeight * i + gap * i,
-                        spriteWidth,
-                        spriteHeight
+                    CompatibleImages.convert (
+                        getImage().getSubimage (
+                            spriteWidth * j + gap * j,
+                            spriteHeight * i + gap * i,
+                            spriteWidth,
+                            spriteHeight
+                        )
                     )
                 );
             }
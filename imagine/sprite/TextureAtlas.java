@@ -0,0 +1,583 @@
+package imagine.sprite;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+
+import imagine.render.Blit;
+
+/**
+ * Class that packs many small sprites into a
+ * few large images, the pages, at load time.
+ * <p>
+ * Loose sprites and the frames of sprite sheets
+ * each have an image of their own, so drawing
+ * them jumps between many small images. Once
+ * packed, the region of a page is the only copy
+ * of the pixels of each sprite, which is drawn
+ * and scaled from it, so the sprites of a page
+ * are all read from one image and their own
+ * images are dropped.
+ * <p>
+ * The sprites are placed tallest first with the
+ * skyline bottom left heuristic: each page keeps
+ * the outline of the top of what was placed on it
+ * and every sprite goes where its bottom ends the
+ * lowest. A sprite that fits no page starts a
+ * new one, and pages are cut down to what they
+ * use. The space of the pages not covered by
+ * sprites is reported as wasted.
+ * 
+ * @author Daniel O Sousa
+ */
+public class TextureAtlas {
+
+    /**
+     * The default width and height of the pages.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    /**
+     * The width of the pages.
+     */
+    private int pageWidth;
+
+    /**
+     * The height of the pages.
+     */
+    private int pageHeight;
+
+    /**
+     * How many transparent pixels are left
+     * between the sprites, so that they don't
+     * bleed into each other when scaled with
+     * interpolation.
+     */
+    private int padding;
+
+    /**
+     * The sprites to be packed,
+     * in the order they were added.
+     */
+    private LinkedHashSet<Sprite> sprites = new LinkedHashSet<Sprite>();
+
+    /**
+     * The pages created by the last packing.
+     */
+    private ArrayList<BufferedImage> pages = new ArrayList<BufferedImage>();
+
+    /**
+     * How many pixels of the pages
+     * are covered by sprites.
+     */
+    private long spriteArea = 0;
+
+    /**
+     * How many pixels the pages have.
+     */
+    private long pageArea = 0;
+
+    /**
+     * The time in nanoseconds
+     * the last packing took.
+     */
+    private long packTime = 0;
+
+    /**
+     * Creates a new {@code TextureAtlas} with pages
+     * of {@code DEFAULT_PAGE_SIZE} by
+     * {@code DEFAULT_PAGE_SIZE} pixels and one
+     * pixel of padding between the sprites.
+     */
+    public TextureAtlas() {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE, 1);
+    }
+
+    /**
+     * Creates a new {@code TextureAtlas} with
+     * pages of the passed size and the passed
+     * {@code padding} between the sprites.
+     * 
+     * @param pageWidth the width of the pages
+     * @param pageHeight the height of the pages
+     * @param padding how many pixels are
+     * left between the sprites
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code pageWidth} or the {@code pageHeight}
+     * argument is not positive or if the
+     * {@code padding} argument is negative
+     */
+    public TextureAtlas(int pageWidth, int pageHeight, int padding) {
+        if(pageWidth <= 0 || pageHeight <= 0) {
+            throw new IllegalArgumentException (
+                "page size must be positive"
+            );
+        }
+        if(padding < 0) {
+            throw new IllegalArgumentException (
+                "padding cannot be negative"
+            );
+        }
+
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.padding = padding;
+    }
+
+    /**
+     * Adds the passed {@code sprite} to be packed.
+     * If it is a {@code SpriteSheet}, each of its
+     * sprites is added instead. A sprite that was
+     * already added is ignored.
+     * 
+     * @param sprite the {@code Sprite} to be added
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code sprite} argument is {@code null}
+     * or has no image
+     */
+    public void add(Sprite sprite) {
+        if(sprite == null) {
+            throw new IllegalArgumentException (
+                "cannot add null sprite"
+            );
+        }
+        if(sprite.getImage() == null) {
+            throw new IllegalArgumentException (
+                "cannot add sprite without image"
+            );
+        }
+
+        if(sprite instanceof SpriteSheet) {
+            for(Sprite[] row : ((SpriteSheet) sprite).getSprites()) {
+                for(Sprite frame : row) {
+                    sprites.add(frame);
+                }
+            }
+        } else {
+            sprites.add(sprite);
+        }
+    }
+
+    /**
+     * Returns how many sprites
+     * were added to be packed.
+     * 
+     * @return the amount of sprites
+     */
+    public int getSpriteCount() {
+        return sprites.size();
+    }
+
+    /**
+     * Packs every added sprite into new pages,
+     * copying their pixels to the pages and making
+     * each region the pixels of its sprite.
+     * The pages of a previous packing are dropped
+     * by this atlas, though sprites that weren't
+     * packed again keep being drawn from them.
+     * <p>
+     * A sprite that, with its padding, doesn't fit
+     * an empty page starts a page large enough
+     * for it.
+     * 
+     * @return how many pages were created
+     */
+    public int pack() {
+        long start = System.nanoTime();
+
+        ArrayList<Sprite> order = new ArrayList<Sprite>(sprites);
+        order.sort (
+            Comparator.comparingInt(Sprite::getHeight).reversed()
+            .thenComparing(Comparator.comparingInt(Sprite::getWidth).reversed())
+        );
+
+        ArrayList<Skyline> skylines = new ArrayList<Skyline>();
+        ArrayList<ArrayList<Placement>> placements = new ArrayList<ArrayList<Placement>>();
+        for(Sprite sprite : order) {
+            int width = sprite.getWidth() + padding;
+            int height = sprite.getHeight() + padding;
+
+            Placement placement = null;
+            int page = -1;
+            if(width <= pageWidth && height <= pageHeight) {
+                while(placement == null && ++page < skylines.size()) {
+                    placement = skylines.get(page).place(sprite, width, height);
+                }
+            }
+            if(placement == null) {
+                skylines.add (
+                    new Skyline(Math.max(width, pageWidth), Math.max(height, pageHeight))
+                );
+                placements.add(new ArrayList<Placement>());
+                page = skylines.size() - 1;
+                placement = skylines.get(page).place(sprite, width, height);
+            }
+
+            placements.get(page).add(placement);
+        }
+
+        pages.clear();
+        spriteArea = 0;
+        pageArea = 0;
+        for(ArrayList<Placement> pagePlacements : placements) {
+            pages.add(drawPage(pagePlacements));
+        }
+
+        packTime = System.nanoTime() - start;
+        return pages.size();
+    }
+
+    /**
+     * Creates a page just large enough for the
+     * passed {@code placements}, copies the pixels
+     * of their sprites onto it and makes the
+     * sprites be drawn from their regions.
+     * 
+     * @param placements where the sprites
+     * of the page are placed
+     * 
+     * @return the created page
+     */
+    private BufferedImage drawPage(ArrayList<Placement> placements) {
+        int width = 1;
+        int height = 1;
+        for(Placement placement : placements) {
+            width = Math.max(width, placement.x + placement.sprite.getWidth());
+            height = Math.max(height, placement.y + placement.sprite.getHeight());
+        }
+
+        BufferedImage page = CompatibleImages.createCompatibleImage (
+            width, height, Transparency.TRANSLUCENT
+        );
+        Graphics2D g2 = page.createGraphics();
+        g2.setComposite(AlphaComposite.Src);
+        for(Placement placement : placements) {
+            Sprite sprite = placement.sprite;
+            Blit.drawSprite (
+                g2, sprite,
+                placement.x, placement.y,
+                sprite.getWidth(), sprite.getHeight()
+            );
+        }
+        g2.dispose();
+
+        for(Placement placement : placements) {
+            Sprite sprite = placement.sprite;
+            spriteArea += (long) sprite.getWidth() * sprite.getHeight();
+            sprite.storeRegion(page, placement.x, placement.y);
+        }
+        pageArea += (long) width * height;
+
+        return page;
+    }
+
+    /**
+     * Returns how many pages
+     * the last packing created.
+     * 
+     * @return the amount of pages
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns the page at the
+     * passed {@code index}.
+     * 
+     * @param index the index of the page
+     * 
+     * @return the page at the {@code index}
+     * 
+     * @throws IndexOutOfBoundsException if the
+     * {@code index} argument is out of range
+     */
+    public BufferedImage getPage(int index) {
+        if(index < 0 || index >= pages.size()) {
+            throw new IndexOutOfBoundsException (
+                "page index out of range"
+            );
+        }
+
+        return pages.get(index);
+    }
+
+    /**
+     * Returns how many pixels of the
+     * pages are covered by sprites.
+     * 
+     * @return the area of the sprites
+     */
+    public long getSpriteArea() {
+        return this.spriteArea;
+    }
+
+    /**
+     * Returns how many pixels the pages have.
+     * 
+     * @return the area of the pages
+     */
+    public long getPageArea() {
+        return this.pageArea;
+    }
+
+    /**
+     * Returns how many pixels of the pages
+     * are not covered by any sprite.
+     * 
+     * @return the wasted area
+     */
+    public long getWastedArea() {
+        return pageArea - spriteArea;
+    }
+
+    /**
+     * Returns the fraction of the pixels of
+     * the pages that are not covered by any
+     * sprite. {@code 0} is returned if
+     * nothing was packed.
+     * 
+     * @return the wasted fraction
+     */
+    public double getWastedFraction() {
+        return pageArea == 0 ? 0 : (double) getWastedArea() / pageArea;
+    }
+
+    /**
+     * Returns the time in nanoseconds
+     * the last packing took.
+     * 
+     * @return the pack time
+     */
+    public long getPackTime() {
+        return this.packTime;
+    }
+
+    /**
+     * Returns a line of text describing the last
+     * packing: how many sprites were packed into
+     * how many pages, the area of both and how
+     * much of the pages is wasted.
+     * 
+     * @return the report of the packing
+     */
+    public String getReport() {
+        return String.format (
+            "%d sprites in %d pages: %d of %d pixels used, %d wasted (%.1f%%), packed in %.2f ms",
+            sprites.size(), pages.size(), spriteArea, pageArea,
+            getWastedArea(), getWastedFraction() * 100, packTime / 1000000.0
+        );
+    }
+
+    /**
+     * Where a sprite is placed on its page.
+     */
+    private static class Placement {
+
+        /**
+         * The placed sprite.
+         */
+        private final Sprite sprite;
+
+        /**
+         * The x coordinate of the
+         * sprite on the page.
+         */
+        private final int x;
+
+        /**
+         * The y coordinate of the
+         * sprite on the page.
+         */
+        private final int y;
+
+        /**
+         * Creates a new {@code Placement}.
+         * 
+         * @param sprite the placed sprite
+         * @param x the x coordinate on the page
+         * @param y the y coordinate on the page
+         */
+        private Placement(Sprite sprite, int x, int y) {
+            this.sprite = sprite;
+            this.x = x;
+            this.y = y;
+        }
+
+    }
+
+    /**
+     * The outline of the top of what was placed
+     * on a page, kept as horizontal segments
+     * from left to right.
+     */
+    private static class Skyline {
+
+        /**
+         * The width of the page.
+         */
+        private final int width;
+
+        /**
+         * The height of the page.
+         */
+        private final int height;
+
+        /**
+         * The x coordinate where each segment starts.
+         */
+        private final ArrayList<Integer> xs = new ArrayList<Integer>();
+
+        /**
+         * The height of each segment.
+         */
+        private final ArrayList<Integer> ys = new ArrayList<Integer>();
+
+        /**
+         * The width of each segment.
+         */
+        private final ArrayList<Integer> widths = new ArrayList<Integer>();
+
+        /**
+         * Creates the skyline of an
+         * empty page of the passed size.
+         * 
+         * @param width the width of the page
+         * @param height the height of the page
+         */
+        private Skyline(int width, int height) {
+            this.width = width;
+            this.height = height;
+            xs.add(0);
+            ys.add(0);
+            widths.add(width);
+        }
+
+        /**
+         * Finds where an area of {@code areaWidth}
+         * by {@code areaHeight} ends the lowest
+         * on the page and raises the skyline over
+         * it. {@code null} is returned if the
+         * area fits nowhere.
+         * 
+         * @param sprite the sprite being placed
+         * @param areaWidth the width of the area
+         * @param areaHeight the height of the area
+         * 
+         * @return where the sprite was
+         * placed or {@code null}
+         */
+        private Placement place(Sprite sprite, int areaWidth, int areaHeight) {
+            int bestIndex = -1;
+            int bestBottom = Integer.MAX_VALUE;
+            int bestWidth = Integer.MAX_VALUE;
+            int bestY = 0;
+            for(int i = 0; i < xs.size(); i++) {
+                int y = fit(i, areaWidth, areaHeight);
+                if(y < 0) {
+                    continue;
+                }
+
+                int bottom = y + areaHeight;
+                if (
+                    bottom < bestBottom ||
+                    bottom == bestBottom && widths.get(i) < bestWidth
+                ) {
+                    bestIndex = i;
+                    bestBottom = bottom;
+                    bestWidth = widths.get(i);
+                    bestY = y;
+                }
+            }
+            if(bestIndex < 0) {
+                return null;
+            }
+
+            int x = xs.get(bestIndex);
+            raise(bestIndex, x, bestY + areaHeight, areaWidth);
+            return new Placement(sprite, x, bestY);
+        }
+
+        /**
+         * Returns the y coordinate an area whose left
+         * side is at the start of the segment at
+         * {@code index} would have, resting on the
+         * highest segment under it, or {@code -1}
+         * if it would leave the page.
+         * 
+         * @param index the index of the segment
+         * @param areaWidth the width of the area
+         * @param areaHeight the height of the area
+         * 
+         * @return the y coordinate of the
+         * area or {@code -1}
+         */
+        private int fit(int index, int areaWidth, int areaHeight) {
+            if(xs.get(index) + areaWidth > width) {
+                return -1;
+            }
+
+            int y = 0;
+            int remaining = areaWidth;
+            for(int i = index; remaining > 0; i++) {
+                y = Math.max(y, ys.get(i));
+                if(y + areaHeight > height) {
+                    return -1;
+                }
+                remaining -= widths.get(i);
+            }
+            return y;
+        }
+
+        /**
+         * Inserts a segment at {@code index} with the
+         * passed coordinates and width, cuts the
+         * segments it covers and merges neighbour
+         * segments of the same height.
+         * 
+         * @param index where the segment is inserted
+         * @param x the x coordinate of the segment
+         * @param y the height of the segment
+         * @param segmentWidth the width of the segment
+         */
+        private void raise(int index, int x, int y, int segmentWidth) {
+            xs.add(index, x);
+            ys.add(index, y);
+            widths.add(index, segmentWidth);
+
+            int right = x + segmentWidth;
+            int i = index + 1;
+            while(i < xs.size() && xs.get(i) < right) {
+                int cut = right - xs.get(i);
+                if(cut >= widths.get(i)) {
+                    xs.remove(i);
+                    ys.remove(i);
+                    widths.remove(i);
+                } else {
+                    xs.set(i, xs.get(i) + cut);
+                    widths.set(i, widths.get(i) - cut);
+                    break;
+                }
+            }
+
+            for(i = 0; i < xs.size() - 1; ) {
+                if(ys.get(i).equals(ys.get(i + 1))) {
+                    widths.set(i, widths.get(i) + widths.get(i + 1));
+                    xs.remove(i + 1);
+                    ys.remove(i + 1);
+                    widths.remove(i + 1);
+                } else {
+                    i++;
+                }
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package imagine.stage;
 
+import java.awt.Graphics2D;
+
 import imagine.sprite.*;
+import imagine.render.Blit;
 import imagine.camera.Camera;
 
 /**
@@ -183,6 +186,34 @@ public abstract class AnimatableStageElement extends StageElement {
         }
     }
 
+    /**
+     * Draws the current frame of this
+     * {@code AnimatableStageElement} with its top
+     * left corner at {@code x} and {@code y}, at the
+     * size of {@code width} by {@code height}. If that
+     * isn't the size of the frame, its scaled copy is
+     * taken from the {@code ScaledSpriteCache} of the
+     * {@code Game}, so it is only scaled once.
+     * 
+     * @param g2 the {@code Graphics2D} to draw with
+     * @param x the x coordinate of the drawing
+     * @param y the y coordinate of the drawing
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     */
+    public void drawCurrentFrame(Graphics2D g2, int x, int y, int width, int height) {
+        Sprite frame = getCurrentFrame();
+        if(frame == null) {
+            return;
+        }
+
+        if(getGame() != null) {
+            getGame().getScaledSpriteCache().draw(g2, frame, x, y, width, height);
+        } else {
+            Blit.drawSprite(g2, frame, x, y, width, height);
+        }
+    }
+
     /**
      * Returns the {@code Camera} of the
      * {@code Stage} that contains this
@@ -238,4 +269,78 @@ public abstract class AnimatableStageElement extends StageElement {
         }
     }
 
+    /**
+     * Returns the interpolated x coordinate
+     * of the {@code Camera} of the {@code Stage}
+     * that contains this
+     * {@code AnimatableStageElement}.
+     * 
+     * @return the interpolated x coordinate
+     * of the {@code Camera}
+     * 
+     * @see StageElement#getInterpolatedX()
+     */
+    public int getInterpolatedCameraX() {
+        if(getCamera() != null) {
+            return getCamera().getInterpolatedX();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the interpolated y coordinate
+     * of the {@code Camera} of the {@code Stage}
+     * that contains this
+     * {@code AnimatableStageElement}.
+     * 
+     * @return the interpolated y coordinate
+     * of the {@code Camera}
+     * 
+     * @see StageElement#getInterpolatedY()
+     */
+    public int getInterpolatedCameraY() {
+        if(getCamera() != null) {
+            return getCamera().getInterpolatedY();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the x coordinate of the
+     * {@code Camera} of the {@code Stage}
+     * that contains this
+     * {@code AnimatableStageElement}
+     * before the last update.
+     * 
+     * @return the previous x coordinate
+     * of the {@code Camera}
+     */
+    public int getPreviousCameraX() {
+        if(getCamera() != null) {
+            return getCamera().getPreviousX();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the y coordinate of the
+     * {@code Camera} of the {@code Stage}
+     * that contains this
+     * {@code AnimatableStageElement}
+     * before the last update.
+     * 
+     * @return the previous y coordinate
+     * of the {@code Camera}
+     */
+    public int getPreviousCameraY() {
+        if(getCamera() != null) {
+            return getCamera().getPreviousY();
+        } else {
+            return 0;
+        }
+    }
+
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package imagine.stage;
 
 import java.util.ArrayList;
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 import imagine.flow.GameFluid;
 import imagine.game.Game;
@@ -9,6 +12,15 @@ import imagine.scenario.Scenario;
 import imagine.object.GameObject;
 import imagine.camera.*;
 import imagine.camera.type.CameraType;
+import imagine.render.DirtyRegions;
+import imagine.render.RenderBackend;
+import imagine.render.RenderQueue;
+import imagine.render.RenderSnapshot;
+import imagine.schedule.TickScheduler;
+import imagine.sprite.CompatibleImages;
+import imagine.script.ScriptScheduler;
+import imagine.job.JobGraph;
+import imagine.job.Phase;
 
 /**
  * Class for creating a stage for a {@code Game}.
@@ -57,6 +69,173 @@ public abstract class Stage implements GameFluid {
      */
     private Camera camera;
 
+    /**
+     * How far, between {@code 0} and {@code 1},
+     * the current drawing of this {@code Stage}
+     * is from the last update to the next one.
+     * Outside of a drawing it is {@code 1}.
+     */
+    private double interpolation = 1;
+
+    /**
+     * Schedules callbacks that are run
+     * as this {@code Stage} is updated.
+     */
+    private TickScheduler scheduler = new TickScheduler();
+
+    /**
+     * Resumes the scripts of the elements
+     * of this {@code Stage} once per update.
+     */
+    private ScriptScheduler scriptScheduler = new ScriptScheduler(scheduler);
+
+    /**
+     * The default amount of objects
+     * updated by each chunk of the
+     * objects phase, which is {@code 64}.
+     */
+    public static final int DEFAULT_OBJECT_CHUNK_SIZE = 64;
+
+    /**
+     * The phases of the update of this
+     * {@code Stage}: backgrounds, objects,
+     * foregrounds and camera.
+     */
+    private JobGraph updateJobs = new JobGraph();
+
+    /**
+     * Tells if debug overlays, like the
+     * {@code CameraGrid}, may be drawn.
+     * <p>
+     * Is initially set to {@code true}.
+     */
+    private boolean drawDebugOverlays = true;
+
+    /**
+     * The maximum amount of detail layers drawn
+     * among the backgrounds, and among the
+     * foregrounds, of this {@code Stage}.
+     */
+    private int detailLayerLimit = Integer.MAX_VALUE;
+
+    /**
+     * Every how many ticks the objects out
+     * of the screen should be animated.
+     * <p>
+     * Is initially set to {@code 1}.
+     */
+    private int offScreenAnimationInterval = 1;
+
+    /**
+     * Tells if the objects and scenarios out
+     * of the view of the camera are left out
+     * of the drawing.
+     * <p>
+     * Is initially set to {@code true}.
+     */
+    private boolean culling = true;
+
+    /**
+     * How many pixels, on every side, the view
+     * of the camera is grown by when culling, so
+     * that drawings that go a little beyond the
+     * bounds of an element aren't cut.
+     * <p>
+     * Is initially set to {@code 0}.
+     */
+    private int cullingMargin = 0;
+
+    /**
+     * How many objects were drawn
+     * on the last frame.
+     */
+    private int drawnObjects = 0;
+
+    /**
+     * How many objects were culled
+     * on the last frame.
+     */
+    private int culledObjects = 0;
+
+    /**
+     * How many scenarios were drawn
+     * on the last frame.
+     */
+    private int drawnScenarios = 0;
+
+    /**
+     * How many scenarios were culled
+     * on the last frame.
+     */
+    private int culledScenarios = 0;
+
+    /**
+     * Finds which parts of the screen changed
+     * when this {@code Stage} is drawn in
+     * dirty redraw mode.
+     */
+    private DirtyRegions dirtyRegions = new DirtyRegions();
+
+    /**
+     * The queue in which the frames are
+     * described in dirty redraw mode.
+     */
+    private RenderQueue dirtyQueue;
+
+    /**
+     * The queue with the commands of the
+     * {@code dirtyQueue} that touch the dirty
+     * rectangle being redrawn.
+     */
+    private RenderQueue dirtyRectangleQueue;
+
+    /**
+     * The frame kept between drawings in dirty
+     * redraw mode, on which only the dirty
+     * rectangles are redrawn.
+     */
+    private BufferedImage backBuffer;
+
+    /**
+     * The interpolated x coordinate of the camera
+     * on the last drawing in dirty redraw mode.
+     */
+    private int lastCameraX;
+
+    /**
+     * The interpolated y coordinate of the camera
+     * on the last drawing in dirty redraw mode.
+     */
+    private int lastCameraY;
+
+    /**
+     * The default interval in game ticks between
+     * two updates of a stage simulated in the
+     * background, which is {@code 4}.
+     */
+    public static final int DEFAULT_BACKGROUND_TICK_INTERVAL = 4;
+
+    /**
+     * Tells if this {@code Stage} keeps being
+     * updated while it isn't selected.
+     * <p>
+     * Is initially set to {@code false}.
+     */
+    private volatile boolean backgroundSimulated = false;
+
+    /**
+     * Every how many game ticks this
+     * {@code Stage} is updated while
+     * simulated in the background.
+     */
+    private volatile int backgroundTickInterval = DEFAULT_BACKGROUND_TICK_INTERVAL;
+
+    /**
+     * Tells if this {@code Stage}
+     * was already started.
+     */
+    private volatile boolean started = false;
+
     /**
      * Creates a new {@code Stage} that will
      * belong to the passed {@code game}.
@@ -67,6 +246,52 @@ public abstract class Stage implements GameFluid {
     public Stage(Game game) {
         storeGame(game);
         createCamera();
+        createUpdateJobs();
+    }
+
+    /**
+     * Declares the phases of the update of
+     * this {@code Stage}. Backgrounds, objects
+     * and foregrounds don't depend on each other,
+     * while the camera is updated after all of
+     * them, since it may follow an object. When
+     * run one after another, the phases keep the
+     * order in which they were always updated.
+     */
+    private void createUpdateJobs() {
+        Phase backgroundsPhase = updateJobs.addPhase (
+            "backgrounds", this::updateBackgrounds
+        );
+        Phase objectsPhase = updateJobs.addChunkedPhase (
+            "objects",
+            () -> objects.size(),
+            DEFAULT_OBJECT_CHUNK_SIZE,
+            this::updateObjects
+        );
+        Phase foregroundsPhase = updateJobs.addPhase (
+            "foregrounds", this::updateForegrounds
+        );
+        updateJobs.addPhase (
+            "camera", this::updateCamera,
+            backgroundsPhase, objectsPhase, foregroundsPhase
+        );
+    }
+
+    /**
+     * Returns the {@code JobGraph} with the phases
+     * of the update of this {@code Stage}, which
+     * can be used to see how long each phase takes,
+     * to add phases or to run them in parallel.
+     * <p>
+     * Running in parallel should only be enabled
+     * if the elements of this {@code Stage} don't
+     * touch each other when updated, since objects
+     * are then updated by many threads at once.
+     * 
+     * @return the {@code JobGraph} of the update
+     */
+    public JobGraph getUpdateJobs() {
+        return this.updateJobs;
     }
 
     /**
@@ -95,6 +320,34 @@ public abstract class Stage implements GameFluid {
         return this.game;
     }
 
+    /**
+     * Returns the {@code TickScheduler} of this
+     * {@code Stage}, which is advanced at the
+     * beginning of every update of this
+     * {@code Stage}. Its tasks are only run while
+     * this {@code Stage} is the one being updated.
+     * 
+     * @return the {@code TickScheduler}
+     * 
+     * @see Game#getScheduler()
+     */
+    public TickScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Returns the {@code ScriptScheduler} of this
+     * {@code Stage}, which resumes its scripts
+     * at the beginning of every update of this
+     * {@code Stage}, right after its
+     * {@code TickScheduler} is advanced.
+     * 
+     * @return the {@code ScriptScheduler}
+     */
+    public ScriptScheduler getScriptScheduler() {
+        return this.scriptScheduler;
+    }
+
     /**
      * Returns the width of the {@code GamePanel}
      * where this {@code Stage} is exhibited.
@@ -543,7 +796,7 @@ public abstract class Stage implements GameFluid {
         }
 
         GameObject removedObject = objects.remove(objects.size() - 1);
-        removedObject.setStage(null);
+        detachObject(removedObject);
         return removedObject;
     }
 
@@ -574,7 +827,7 @@ public abstract class Stage implements GameFluid {
         }
 
         GameObject removedObject = objects.remove(position);
-        removedObject.setStage(null);
+        detachObject(removedObject);
         return removedObject;
     }
 
@@ -587,7 +840,7 @@ public abstract class Stage implements GameFluid {
      */
     public void removeObject(GameObject object) {
         if(objects.remove(object)) {
-            object.setStage(null);
+            detachObject(object);
         }
     }
 
@@ -605,10 +858,28 @@ public abstract class Stage implements GameFluid {
         }
 
         GameObject removedObject = objects.remove(0);
-        removedObject.setStage(null);
+        detachObject(removedObject);
         return removedObject;
     }
 
+    /**
+     * Cancels the scripts of the passed
+     * {@code object}, just removed from this
+     * {@code Stage}, and takes it out of it.
+     * The scripts are cancelled while it still
+     * has its {@code Stage}, so that they may
+     * clean up after themselves.
+     * 
+     * @param object the removed {@code GameObject}
+     */
+    private void detachObject(GameObject object) {
+        try {
+            object.cancelScripts();
+        } finally {
+            object.setStage(null);
+        }
+    }
+
     /**
      * Returns an {@code ArrayList} containing
      * the objects of this {@code Stage}.
@@ -980,6 +1251,334 @@ public abstract class Stage implements GameFluid {
         return camera.getDrawGrid();
     }
 
+    /**
+     * Defines if the debug overlays of this
+     * {@code Stage}, like the {@code CameraGrid},
+     * may be drawn. When {@code false}, they
+     * aren't drawn even if configured to be.
+     * 
+     * @param drawDebugOverlays boolean specifying
+     * if the debug overlays may be drawn
+     */
+    public void setDrawDebugOverlays(boolean drawDebugOverlays) {
+        this.drawDebugOverlays = drawDebugOverlays;
+    }
+
+    /**
+     * Returns {@code true} if the debug
+     * overlays of this {@code Stage} may be
+     * drawn and {@code false} otherwise.
+     * 
+     * @return boolean specifying if the
+     * debug overlays may be drawn
+     */
+    public boolean getDrawDebugOverlays() {
+        return this.drawDebugOverlays;
+    }
+
+    /**
+     * Sets the maximum amount of scenarios marked
+     * as detail layers that are drawn among the
+     * backgrounds, and among the foregrounds, of
+     * this {@code Stage}. The furthest detail
+     * layers are the first to be left out, while
+     * scenarios that aren't detail layers are
+     * always drawn.
+     * 
+     * @param detailLayerLimit the limit to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code detailLayerLimit} argument is negative
+     * 
+     * @see Scenario#setDetailLayer(boolean)
+     */
+    public void setDetailLayerLimit(int detailLayerLimit) {
+        if(detailLayerLimit < 0) {
+            throw new IllegalArgumentException (
+                "detail layer limit cannot be negative"
+            );
+        }
+
+        this.detailLayerLimit = detailLayerLimit;
+    }
+
+    /**
+     * Returns the maximum amount of detail
+     * layers drawn among the backgrounds, and
+     * among the foregrounds, of this {@code Stage}.
+     * 
+     * @return the detail layer limit
+     */
+    public int getDetailLayerLimit() {
+        return this.detailLayerLimit;
+    }
+
+    /**
+     * Configures if the objects and scenarios
+     * of this {@code Stage} that are out of the
+     * view of the camera, taking into account the
+     * parallax of the scenarios, should be left
+     * out of the drawing. A culled element isn't
+     * drawn at all, so neither are the drawings
+     * of its {@code onDraw} method.
+     * 
+     * @param culling boolean specifying if
+     * culling should be done
+     * 
+     * @see #setCullingMargin(int)
+     */
+    public void setCulling(boolean culling) {
+        this.culling = culling;
+    }
+
+    /**
+     * Returns {@code true} if the elements out
+     * of the view of the camera are left out of
+     * the drawing and {@code false} otherwise.
+     * 
+     * @return boolean specifying if
+     * culling is done
+     */
+    public boolean getCulling() {
+        return this.culling;
+    }
+
+    /**
+     * Sets how many pixels, on every side, the
+     * view of the camera is grown by when culling.
+     * Elements whose drawings go beyond their
+     * bounds, like a collision mask, need a
+     * margin to not be culled too early.
+     * 
+     * @param cullingMargin the margin to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code cullingMargin} argument is negative
+     */
+    public void setCullingMargin(int cullingMargin) {
+        if(cullingMargin < 0) {
+            throw new IllegalArgumentException (
+                "culling margin cannot be negative"
+            );
+        }
+
+        this.cullingMargin = cullingMargin;
+    }
+
+    /**
+     * Returns how many pixels, on every side,
+     * the view of the camera is grown by
+     * when culling.
+     * 
+     * @return the culling margin
+     */
+    public int getCullingMargin() {
+        return this.cullingMargin;
+    }
+
+    /**
+     * Returns how many objects of this
+     * {@code Stage} were drawn, or captured,
+     * on the last frame.
+     * 
+     * @return the amount of drawn objects
+     */
+    public int getDrawnObjects() {
+        return this.drawnObjects;
+    }
+
+    /**
+     * Returns how many objects of this
+     * {@code Stage} were culled on the
+     * last frame.
+     * 
+     * @return the amount of culled objects
+     */
+    public int getCulledObjects() {
+        return this.culledObjects;
+    }
+
+    /**
+     * Returns how many backgrounds and
+     * foregrounds of this {@code Stage} were
+     * drawn, or captured, on the last frame.
+     * 
+     * @return the amount of drawn scenarios
+     */
+    public int getDrawnScenarios() {
+        return this.drawnScenarios;
+    }
+
+    /**
+     * Returns how many backgrounds and
+     * foregrounds of this {@code Stage}
+     * were culled on the last frame.
+     * 
+     * @return the amount of culled scenarios
+     */
+    public int getCulledScenarios() {
+        return this.culledScenarios;
+    }
+
+    /**
+     * Sets every how many ticks the objects out
+     * of the screen should be animated. With
+     * {@code 1}, every object is animated on
+     * every tick.
+     * 
+     * @param offScreenAnimationInterval the
+     * interval in ticks to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code offScreenAnimationInterval}
+     * argument isn't positive
+     * 
+     * @see GameObject#shouldAnimate()
+     */
+    public void setOffScreenAnimationInterval(int offScreenAnimationInterval) {
+        if(offScreenAnimationInterval <= 0) {
+            throw new IllegalArgumentException (
+                "off screen animation interval must be positive"
+            );
+        }
+
+        this.offScreenAnimationInterval = offScreenAnimationInterval;
+    }
+
+    /**
+     * Returns every how many ticks the objects
+     * out of the screen should be animated.
+     * 
+     * @return the off screen animation interval
+     */
+    public int getOffScreenAnimationInterval() {
+        return this.offScreenAnimationInterval;
+    }
+
+    /**
+     * Defines if this {@code Stage} should keep being
+     * updated while it isn't selected. Such a stage
+     * is updated by the {@code BackgroundSimulator}
+     * of its game once every background tick interval,
+     * without being drawn, and isn't started again when
+     * selected after its first start, so its world
+     * goes on while the player is away.
+     * <p>
+     * While simulated in the background, this stage is
+     * updated on a worker thread, at the same time as
+     * the rest of the update and the drawing of the
+     * game. Its elements should only touch the state of
+     * the stage itself: they must not touch the current
+     * stage or any other stage and their elements, add
+     * or remove stages, schedule tasks on the
+     * {@code TickScheduler} of the game or change its
+     * settings. Reading the keys of the game is safe,
+     * since the batch always finishes before the next
+     * input is polled, and selecting a stage is
+     * deferred to the beginning of the next update.
+     * 
+     * @param backgroundSimulated boolean specifying if
+     * this stage should be simulated in the background
+     * 
+     * @see #setBackgroundTickInterval(int)
+     */
+    public void setBackgroundSimulated(boolean backgroundSimulated) {
+        this.backgroundSimulated = backgroundSimulated;
+        if(backgroundSimulated && game != null) {
+            game.getBackgroundSimulator();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this {@code Stage}
+     * keeps being updated while it isn't selected
+     * and {@code false} otherwise.
+     * 
+     * @return boolean specifying if this stage
+     * is simulated in the background
+     */
+    public boolean isBackgroundSimulated() {
+        return this.backgroundSimulated;
+    }
+
+    /**
+     * Sets every how many game ticks this
+     * {@code Stage} is updated while simulated
+     * in the background.
+     * 
+     * @param backgroundTickInterval the
+     * interval in ticks to be set
+     * 
+     * @throws IllegalArgumentException if the
+     * {@code backgroundTickInterval} argument
+     * isn't positive
+     */
+    public void setBackgroundTickInterval(int backgroundTickInterval) {
+        if(backgroundTickInterval <= 0) {
+            throw new IllegalArgumentException (
+                "background tick interval must be positive"
+            );
+        }
+
+        this.backgroundTickInterval = backgroundTickInterval;
+    }
+
+    /**
+     * Returns every how many game ticks
+     * this {@code Stage} is updated while
+     * simulated in the background.
+     * 
+     * @return the background tick interval
+     */
+    public int getBackgroundTickInterval() {
+        return this.backgroundTickInterval;
+    }
+
+    /**
+     * Returns {@code true} if this {@code Stage}
+     * was already started and {@code false}
+     * otherwise.
+     * 
+     * @return boolean specifying if this
+     * stage was started
+     */
+    public boolean isStarted() {
+        return this.started;
+    }
+
+    /**
+     * Returns how far, between {@code 0} and {@code 1},
+     * the current drawing of this {@code Stage} is from
+     * the last update to the next one. When this
+     * {@code Stage} is not being drawn, {@code 1}
+     * is returned.
+     * 
+     * @return the interpolation of the drawing
+     */
+    public double getInterpolation() {
+        return this.interpolation;
+    }
+
+    /**
+     * Stores the current coordinates of the
+     * backgrounds, objects, foregrounds and
+     * camera of this {@code Stage} as their
+     * previous coordinates, from which their
+     * drawings are interpolated.
+     */
+    private void storePreviousCoordinates() {
+        for(Scenario background : backgrounds) {
+            background.storePreviousCoordinates();
+        }
+        for(GameObject object : objects) {
+            object.storePreviousCoordinates();
+        }
+        for(Scenario foreground : foregrounds) {
+            foreground.storePreviousCoordinates();
+        }
+        camera.storePreviousCoordinates();
+    }
+
     /**
      * Starts every background of this
      * {@code Stage} from the furthest to
@@ -1006,16 +1605,50 @@ public abstract class Stage implements GameFluid {
      * Draws every background of this
      * {@code Stage} from the furthest to
      * the closest to the camera.
+     * Detail layers beyond the detail
+     * layer limit are left out.
      * 
      * @param g2 a {@code Graphics2D} with
      * which the backgrounds are drawn
      */
     private void drawBackgrounds(Graphics2D g2) {
+        int skipped = getSkippedDetailLayers(backgrounds);
         for(int i = backgrounds.size() - 1; i >= 0; i--) {
-            backgrounds.get(i).draw(g2);
+            Scenario background = backgrounds.get(i);
+            if(background.isDetailLayer() && skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if(cull(background, false)) {
+                continue;
+            }
+
+            background.draw(g2);
         }
     }
 
+    /**
+     * Returns how many of the furthest detail
+     * layers among the passed {@code scenarios}
+     * are left out to respect the detail
+     * layer limit.
+     * 
+     * @param scenarios the backgrounds
+     * or the foregrounds
+     * 
+     * @return how many detail layers are skipped
+     */
+    private int getSkippedDetailLayers(ArrayList<Scenario> scenarios) {
+        int detailLayers = 0;
+        for(Scenario scenario : scenarios) {
+            if(scenario.isDetailLayer()) {
+                detailLayers++;
+            }
+        }
+
+        return Math.max(0, detailLayers - detailLayerLimit);
+    }
+
     /**
      * Starts every object of this
      * {@code Stage}.
@@ -1027,28 +1660,111 @@ public abstract class Stage implements GameFluid {
     }
 
     /**
-     * Updates every object of this
-     * {@code Stage}.
+     * Updates the objects of this {@code Stage}
+     * from the position {@code from}, inclusive,
+     * to the position {@code to}, exclusive.
+     * 
+     * @param from the position of the first object
+     * @param to the position after the last object
      */
-    private void updateObjects() {
-        for(GameObject object : objects) {
-            object.update();
+    private void updateObjects(int from, int to) {
+        for(int i = from; i < to; i++) {
+            objects.get(i).update();
         }
     }
 
     /**
      * Draws every object of this
-     * {@code Stage}.
+     * {@code Stage} that isn't culled.
      * 
      * @param g2 a {@code Graphics2D} with
      * which the objects are drawn
      */
     private void drawObjects(Graphics2D g2) {
         for(GameObject object : objects) {
+            if(cull(object, false)) {
+                continue;
+            }
+
             object.draw(g2);
         }
     }
 
+    /**
+     * Clears the amounts of drawn and
+     * culled elements, before a frame.
+     */
+    private void resetCullingCounts() {
+        drawnObjects = 0;
+        culledObjects = 0;
+        drawnScenarios = 0;
+        culledScenarios = 0;
+    }
+
+    /**
+     * Returns {@code true} if the passed
+     * {@code object} should be culled, counting
+     * it as culled or drawn. When capturing, the
+     * object is only culled if it is out of the
+     * view both on the last update and on the
+     * previous one, since the snapshot may be
+     * drawn anywhere between them.
+     * 
+     * @param object the object to verify
+     * @param capturing if the object
+     * is being captured
+     * 
+     * @return boolean telling if the
+     * object is culled
+     */
+    private boolean cull(GameObject object, boolean capturing) {
+        boolean inView = !culling || object.isInView(cullingMargin);
+        if(!inView && capturing) {
+            interpolation = 0;
+            inView = object.isInView(cullingMargin);
+            interpolation = 1;
+        }
+
+        if(inView) {
+            drawnObjects++;
+        } else {
+            culledObjects++;
+        }
+        return !inView;
+    }
+
+    /**
+     * Returns {@code true} if the passed
+     * {@code scenario} should be culled, counting
+     * it as culled or drawn. When capturing, the
+     * scenario is only culled if it is out of the
+     * view both on the last update and on the
+     * previous one, since the snapshot may be
+     * drawn anywhere between them.
+     * 
+     * @param scenario the scenario to verify
+     * @param capturing if the scenario
+     * is being captured
+     * 
+     * @return boolean telling if the
+     * scenario is culled
+     */
+    private boolean cull(Scenario scenario, boolean capturing) {
+        boolean inView = !culling || scenario.isInView(cullingMargin);
+        if(!inView && capturing) {
+            interpolation = 0;
+            inView = scenario.isInView(cullingMargin);
+            interpolation = 1;
+        }
+
+        if(inView) {
+            drawnScenarios++;
+        } else {
+            culledScenarios++;
+        }
+        return !inView;
+    }
+
     /**
      * Starts every foreground of this
      * {@code Stage} from the furthest to
@@ -1075,13 +1791,25 @@ public abstract class Stage implements GameFluid {
      * Draws every foreground of this
      * {@code Stage} from the furthest to
      * the closest to the camera.
+     * Detail layers beyond the detail
+     * layer limit are left out.
      * 
      * @param g2 a {@code Graphics2D} with
      * which the foregrounds are drawn
      */
     private void drawForegrounds(Graphics2D g2) {
+        int skipped = getSkippedDetailLayers(foregrounds);
         for(int i = foregrounds.size() - 1; i >= 0; i--) {
-            foregrounds.get(i).draw(g2);
+            Scenario foreground = foregrounds.get(i);
+            if(foreground.isDetailLayer() && skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if(cull(foreground, false)) {
+                continue;
+            }
+
+            foreground.draw(g2);
         }
     }
 
@@ -1102,14 +1830,16 @@ public abstract class Stage implements GameFluid {
     }
 
     /**
-     * Draws the camera of this
-     * {@code Stage}.
+     * Draws the camera of this {@code Stage},
+     * if debug overlays may be drawn.
      * 
      * @param g2 a {@code Graphics2D} instance
      * with which the camera can be drawn
      */
     private void drawCamera(Graphics2D g2) {
-        camera.draw(g2);;
+        if(drawDebugOverlays) {
+            camera.draw(g2);
+        }
     }
 
     /**
@@ -1119,14 +1849,23 @@ public abstract class Stage implements GameFluid {
      * <p>
      * Also Executes this {@code Stage}'s
      * {@code onStart} method.
+     * <p>
+     * The scripts still running from a previous
+     * start are cancelled first, so that entering
+     * this {@code Stage} again doesn't run the
+     * scripts started by the {@code onStart}
+     * methods twice.
      * 
      * @see #onStart()
      */
     public void start() {
+        scriptScheduler.cancelAll();
         startBackgrounds();
         startObjects();
         startForegrounds();
         startCamera();
+        storePreviousCoordinates();
+        started = true;
 
         onStart();
     }
@@ -1143,7 +1882,12 @@ public abstract class Stage implements GameFluid {
      * frame to call the {@code update}
      * method of the backgrounds, objects,
      * foregrounds and camera of this
-     * {@code Stage}.
+     * {@code Stage}, after running the tasks
+     * of its {@code TickScheduler} that
+     * expire on this update and resuming
+     * the scripts that are ready.
+     * The elements are updated through the
+     * phases of its update {@code JobGraph}.
      * <p>
      * This method also calls this
      * {@code Stage}'s {@code onUpdate}
@@ -1152,10 +1896,10 @@ public abstract class Stage implements GameFluid {
      * @see #onUpdate()
      */
     public void update() {
-        updateBackgrounds();
-        updateObjects();
-        updateForegrounds();
-        updateCamera();
+        storePreviousCoordinates();
+        scheduler.tick();
+        scriptScheduler.resume();
+        updateJobs.run();
 
         onUpdate();
     }
@@ -1184,12 +1928,358 @@ public abstract class Stage implements GameFluid {
      * @see #onDraw(Graphics2D)
      */
     public void draw(Graphics2D g2) {
+        draw(g2, 1);
+    }
+
+    /**
+     * This method is executed every frame
+     * to draw this {@code Stage} the same way
+     * as {@code draw(Graphics2D)}, but having
+     * the positions of its elements blended
+     * between the last two updates according
+     * to the {@code alpha} argument.
+     * 
+     * @param g2 the {@code Graphics2D} instance
+     *           to draw this {@code Stage}'s
+     *           objects with
+     * @param alpha how far, between {@code 0} and
+     *              {@code 1}, the drawing is from
+     *              the last update to the next one
+     * 
+     * @see #getInterpolation()
+     * @see #onDraw(Graphics2D)
+     */
+    public void draw(Graphics2D g2, double alpha) {
+        this.interpolation = Math.max(0, Math.min(1, alpha));
+        resetCullingCounts();
+
         drawBackgrounds(g2);
         drawObjects(g2);
         drawForegrounds(g2);
         drawCamera(g2);
         
         onDraw(g2);
+
+        this.interpolation = 1;
+    }
+
+    /**
+     * Draws this {@code Stage} the same way as
+     * {@code draw(Graphics2D, double)}, but
+     * describing the frame in the passed
+     * {@code queue} first and having it executed
+     * by the passed {@code backend}. The
+     * {@code onDraw} method of this stage is
+     * called after, drawing over the frame.
+     * 
+     * @param g2 the {@code Graphics2D} instance
+     *           to draw this {@code Stage}'s
+     *           objects with
+     * @param alpha how far, between {@code 0} and
+     *              {@code 1}, the drawing is from
+     *              the last update to the next one
+     * @param queue the {@code RenderQueue} in
+     *              which the frame is described
+     * @param backend the {@code RenderBackend}
+     *                that executes the queue
+     * 
+     * @see #enqueue(RenderQueue)
+     */
+    public void render (
+        Graphics2D g2,
+        double alpha,
+        RenderQueue queue,
+        RenderBackend backend
+    ) {
+        this.interpolation = Math.max(0, Math.min(1, alpha));
+
+        queue.clear();
+        enqueue(queue);
+        queue.sort();
+        backend.render(queue, g2, getGamePanelWidth(), getGamePanelHeight());
+
+        onDraw(g2);
+
+        this.interpolation = 1;
+    }
+
+    /**
+     * Draws this {@code Stage} redrawing only the
+     * parts of the screen that changed since the
+     * last drawing in this mode, over a back buffer
+     * kept between drawings, which is then copied
+     * with {@code g2}.
+     * <p>
+     * The frame is described in a {@code RenderQueue}
+     * and compared with the previous one, so the
+     * rectangles covered by elements that moved,
+     * were animated, appeared or disappeared are
+     * cleared with the {@code background} color and
+     * redrawn by the {@code backend}, clipped to them,
+     * the clearing being the first command it runs.
+     * When the camera moves, the whole frame is
+     * redrawn. The {@code onDraw} method of this
+     * stage is called after, drawing over the copy.
+     * 
+     * @param g2 the {@code Graphics2D} instance
+     *           to draw this {@code Stage}'s
+     *           objects with
+     * @param alpha how far, between {@code 0} and
+     *              {@code 1}, the drawing is from
+     *              the last update to the next one
+     * @param backend the {@code RenderBackend} that
+     *                redraws the dirty rectangles
+     * @param background the color with which the
+     *                   dirty rectangles are cleared
+     * 
+     * @see #getDirtyRegions()
+     */
+    public void drawDirty (
+        Graphics2D g2,
+        double alpha,
+        RenderBackend backend,
+        Color background
+    ) {
+        int width = getGamePanelWidth();
+        int height = getGamePanelHeight();
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+
+        this.interpolation = Math.max(0, Math.min(1, alpha));
+        if (
+            backBuffer == null ||
+            backBuffer.getWidth() != width ||
+            backBuffer.getHeight() != height
+        ) {
+            backBuffer = CompatibleImages.createCompatibleImage (
+                width, height, Transparency.OPAQUE
+            );
+            dirtyRegions.invalidate();
+        }
+        if(dirtyQueue == null) {
+            dirtyQueue = new RenderQueue();
+            dirtyRectangleQueue = new RenderQueue();
+        }
+
+        int cameraX = camera.getInterpolatedX();
+        int cameraY = camera.getInterpolatedY();
+        boolean cameraMoved = cameraX != lastCameraX || cameraY != lastCameraY;
+        lastCameraX = cameraX;
+        lastCameraY = cameraY;
+
+        dirtyQueue.clear();
+        enqueue(dirtyQueue);
+        dirtyQueue.sort();
+        dirtyRegions.update(dirtyQueue, width, height, cameraMoved);
+
+        Graphics2D bufferGraphics = backBuffer.createGraphics();
+        for(int i = 0; i < dirtyRegions.getCount(); i++) {
+            int x = dirtyRegions.getX(i);
+            int y = dirtyRegions.getY(i);
+            int w = dirtyRegions.getWidth(i);
+            int h = dirtyRegions.getHeight(i);
+
+            // the background is cleared by the backend itself, as its
+            // first command, since a backend may draw its own frame over
+            // whatever was drawn with bufferGraphics before it
+            bufferGraphics.setClip(x, y, w, h);
+            dirtyRectangleQueue.clear();
+            dirtyRectangleQueue.addRect(background, x, y, w, h);
+            fillDirtyRectangleQueue(x, y, w, h);
+            backend.render(dirtyRectangleQueue, bufferGraphics, width, height);
+        }
+        bufferGraphics.dispose();
+        g2.drawImage(backBuffer, 0, 0, null);
+
+        onDraw(g2);
+
+        this.interpolation = 1;
+    }
+
+    /**
+     * Adds to the {@code dirtyRectangleQueue}
+     * the commands of the {@code dirtyQueue} that
+     * touch the passed rectangle, in drawing order,
+     * so that the commands out of it aren't run.
+     * 
+     * @param x the x coordinate of the rectangle
+     * @param y the y coordinate of the rectangle
+     * @param w the width of the rectangle
+     * @param h the height of the rectangle
+     */
+    private void fillDirtyRectangleQueue(int x, int y, int w, int h) {
+        for(int position = 0; position < dirtyQueue.getSize(); position++) {
+            int i = dirtyQueue.getCommand(position);
+            int left = dirtyQueue.getX(i);
+            int top = dirtyQueue.getY(i);
+            int right = left + dirtyQueue.getWidth(i);
+            int bottom = top + dirtyQueue.getHeight(i);
+            if(dirtyQueue.getKind(i) == RenderQueue.LINE) {
+                right = Math.max(left, dirtyQueue.getWidth(i)) + 1;
+                bottom = Math.max(top, dirtyQueue.getHeight(i)) + 1;
+                left = Math.min(left, dirtyQueue.getWidth(i));
+                top = Math.min(top, dirtyQueue.getHeight(i));
+            }
+            if(right <= x || bottom <= y || left >= x + w || top >= y + h) {
+                continue;
+            }
+
+            switch(dirtyQueue.getKind(i)) {
+                case RenderQueue.SPRITE:
+                    dirtyRectangleQueue.addSprite (
+                        dirtyQueue.getSprite(i),
+                        dirtyQueue.getX(i), dirtyQueue.getY(i),
+                        dirtyQueue.getWidth(i), dirtyQueue.getHeight(i)
+                    );
+                    break;
+                case RenderQueue.RECT:
+                    dirtyRectangleQueue.addRect (
+                        dirtyQueue.getColor(i),
+                        dirtyQueue.getX(i), dirtyQueue.getY(i),
+                        dirtyQueue.getWidth(i), dirtyQueue.getHeight(i)
+                    );
+                    break;
+                case RenderQueue.LINE:
+                    dirtyRectangleQueue.addLine (
+                        dirtyQueue.getColor(i),
+                        dirtyQueue.getX(i), dirtyQueue.getY(i),
+                        dirtyQueue.getWidth(i), dirtyQueue.getHeight(i)
+                    );
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@code DirtyRegions} that tell
+     * which parts of the screen were redrawn on the
+     * last drawing of this {@code Stage} in dirty
+     * redraw mode, and which fraction of the
+     * pixels they are.
+     * 
+     * @return the {@code DirtyRegions}
+     * of this {@code Stage}
+     */
+    public DirtyRegions getDirtyRegions() {
+        return this.dirtyRegions;
+    }
+
+    /**
+     * Adds to the passed {@code queue} the commands
+     * that draw the backgrounds, objects, foregrounds
+     * and camera of this {@code Stage}, each group on
+     * its own layer, at their interpolated positions
+     * and leaving out what isn't drawn at the current
+     * quality or is out of the view of the camera.
+     * The objects are added with their z.
+     * <p>
+     * The {@code onDraw} methods are not
+     * called when enqueuing.
+     * 
+     * @param queue the {@code RenderQueue}
+     *              to be filled
+     */
+    public void enqueue(RenderQueue queue) {
+        resetCullingCounts();
+
+        queue.setLayer(RenderQueue.BACKGROUND_LAYER);
+        queue.setZ(0);
+        int skipped = getSkippedDetailLayers(backgrounds);
+        for(int i = backgrounds.size() - 1; i >= 0; i--) {
+            Scenario background = backgrounds.get(i);
+            if(background.isDetailLayer() && skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if(cull(background, false)) {
+                continue;
+            }
+
+            background.enqueue(queue);
+        }
+
+        queue.setLayer(RenderQueue.OBJECT_LAYER);
+        for(GameObject object : objects) {
+            if(cull(object, false)) {
+                continue;
+            }
+
+            object.enqueue(queue);
+        }
+
+        queue.setLayer(RenderQueue.FOREGROUND_LAYER);
+        queue.setZ(0);
+        skipped = getSkippedDetailLayers(foregrounds);
+        for(int i = foregrounds.size() - 1; i >= 0; i--) {
+            Scenario foreground = foregrounds.get(i);
+            if(foreground.isDetailLayer() && skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if(cull(foreground, false)) {
+                continue;
+            }
+
+            foreground.enqueue(queue);
+        }
+
+        if(drawDebugOverlays) {
+            queue.setLayer(RenderQueue.OVERLAY_LAYER);
+            camera.enqueue(queue);
+        }
+    }
+
+    /**
+     * Fills the passed {@code snapshot} with the
+     * backgrounds, objects, foregrounds and camera
+     * of this {@code Stage}, in the same order in
+     * which they are drawn and leaving out what
+     * isn't drawn at the current quality or is
+     * out of the view of the camera.
+     * 
+     * @param snapshot the {@code RenderSnapshot}
+     *                 to be filled
+     */
+    public void capture(RenderSnapshot snapshot) {
+        resetCullingCounts();
+
+        int skipped = getSkippedDetailLayers(backgrounds);
+        for(int i = backgrounds.size() - 1; i >= 0; i--) {
+            Scenario background = backgrounds.get(i);
+            if(background.isDetailLayer() && skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if(cull(background, true)) {
+                continue;
+            }
+
+            background.capture(snapshot);
+        }
+        for(GameObject object : objects) {
+            if(cull(object, true)) {
+                continue;
+            }
+
+            object.capture(snapshot);
+        }
+        skipped = getSkippedDetailLayers(foregrounds);
+        for(int i = foregrounds.size() - 1; i >= 0; i--) {
+            Scenario foreground = foregrounds.get(i);
+            if(foreground.isDetailLayer() && skipped > 0) {
+                skipped--;
+                continue;
+            }
+            if(cull(foreground, true)) {
+                continue;
+            }
+
+            foreground.capture(snapshot);
+        }
+        if(drawDebugOverlays) {
+            camera.capture(snapshot);
+        }
     }
 
     /**
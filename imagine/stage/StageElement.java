@@ -3,6 +3,7 @@ package imagine.stage;
 import imagine.game.GameElement;
 import imagine.flow.GameFluid;
 import imagine.game.Game;
+import imagine.schedule.TickScheduler;
 
 /**
  * Super class for stage elements like
@@ -28,6 +29,18 @@ public abstract class StageElement extends GameElement implements GameFluid {
      */
     private int ySpeed = 0;
 
+    /**
+     * The x coordinate before
+     * the last update.
+     */
+    private int previousX;
+
+    /**
+     * The y coordinate before
+     * the last update.
+     */
+    private int previousY;
+
     /**
      * Sets the stage of this
      * {@code StageElement}.
@@ -92,6 +105,21 @@ public abstract class StageElement extends GameElement implements GameFluid {
         }
     }
 
+    /**
+     * Returns the {@code TickScheduler} of the
+     * {@code Stage} of this {@code StageElement}.
+     * 
+     * @return the {@code TickScheduler}
+     * of the {@code Stage}
+     */
+    public TickScheduler getScheduler() {
+        if(stage != null) {
+            return stage.getScheduler();
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Returns the width of the panel
      * where this {@code StageElement}
@@ -214,6 +242,91 @@ public abstract class StageElement extends GameElement implements GameFluid {
         return this.ySpeed;
     }
 
+    /**
+     * Stores the current coordinates of
+     * this {@code StageElement} as its
+     * previous coordinates.
+     * <p>
+     * This method is called by the {@code Stage}
+     * before every update, but it may also be
+     * called after moving this {@code StageElement}
+     * instantly to another place so that its
+     * drawing doesn't blend between both places.
+     */
+    public void storePreviousCoordinates() {
+        this.previousX = getX();
+        this.previousY = getY();
+    }
+
+    /**
+     * Returns the x coordinate of this
+     * {@code StageElement} before the
+     * last update.
+     * 
+     * @return the previous x coordinate
+     */
+    public int getPreviousX() {
+        return this.previousX;
+    }
+
+    /**
+     * Returns the y coordinate of this
+     * {@code StageElement} before the
+     * last update.
+     * 
+     * @return the previous y coordinate
+     */
+    public int getPreviousY() {
+        return this.previousY;
+    }
+
+    /**
+     * Returns the x coordinate of this
+     * {@code StageElement} blended between
+     * its previous and current x coordinates
+     * according to the interpolation of the
+     * {@code Stage} drawing.
+     * 
+     * @return the interpolated x coordinate
+     */
+    public int getInterpolatedX() {
+        return interpolate(previousX, getX());
+    }
+
+    /**
+     * Returns the y coordinate of this
+     * {@code StageElement} blended between
+     * its previous and current y coordinates
+     * according to the interpolation of the
+     * {@code Stage} drawing.
+     * 
+     * @return the interpolated y coordinate
+     */
+    public int getInterpolatedY() {
+        return interpolate(previousY, getY());
+    }
+
+    /**
+     * Blends the {@code previous} and
+     * {@code current} values according
+     * to the interpolation of the
+     * {@code Stage} drawing.
+     * 
+     * @param previous the value before the last update
+     * @param current the current value
+     * 
+     * @return the blended value
+     */
+    private int interpolate(int previous, int current) {
+        if(stage == null || previous == current) {
+            return current;
+        }
+
+        return (int) Math.round (
+            previous + (current - previous) * stage.getInterpolation()
+        );
+    }
+
     /**
      * Generic code for moving this
      * {@code StageElement} according
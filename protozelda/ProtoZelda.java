@@ -4,6 +4,7 @@ import java.awt.Graphics2D;
 
 import imagine.game.Game;
 import protozelda.stg.TestStage_STG;
+import protozelda.util.Atlas;
 
 public class ProtoZelda extends Game {
 
@@ -20,6 +21,7 @@ public class ProtoZelda extends Game {
         setTileSize(ORIGINAL_TILE_SIZE * SCALE, ORIGINAL_TILE_SIZE * SCALE);
         centralize();
         addStage(new TestStage_STG(this));
+        Atlas.pack();
         nextStage();
         createGameFlow(60);
         setDisplayFps(true);
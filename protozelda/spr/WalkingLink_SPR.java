@@ -1,6 +1,7 @@
 package protozelda.spr;
 
 import imagine.sprite.SpriteSheet;
+import protozelda.util.Atlas;
 
 public class WalkingLink_SPR extends SpriteSheet {
 
@@ -9,6 +10,7 @@ public class WalkingLink_SPR extends SpriteSheet {
             "protozelda/assets/sprites/obj/walking-link.png",
             4, 2, 1
         );
+        Atlas.add(this);
     }
     
 }
\ No newline at end of file
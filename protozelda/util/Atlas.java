@@ -0,0 +1,23 @@
+package protozelda.util;
+
+import imagine.sprite.Sprite;
+import imagine.sprite.TextureAtlas;
+
+public class Atlas {
+
+    private static final TextureAtlas ATLAS = new TextureAtlas(256, 256, 1);
+
+    public static <T extends Sprite> T add(T sprite) {
+        ATLAS.add(sprite);
+        return sprite;
+    }
+
+    public static void pack() {
+        ATLAS.pack();
+    }
+
+    public static TextureAtlas getAtlas() {
+        return ATLAS;
+    }
+
+}